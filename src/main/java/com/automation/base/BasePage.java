@@ -1,11 +1,12 @@
 package com.automation.base;
 
+import com.automation.core.AdaptiveWait;
 import com.automation.core.ConfigManager;
 import com.automation.core.DriverManager;
 import io.appium.java_client.android.AndroidDriver;
-import io.netty.handler.timeout.TimeoutException;
-
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
@@ -13,7 +14,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Base page object class providing common element interaction methods.
@@ -21,7 +24,8 @@ import java.util.List;
  * 
  * This class provides:
  * - Common WebDriver and WebDriverWait instances
- * - Pre-configured wait instances (shortWait: 2s, mediumWait: 5s, longWait: 10s)
+ * - Pre-configured wait instances (shortWait: 2s, mediumWait: 5s, longWait: 10s);
+ *   all are {@link AdaptiveWait}s, which suspend the implicit wait while polling
  * - Reusable element interaction methods (click, sendKeys, findElement, etc.)
  * - Implicit wait configuration from application.properties
  * 
@@ -39,15 +43,17 @@ public abstract class BasePage {
     protected WebDriverWait mediumWait;
     /** Long wait instance (10 seconds) - for operations that may take longer */
     protected WebDriverWait longWait;
+    /** Waits for explicit budgets, created once per distinct budget */
+    private final Map<Duration, WebDriverWait> budgetWaits = new HashMap<>();
 
     public BasePage() {
         this.driver = DriverManager.getDriver();
         this.wait = DriverManager.getWait();
         setImplicitWait();
         // Initialize wait instances
-        this.shortWait = new WebDriverWait(driver, Duration.ofSeconds(2));
-        this.mediumWait = new WebDriverWait(driver, Duration.ofSeconds(5));
-        this.longWait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        this.shortWait = new AdaptiveWait(driver, Duration.ofSeconds(2));
+        this.mediumWait = new AdaptiveWait(driver, Duration.ofSeconds(5));
+        this.longWait = new AdaptiveWait(driver, Duration.ofSeconds(10));
     }
 
     /**
@@ -57,7 +63,7 @@ public abstract class BasePage {
      */
     protected void setImplicitWait() {
         int implicitTimeoutSeconds = config.getIntProperty("test.timeout.implicit", 2);
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(implicitTimeoutSeconds));
+        AdaptiveWait.setImplicitWait(driver, Duration.ofSeconds(implicitTimeoutSeconds));
         logger.debug("Implicit wait set to {} seconds", implicitTimeoutSeconds);
     }
 
@@ -68,14 +74,14 @@ public abstract class BasePage {
 
     /**
      * Finds multiple elements matching the locator.
-     * Uses driver's findElements method which returns an empty list if no elements are found.
+     * Returns immediately with an empty list if no elements are found (the implicit wait is suspended).
      * 
      * @param locator Element locator
      * @return List of WebElement instances matching the locator (empty if none found)
      */
     protected List<WebElement> findElements(By locator) {
         logger.debug("Finding elements: {}", locator);
-        return driver.findElements(locator);
+        return AdaptiveWait.withoutImplicitWait(driver, () -> driver.findElements(locator));
     }
 
     /**
@@ -118,39 +124,84 @@ public abstract class BasePage {
     }
 
     /**
-     * Checks if an element is displayed on the screen.
-     * Returns false if element is not found or not visible.
+     * Checks if an element is displayed on the screen right now.
+     * Returns false if element is not found or not visible; does not wait.
      * 
      * @param locator Element locator
      * @return true if element is displayed, false otherwise
      */
     protected boolean isDisplayed(By locator) {
-        try {
-            WebElement element = findElement(locator);
-            return element.isDisplayed();
-        } catch (Exception e) {
-            logger.debug("Element not displayed: {}", locator);
-            return false;
-        }
+        return isPresentNow(locator);
     }
 
     /**
-     * Checks if an element is enabled (can be interacted with).
-     * Returns false if element is not found or not enabled.
+     * Checks if an element is enabled (can be interacted with) right now.
+     * Returns false if element is not found or not enabled; does not wait.
      * 
      * @param locator Element locator
      * @return true if element is enabled, false otherwise
      */
     protected boolean isEnabled(By locator) {
         try {
-            WebElement element = findElement(locator);
-            return element.isEnabled();
-        } catch (Exception e) {
+            List<WebElement> elements = findElements(locator);
+            return !elements.isEmpty() && elements.get(0).isEnabled();
+        } catch (WebDriverException e) {
             logger.debug("Element not enabled: {}", locator);
             return false;
         }
     }
 
+    /**
+     * Checks with a single lookup, without any implicit or explicit wait, whether an element
+     * is displayed. Use for optional UI such as popups that are either there or not.
+     * 
+     * @param locator Element locator
+     * @return true if a matching element is displayed
+     */
+    protected boolean isPresentNow(By locator) {
+        try {
+            List<WebElement> elements = findElements(locator);
+            return !elements.isEmpty() && elements.get(0).isDisplayed();
+        } catch (WebDriverException e) {
+            logger.debug("Element not present: {}", locator);
+            return false;
+        }
+    }
+
+    /**
+     * Waits up to {@code budget} for an element to be displayed.
+     * Returns false once the budget is spent instead of throwing.
+     * 
+     * @param locator Element locator
+     * @param budget Maximum time to wait
+     * @return true if the element was displayed within the budget
+     */
+    protected boolean isPresentWithin(By locator, Duration budget) {
+        try {
+            waitWithBudget(budget).until(ExpectedConditions.visibilityOfElementLocated(locator));
+            return true;
+        } catch (TimeoutException e) {
+            logger.debug("Element not present within {} ms: {}", budget.toMillis(), locator);
+            return false;
+        }
+    }
+
+    /**
+     * Asserts that an element is absent or invisible, allowing up to {@code budget} for it to go away.
+     * Returns as soon as the element is gone.
+     * 
+     * @param locator Element locator
+     * @param budget Maximum time to wait for the element to disappear
+     * @throws AssertionError if the element is still displayed after the budget
+     */
+    protected void assertAbsent(By locator, Duration budget) {
+        try {
+            waitWithBudget(budget).until(ExpectedConditions.invisibilityOfElementLocated(locator));
+        } catch (TimeoutException e) {
+            throw new AssertionError("Element still displayed after " + budget.toMillis() + " ms: " + locator, e);
+        }
+    }
+
     /**
      * Waits for an element to be present in the DOM.
      * Uses the default wait timeout from DriverManager.
@@ -200,6 +251,8 @@ public abstract class BasePage {
     /**
      * Waits for an element to be ready (clickable) using primary locator,
      * with fallback to alternative locator if primary fails.
+     * Both locators are probed together; the one that matched last time on this screen
+     * and app build is probed first (see {@link LocatorResolver}).
      * 
      * @param primaryLocator Primary locator to try first
      * @param alternativeLocator Alternative locator to try if primary fails
@@ -208,22 +261,18 @@ public abstract class BasePage {
      */
     protected WebElement waitForElementToReady(By primaryLocator, By alternativeLocator) {
         logger.debug("Waiting for element to be ready - primary: {}, alternative: {}", primaryLocator, alternativeLocator);
-        try {
-            WebElement element = wait.until(ExpectedConditions.elementToBeClickable(primaryLocator));
-            logger.debug("Element found using primary locator: {}", primaryLocator);
-            return element;
-        } catch (Exception e) {
-            logger.debug("Primary locator failed, trying alternative: {}", e.getMessage());
-            try {
-                WebElement element = wait.until(ExpectedConditions.elementToBeClickable(alternativeLocator));
-                logger.debug("Element found using alternative locator: {}", alternativeLocator);
-                return element;
-            } catch (Exception altEx) {
-                logger.error("Both primary and alternative locators failed for element");
-                throw new RuntimeException("Element not found with primary locator (" + primaryLocator + 
-                    ") or alternative locator (" + alternativeLocator + ")", altEx);
-            }
-        }
+        return LocatorResolver.getInstance().resolve(driver, wait, getClass().getSimpleName(),
+            List.of(primaryLocator, alternativeLocator));
+    }
+
+    /**
+     * Gets a wait with the given timeout, reusing the instance for repeated budgets.
+     * 
+     * @param budget Wait timeout
+     * @return wait instance
+     */
+    protected WebDriverWait waitWithBudget(Duration budget) {
+        return budgetWaits.computeIfAbsent(budget, b -> new AdaptiveWait(driver, b));
     }
 
     /**
@@ -235,20 +284,17 @@ public abstract class BasePage {
      * @param timeoutSec Timeout in seconds to wait for popup to appear/disappear
      */
     protected void handleNotificationPopupIfPresent(By popupLocator, int timeoutSec) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutSec));
-    
+        Duration budget = Duration.ofSeconds(timeoutSec);
+        if (!isPresentWithin(popupLocator, budget)) {
+            logger.debug("No popup detected within {} seconds, continuing flow", timeoutSec);
+            return;
+        }
+        logger.info("Popup detected, waiting for it to close...");
         try {
-            wait.until(ExpectedConditions.visibilityOfElementLocated(popupLocator));
-            logger.info("Popup detected, waiting for it to close...");
-    
-            wait.until(ExpectedConditions.invisibilityOfElementLocated(popupLocator));
+            assertAbsent(popupLocator, budget);
             logger.info("Popup closed successfully");
-    
-        } catch (TimeoutException e) {
-            logger.debug("No popup detected within {} seconds, continuing flow", timeoutSec);
-        } catch (Exception e) {
-            logger.debug("Error handling popup, continuing flow: {}", e.getMessage());
+        } catch (AssertionError e) {
+            logger.debug("Popup still open after {} seconds, continuing flow", timeoutSec);
         }
     }
 }
-
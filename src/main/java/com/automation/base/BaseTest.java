@@ -1,25 +1,47 @@
 package com.automation.base;
 
+import com.automation.core.AdaptiveWait;
+import com.automation.core.AppInstallManager;
 import com.automation.core.ConfigManager;
+import com.automation.core.DevicePool;
+import com.automation.core.DeviceSlot;
 import com.automation.core.DriverManager;
 import com.automation.listeners.AllureListener;
+import com.automation.listeners.SuiteConfigListener;
 import com.automation.listeners.TestListener;
+import com.automation.utils.ArtifactWriter;
+import com.automation.utils.EmulatorConsoleTransport;
+import com.automation.utils.LocationSimulator;
 import com.automation.utils.LoggerUtil;
 import com.automation.utils.ScreenshotUtil;
 import io.qameta.allure.Allure;
 import org.slf4j.Logger;
+import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.AfterSuite;
+import org.testng.annotations.AfterTest;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.Listeners;
 
+import java.time.Duration;
+import java.util.Objects;
+
 /**
  * Base test class providing common setup and teardown functionality.
  * All test classes should extend this class.
  *
  * Listeners are attached here so they work both with TestNG suites (testng.xml)
  * and with Maven -Dtest runs.
+ *
+ * Session lifecycle is controlled by test.session.reuse:
+ * - none: fresh session per test method (default)
+ * - class: app state is reset between methods, session quit after the class
+ * - suite: app state is reset between methods, sessions quit at suite end
+ * A failed test or an unhealthy session always tears the session down.
+ *
+ * Tests expanded from the device matrix (test.matrix.profiles) run on the device of their
+ * device.profile parameter; their sessions never outlive the matrix entry.
  */
 @Listeners({TestListener.class, AllureListener.class})
 public abstract class BaseTest {
@@ -34,22 +56,36 @@ public abstract class BaseTest {
                 config.getProperty("environment", "local"),
                 config.getProperty("device.platform", "Android"),
                 config.getProperty("device.name", "Unknown")));
+        // Install the app on all pooled devices in parallel while the first sessions start
+        AppInstallManager.getInstance().installAll(DevicePool.getInstance().getSlots());
+        // Sessions for the first tests start on free devices now (device.pool.warm.size)
+        DriverManager.prewarmSessions();
     }
 
     @BeforeMethod(alwaysRun = true)
     public void beforeMethod(org.testng.ITestContext context) {
         logger.info("=== Starting Test Method ===");
+        LocationSimulator.clearLocationHistory();
+        String profile = context.getCurrentXmlTest().getParameter(SuiteConfigListener.PROFILE_PARAMETER);
+        if (DriverManager.isDriverInitialized() && !isOnProfileDevice(profile)) {
+            // Worker thread moved to another matrix entry; its reused session is on the wrong device
+            DriverManager.quitDriver();
+        }
         if (!DriverManager.isDriverInitialized()) {
-            DriverManager.initializeDriver();
+            DriverManager.initializeDriver(profile);
         }
     }
 
+    private static boolean isOnProfileDevice(String profile) {
+        DeviceSlot slot = DriverManager.getDeviceSlot();
+        return profile == null || (slot != null && Objects.equals(profile, slot.getProfile()));
+    }
+
     @AfterMethod(alwaysRun = true)
     public void afterMethod(org.testng.ITestResult result) {
         try {
             if (result.getStatus() == org.testng.ITestResult.FAILURE) {
-                String screenshotPath = ScreenshotUtil.captureScreenshot(
-                    result.getMethod().getMethodName());
+                String screenshotPath = ScreenshotUtil.captureFailureScreenshot(result);
                 if (screenshotPath != null) {
                     logger.info("Screenshot captured for failed test: {}", screenshotPath);
                 }
@@ -57,6 +93,21 @@ public abstract class BaseTest {
         } catch (Exception e) {
             logger.error("Error in afterMethod", e);
         } finally {
+            releaseOrResetSession(result.getStatus() == org.testng.ITestResult.SUCCESS);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() {
+        if ("class".equalsIgnoreCase(getSessionReuseMode())) {
+            DriverManager.quitDriver();
+        }
+    }
+
+    @AfterTest(alwaysRun = true)
+    public void afterTest(org.testng.ITestContext context) {
+        // Release the matrix device so other threads can run its remaining entries
+        if (context.getCurrentXmlTest().getParameter(SuiteConfigListener.PROFILE_PARAMETER) != null) {
             DriverManager.quitDriver();
         }
     }
@@ -64,8 +115,48 @@ public abstract class BaseTest {
     @AfterSuite(alwaysRun = true)
     public void afterSuite() {
         logger.info("=== Test Suite Completed ===");
+        String waitReport = AdaptiveWait.latencyReport();
+        if (!waitReport.isEmpty()) {
+            logger.info("Wait latency by condition:\n{}", waitReport);
+            Allure.addAttachment("Wait latency by condition", "text/plain", waitReport);
+        }
+        flushArtifacts();
+        DriverManager.quitAllDrivers();
+        EmulatorConsoleTransport.closeAll();
         DriverManager.stopAppiumServer();
     }
+
+    private void releaseOrResetSession(boolean passed) {
+        if ("none".equalsIgnoreCase(getSessionReuseMode()) || !DriverManager.isDriverInitialized()) {
+            DriverManager.quitDriver();
+            return;
+        }
+        boolean healthy = DriverManager.isSessionHealthy();
+        if (!passed || !healthy) {
+            logger.info("Tearing down reused session after failure or unhealthy session");
+            DriverManager.quitDriver(healthy);
+            return;
+        }
+        if (!DriverManager.resetAppState()) {
+            DriverManager.quitDriver();
+        }
+    }
+
+    private static void flushArtifacts() {
+        int timeoutSeconds = config.getIntProperty("artifact.writer.flush.timeout.seconds", 30);
+        try {
+            int left = ArtifactWriter.getInstance().flush(Duration.ofSeconds(timeoutSeconds));
+            if (left > 0) {
+                logger.warn("{} screenshot(s) not written within {}s", left, timeoutSeconds);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String getSessionReuseMode() {
+        return config.getProperty("test.session.reuse", "none");
+    }
 }
 
 
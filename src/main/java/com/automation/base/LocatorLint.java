@@ -0,0 +1,129 @@
+package com.automation.base;
+
+import com.automation.core.AdaptiveWait;
+import com.automation.core.ConfigManager;
+import io.appium.java_client.android.AndroidDriver;
+import io.qameta.allure.Allure;
+import org.openqa.selenium.By;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports the XPath locators left on a page object, with their measured lookup latency.
+ *
+ * Runs once per page class per JVM when locator.lint.enabled=true. Each XPath locator field is
+ * looked up locator.lint.samples times with the implicit wait suspended and the median latency
+ * is logged and attached to the Allure report, so slow lookups can be migrated to
+ * {@link UiSelector} or id strategies.
+ */
+public final class LocatorLint {
+    private static final Logger logger = LoggerFactory.getLogger(LocatorLint.class);
+    private static final Set<Class<?>> linted = ConcurrentHashMap.newKeySet();
+
+    private LocatorLint() {
+    }
+
+    /**
+     * Lints the page's locator fields if enabled and not yet done for its class.
+     * Must be called after the page's fields are initialized, i.e. from the subclass constructor.
+     */
+    public static void lintOnce(BasePage page) {
+        ConfigManager config = ConfigManager.getInstance();
+        if (!config.getBooleanProperty("locator.lint.enabled", false) || !linted.add(page.getClass())) {
+            return;
+        }
+        try {
+            List<Finding> findings = lint(page, page.driver, Math.max(1, config.getIntProperty("locator.lint.samples", 3)));
+            report(page.getClass().getSimpleName(), findings);
+        } catch (RuntimeException e) {
+            logger.warn("Locator lint failed for {}: {}", page.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Collects XPath locator fields declared on the page class and its page superclasses.
+     */
+    static List<Field> xpathFields(Object page) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> type = page.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (By.class.isAssignableFrom(field.getType())) {
+                    field.setAccessible(true);
+                    try {
+                        if (field.get(page) instanceof By.ByXPath) {
+                            fields.add(field);
+                        }
+                    } catch (IllegalAccessException e) {
+                        logger.debug("Cannot read locator field {}", field.getName(), e);
+                    }
+                }
+            }
+        }
+        return fields;
+    }
+
+    static List<Finding> lint(Object page, AndroidDriver driver, int samples) {
+        return AdaptiveWait.withoutImplicitWait(driver, () -> measure(page, driver, samples));
+    }
+
+    private static List<Finding> measure(Object page, AndroidDriver driver, int samples) {
+        List<Finding> findings = new ArrayList<>();
+        try {
+            for (Field field : xpathFields(page)) {
+                By locator = (By) field.get(page);
+                long[] nanos = new long[samples];
+                int matches = 0;
+                for (int i = 0; i < samples; i++) {
+                    long start = System.nanoTime();
+                    matches = driver.findElements(locator).size();
+                    nanos[i] = System.nanoTime() - start;
+                }
+                Arrays.sort(nanos);
+                findings.add(new Finding(field.getName(), locator, nanos[samples / 2] / 1_000_000, matches));
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Cannot read locator fields", e);
+        }
+        return findings;
+    }
+
+    private static void report(String pageName, List<Finding> findings) {
+        if (findings.isEmpty()) {
+            logger.info("Locator lint: no XPath locators on {}", pageName);
+            return;
+        }
+        StringBuilder report = new StringBuilder();
+        for (Finding finding : findings) {
+            String line = String.format("%s.%s: %d ms, %d match(es) - %s",
+                pageName, finding.field, finding.medianMillis, finding.matches, finding.locator);
+            logger.warn("Locator lint: XPath locator {}", line);
+            report.append(line).append('\n');
+        }
+        Allure.addAttachment("Locator lint - " + pageName, "text/plain", report.toString());
+    }
+
+    static final class Finding {
+        private final String field;
+        private final By locator;
+        private final long medianMillis;
+        private final int matches;
+
+        Finding(String field, By locator, long medianMillis, int matches) {
+            this.field = field;
+            this.locator = locator;
+            this.medianMillis = medianMillis;
+            this.matches = matches;
+        }
+
+        String getField() {
+            return field;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.automation.base;
+
+import com.automation.core.AdaptiveWait;
+import com.automation.core.ConfigManager;
+import io.appium.java_client.android.AndroidDriver;
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Resolves an element from a list of candidate locators (primary first, then fallbacks)
+ * and remembers which candidate matched, per screen and app build.
+ *
+ * All candidates are probed in the same polling loop with the implicit wait suspended, so a
+ * wrong primary costs one empty lookup per poll instead of a full wait timeout. The remembered
+ * winner is probed first, so in steady state only one lookup is made. Winners are persisted to
+ * locator.cache.file and keyed by the app build (locator.cache.app.version, or the APK file
+ * name from device.app.path), so a new build starts learning from scratch.
+ */
+public final class LocatorResolver {
+    private static final Logger logger = LoggerFactory.getLogger(LocatorResolver.class);
+    private static LocatorResolver instance;
+
+    private final Path cacheFile;
+    private final String appVersion;
+    private final Properties winners = new Properties();
+
+    LocatorResolver(Path cacheFile, String appVersion) {
+        this.cacheFile = cacheFile;
+        this.appVersion = appVersion;
+        load();
+    }
+
+    public static synchronized LocatorResolver getInstance() {
+        if (instance == null) {
+            ConfigManager config = ConfigManager.getInstance();
+            String appVersion = config.getProperty("locator.cache.app.version", "");
+            if (appVersion.isEmpty()) {
+                appVersion = Paths.get(config.getProperty("device.app.path", "unknown")).getFileName().toString();
+            }
+            instance = new LocatorResolver(
+                Paths.get(config.getProperty("locator.cache.file", ".locator-cache.properties")), appVersion);
+        }
+        return instance;
+    }
+
+    /**
+     * Waits until one of the candidates is clickable (displayed and enabled) and returns it.
+     *
+     * @param screen     Name of the screen the locators belong to, used to scope the cache
+     * @param candidates Locators in declaration order; the first one is the primary
+     * @throws RuntimeException if no candidate becomes clickable within the wait timeout
+     */
+    public WebElement resolve(AndroidDriver driver, WebDriverWait wait, String screen, List<By> candidates) {
+        String key = key(screen, candidates);
+        int preferred = preferredIndex(key, candidates.size());
+        try {
+            Match match = AdaptiveWait.withoutImplicitWait(driver,
+                () -> wait.until(new ExpectedCondition<Match>() {
+                    @Override
+                    public Match apply(WebDriver ignored) {
+                        return probe(driver, candidates, preferred);
+                    }
+
+                    @Override
+                    public String toString() {
+                        return "any of " + candidates + " to be clickable";
+                    }
+                }));
+            if (match.index != preferred) {
+                logger.info("Locator {} matched instead of {} on {}; remembering it",
+                    candidates.get(match.index), candidates.get(preferred), screen);
+                recordWinner(key, match.index);
+            }
+            return match.element;
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Element not found with any of " + candidates + " on " + screen, e);
+        }
+    }
+
+    private static Match probe(AndroidDriver driver, List<By> candidates, int preferred) {
+        for (int n = 0; n < candidates.size(); n++) {
+            int index = n == 0 ? preferred : (n <= preferred ? n - 1 : n);
+            for (WebElement element : driver.findElements(candidates.get(index))) {
+                try {
+                    if (element.isDisplayed() && element.isEnabled()) {
+                        return new Match(index, element);
+                    }
+                } catch (StaleElementReferenceException e) {
+                    // re-probed on the next poll
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return index of the remembered winner, or 0 (the primary) if none is known
+     */
+    synchronized int preferredIndex(String key, int candidateCount) {
+        String value = winners.getProperty(key);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            int index = Integer.parseInt(value);
+            return index >= 0 && index < candidateCount ? index : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    synchronized void recordWinner(String key, int index) {
+        winners.setProperty(key, Integer.toString(index));
+        save();
+    }
+
+    String key(String screen, List<By> candidates) {
+        StringBuilder key = new StringBuilder(appVersion).append('|').append(screen);
+        for (By candidate : candidates) {
+            key.append('|').append(candidate);
+        }
+        return key.toString();
+    }
+
+    private void load() {
+        if (!Files.exists(cacheFile)) {
+            return;
+        }
+        try (InputStream in = Files.newInputStream(cacheFile)) {
+            winners.load(in);
+            logger.debug("Loaded {} locator winners from {}", winners.size(), cacheFile);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Ignoring unreadable locator cache {}: {}", cacheFile, e.getMessage());
+            winners.clear();
+        }
+    }
+
+    /**
+     * Writes the cache to a temporary file and moves it into place, so parallel runs
+     * never read a partially written file.
+     */
+    private void save() {
+        try {
+            Path directory = cacheFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "locator-cache", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                winners.store(out, "Locator winners per app build and screen (generated)");
+            }
+            Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to persist locator cache {}: {}", cacheFile, e.getMessage());
+        }
+    }
+
+    private static final class Match {
+        private final int index;
+        private final WebElement element;
+
+        Match(int index, WebElement element) {
+            this.index = index;
+            this.element = element;
+        }
+    }
+}
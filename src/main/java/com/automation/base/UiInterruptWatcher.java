@@ -0,0 +1,193 @@
+package com.automation.base;
+
+import com.automation.core.ConfigManager;
+import io.appium.java_client.AppiumBy;
+import io.appium.java_client.android.AndroidDriver;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Background watcher that dismisses known blocking dialogs as soon as they appear.
+ *
+ * While open, the watcher takes a {@link UiSnapshot} every ui.watcher.poll.ms and checks it
+ * against a registry of blocking dialogs (permission controller, the app's background location
+ * rationale, ...). A dialog with a dismiss button is clicked away; one without is waited out.
+ * The main flow calls {@link #awaitClear(Duration)} instead of sleeping: it returns once no
+ * registered dialog has been seen for ui.watcher.quiet.ms.
+ *
+ * The watcher shares the driver with the test thread, so open it only around steps that do not
+ * handle these dialogs themselves (e.g. not around grantLocationPermission).
+ *
+ * Usage:
+ * <pre>
+ * try (UiInterruptWatcher watcher = UiInterruptWatcher.start(driver)) {
+ *     pressBackButtonOfDevice();
+ *     watcher.awaitClear(Duration.ofSeconds(10));
+ * }
+ * </pre>
+ */
+public final class UiInterruptWatcher implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(UiInterruptWatcher.class);
+    private static final List<BlockingDialog> registry = new CopyOnWriteArrayList<>(List.of(
+        new BlockingDialog("location permission dialog",
+            "com.android.permissioncontroller:id/grant_dialog",
+            "com.android.permissioncontroller:id/permission_allow_foreground_only_button"),
+        // Its OK button opens the system location permission page, so it is waited out, not clicked
+        new BlockingDialog("background location rationale",
+            "de.egi.geofence.geozone:id/parentPanel",
+            null)));
+
+    private final Supplier<String> pageSource;
+    private final Consumer<String> clickById;
+    private final long quietNanos;
+    private final ScheduledExecutorService scheduler;
+    private final Object monitor = new Object();
+
+    private long ticks;
+    private long lastBlockedNanos;
+    private int dismissed;
+
+    UiInterruptWatcher(Supplier<String> pageSource, Consumer<String> clickById, long pollMillis, long quietMillis) {
+        this.pageSource = pageSource;
+        this.clickById = clickById;
+        this.quietNanos = TimeUnit.MILLISECONDS.toNanos(quietMillis);
+        this.lastBlockedNanos = System.nanoTime();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ui-interrupt-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, 0, pollMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts watching the given session, using ui.watcher.poll.ms and ui.watcher.quiet.ms.
+     */
+    public static UiInterruptWatcher start(AndroidDriver driver) {
+        ConfigManager config = ConfigManager.getInstance();
+        return new UiInterruptWatcher(driver::getPageSource, id -> {
+            // The button was just seen in the snapshot, so the lookup does not hit the implicit wait
+            List<WebElement> buttons = driver.findElements(AppiumBy.id(id));
+            if (!buttons.isEmpty()) {
+                buttons.get(0).click();
+            }
+        }, config.getIntProperty("ui.watcher.poll.ms", 250), config.getIntProperty("ui.watcher.quiet.ms", 1500));
+    }
+
+    /**
+     * Adds a dialog to the registry used by watchers started afterwards.
+     */
+    public static void register(BlockingDialog dialog) {
+        registry.add(dialog);
+    }
+
+    /**
+     * Blocks until no registered dialog has been seen for the quiet period, or the budget is spent.
+     *
+     * @return true if the screen is clear, false if a dialog was still blocking at the deadline
+     */
+    public boolean awaitClear(Duration budget) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + budget.toNanos();
+        synchronized (monitor) {
+            long startTicks = ticks;
+            while (true) {
+                long now = System.nanoTime();
+                // The watcher counts as blocked from its start, so a dialog that pops up shortly
+                // after the triggering action is still caught within the first quiet period
+                boolean quiet = ticks > startTicks && now - lastBlockedNanos >= quietNanos;
+                if (quiet) {
+                    logger.info("UI clear after {} ms ({} dialog(s) dismissed)",
+                        TimeUnit.NANOSECONDS.toMillis(now - start), dismissed);
+                    return true;
+                }
+                if (now >= deadline) {
+                    logger.warn("UI still blocked after {} ms", budget.toMillis());
+                    return false;
+                }
+                long waitNanos = Math.min(deadline - now, quietNanos - (now - lastBlockedNanos));
+                TimeUnit.NANOSECONDS.timedWait(monitor, Math.max(1_000_000, waitNanos));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void tick() {
+        boolean blocked = false;
+        try {
+            UiSnapshot snapshot = UiSnapshot.parse(pageSource.get());
+            for (BlockingDialog dialog : registry) {
+                if (isShown(snapshot, dialog.markerResourceId)) {
+                    blocked = true;
+                    if (dialog.dismissResourceId != null && isShown(snapshot, dialog.dismissResourceId)) {
+                        logger.info("Dismissing {}", dialog.name);
+                        clickById.accept(dialog.dismissResourceId);
+                        synchronized (monitor) {
+                            dismissed++;
+                        }
+                    } else {
+                        logger.debug("Waiting for {} to close", dialog.name);
+                    }
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            // The session may be busy or the dialog gone mid-click; treat as blocked and retry
+            logger.debug("UI interrupt check failed: {}", e.getMessage());
+            blocked = true;
+        }
+        synchronized (monitor) {
+            ticks++;
+            if (blocked) {
+                lastBlockedNanos = System.nanoTime();
+            }
+            monitor.notifyAll();
+        }
+    }
+
+    private static boolean isShown(UiSnapshot snapshot, String resourceId) {
+        for (int node : snapshot.byResourceId(resourceId)) {
+            if (snapshot.isDisplayed(node)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A dialog that blocks the flow, recognized by a resource-id inside it.
+     */
+    public static final class BlockingDialog {
+        private final String name;
+        private final String markerResourceId;
+        private final String dismissResourceId;
+
+        /**
+         * @param dismissResourceId button that closes the dialog, or null to wait for it to close by itself
+         */
+        public BlockingDialog(String name, String markerResourceId, String dismissResourceId) {
+            this.name = name;
+            this.markerResourceId = markerResourceId;
+            this.dismissResourceId = dismissResourceId;
+        }
+    }
+}
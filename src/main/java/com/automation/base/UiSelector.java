@@ -0,0 +1,92 @@
+package com.automation.base;
+
+import io.appium.java_client.AppiumBy;
+import org.openqa.selenium.By;
+
+/**
+ * Builder for UiAutomator selectors, compiled to {@link AppiumBy#androidUIAutomator(String)}.
+ *
+ * UiAutomator selectors are matched on the device against the live accessibility tree,
+ * while XPath makes UiAutomator2 serialize the whole hierarchy to XML on every lookup.
+ * Prefer {@link AppiumBy#id} when a full resource-id is known, this builder for class, partial
+ * id, text and nth-match criteria, and XPath only for what neither can express (e.g. toasts).
+ *
+ * Usage:
+ * <pre>
+ * By snackbar = UiSelector.className("android.widget.TextView").resourceIdMatches(".*snackbar.*").toBy();
+ * // equivalent of //android.widget.TextView[contains(@resource-id,'snackbar')]
+ * </pre>
+ */
+public final class UiSelector {
+    private final StringBuilder expression = new StringBuilder("new UiSelector()");
+
+    private UiSelector() {
+    }
+
+    public static UiSelector className(String className) {
+        return new UiSelector().append("className", className);
+    }
+
+    public static UiSelector classNameMatching(String regex) {
+        return new UiSelector().append("classNameMatches", regex);
+    }
+
+    public static UiSelector any() {
+        return new UiSelector();
+    }
+
+    public UiSelector resourceId(String resourceId) {
+        return append("resourceId", resourceId);
+    }
+
+    /**
+     * Full-match regex on the resource-id; use ".*part.*" for XPath contains().
+     */
+    public UiSelector resourceIdMatches(String regex) {
+        return append("resourceIdMatches", regex);
+    }
+
+    public UiSelector text(String text) {
+        return append("text", text);
+    }
+
+    public UiSelector textContains(String text) {
+        return append("textContains", text);
+    }
+
+    public UiSelector description(String description) {
+        return append("description", description);
+    }
+
+    /**
+     * Zero-based index among all matches; instance(0) is the equivalent of XPath (...)[1].
+     */
+    public UiSelector instance(int instance) {
+        expression.append(".instance(").append(instance).append(')');
+        return this;
+    }
+
+    /**
+     * Restricts matches to descendants of this selector, like XPath "//parent//child".
+     */
+    public UiSelector descendant(UiSelector child) {
+        expression.append(".childSelector(").append(child.expression).append(')');
+        return this;
+    }
+
+    public By toBy() {
+        return AppiumBy.androidUIAutomator(expression.toString());
+    }
+
+    private UiSelector append(String method, String value) {
+        expression.append('.').append(method).append("(\"")
+            .append(value.replace("\\", "\\\\").replace("\"", "\\\""))
+            .append("\")");
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return expression.toString();
+    }
+}
@@ -0,0 +1,254 @@
+package com.automation.base;
+
+import io.appium.java_client.android.AndroidDriver;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the UI hierarchy, fetched with one page source call and queried locally.
+ *
+ * Checks that need several signals (toast, snackbar, dialog, list items) would otherwise cost one
+ * driver round-trip each, plus an implicit wait on every miss. The XML is read with a StAX cursor
+ * into parallel arrays (one slot per node, parents stored by index) with hash indexes by
+ * resource-id and class, so lookups by those are constant time and the rest are array scans.
+ *
+ * Node handles are array positions in document order (0..size-1).
+ *
+ * Usage:
+ * <pre>
+ * UiSnapshot snapshot = UiSnapshot.capture(driver);
+ * int toast = snapshot.first("android.widget.Toast", null);
+ * String text = toast &gt;= 0 ? snapshot.text(toast) : "";
+ * </pre>
+ */
+public final class UiSnapshot {
+    private static final int[] NONE = new int[0];
+
+    private final int size;
+    private final int[] parents;
+    private final String[] classNames;
+    private final String[] resourceIds;
+    private final String[] texts;
+    private final String[] descriptions;
+    private final boolean[] displayed;
+    private final Map<String, int[]> byResourceId;
+    private final Map<String, int[]> byClass;
+
+    private UiSnapshot(Builder builder) {
+        this.size = builder.size;
+        this.parents = Arrays.copyOf(builder.parents, size);
+        this.classNames = Arrays.copyOf(builder.classNames, size);
+        this.resourceIds = Arrays.copyOf(builder.resourceIds, size);
+        this.texts = Arrays.copyOf(builder.texts, size);
+        this.descriptions = Arrays.copyOf(builder.descriptions, size);
+        this.displayed = Arrays.copyOf(builder.displayed, size);
+        this.byResourceId = index(resourceIds);
+        this.byClass = index(classNames);
+    }
+
+    /**
+     * Fetches the current page source from the device and parses it.
+     */
+    public static UiSnapshot capture(AndroidDriver driver) {
+        return parse(driver.getPageSource());
+    }
+
+    /**
+     * Parses a UiAutomator2 page source document.
+     *
+     * @throws IllegalArgumentException if the document is not well-formed
+     */
+    public static UiSnapshot parse(String pageSource) {
+        Builder builder = new Builder();
+        if (pageSource == null || pageSource.isEmpty()) {
+            return new UiSnapshot(builder);
+        }
+        XMLStreamReader reader = null;
+        try {
+            XMLInputFactory factory = XMLInputFactory.newFactory();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            reader = factory.createXMLStreamReader(new StringReader(pageSource));
+
+            int[] stack = new int[64];
+            int depth = 0;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    int parent = depth > 0 ? stack[depth - 1] : -1;
+                    int node = builder.add(parent, reader);
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+                    stack[depth++] = node;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+            return new UiSnapshot(builder);
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("Invalid page source", e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // nothing to release for an in-memory reader
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String className(int node) {
+        return classNames[node];
+    }
+
+    public String resourceId(int node) {
+        return resourceIds[node];
+    }
+
+    /**
+     * @return the node's text, or an empty string
+     */
+    public String text(int node) {
+        return texts[node];
+    }
+
+    public boolean isDisplayed(int node) {
+        return displayed[node];
+    }
+
+    /**
+     * @return nodes with exactly this resource-id, in document order
+     */
+    public int[] byResourceId(String resourceId) {
+        return byResourceId.getOrDefault(resourceId, NONE).clone();
+    }
+
+    /**
+     * @return nodes of exactly this class, in document order
+     */
+    public int[] byClass(String className) {
+        return byClass.getOrDefault(className, NONE).clone();
+    }
+
+    /**
+     * Finds the first displayed node matching both criteria; null criteria match anything.
+     *
+     * @param resourceIdPart substring of the resource-id, like XPath contains(@resource-id, ...)
+     * @return node, or -1 if none matches
+     */
+    public int first(String className, String resourceIdPart) {
+        int[] candidates = className != null ? byClass.getOrDefault(className, NONE) : null;
+        int count = candidates != null ? candidates.length : size;
+        for (int k = 0; k < count; k++) {
+            int node = candidates != null ? candidates[k] : k;
+            if (displayed[node] && (resourceIdPart == null || resourceIds[node].contains(resourceIdPart))) {
+                return node;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counts nodes of {@code descendantClass} below any node of {@code ancestorClass},
+     * like XPath count(//ancestor//descendant).
+     */
+    public int countDescendants(String ancestorClass, String descendantClass) {
+        int count = 0;
+        for (int node : byClass.getOrDefault(descendantClass, NONE)) {
+            for (int p = parents[node]; p >= 0; p = parents[p]) {
+                if (classNames[p].equals(ancestorClass)) {
+                    count++;
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Case-insensitive search over text and content-desc of all nodes.
+     */
+    public boolean containsText(String part) {
+        String needle = part.toLowerCase(Locale.ROOT);
+        for (int node = 0; node < size; node++) {
+            if (texts[node].toLowerCase(Locale.ROOT).contains(needle)
+                    || descriptions[node].toLowerCase(Locale.ROOT).contains(needle)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Map<String, int[]> index(String[] keys) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int node = 0; node < size; node++) {
+            if (!keys[node].isEmpty()) {
+                counts.merge(keys[node], 1, Integer::sum);
+            }
+        }
+        Map<String, int[]> index = new HashMap<>(counts.size() * 2);
+        Map<String, Integer> filled = new HashMap<>(counts.size() * 2);
+        for (int node = 0; node < size; node++) {
+            String key = keys[node];
+            if (key.isEmpty()) {
+                continue;
+            }
+            int[] nodes = index.computeIfAbsent(key, k -> new int[counts.get(k)]);
+            nodes[filled.merge(key, 1, Integer::sum) - 1] = node;
+        }
+        return index;
+    }
+
+    /**
+     * Growable parallel arrays filled during parsing.
+     */
+    private static final class Builder {
+        private int size;
+        private int[] parents = new int[256];
+        private String[] classNames = new String[256];
+        private String[] resourceIds = new String[256];
+        private String[] texts = new String[256];
+        private String[] descriptions = new String[256];
+        private boolean[] displayed = new boolean[256];
+
+        int add(int parent, XMLStreamReader reader) {
+            if (size == parents.length) {
+                int capacity = size * 2;
+                parents = Arrays.copyOf(parents, capacity);
+                classNames = Arrays.copyOf(classNames, capacity);
+                resourceIds = Arrays.copyOf(resourceIds, capacity);
+                texts = Arrays.copyOf(texts, capacity);
+                descriptions = Arrays.copyOf(descriptions, capacity);
+                displayed = Arrays.copyOf(displayed, capacity);
+            }
+            String className = reader.getAttributeValue(null, "class");
+            parents[size] = parent;
+            classNames[size] = className != null ? className : reader.getLocalName();
+            resourceIds[size] = attribute(reader, "resource-id");
+            texts[size] = attribute(reader, "text");
+            descriptions[size] = attribute(reader, "content-desc");
+            // Toasts and older server versions omit the attribute; treat nodes as visible then
+            displayed[size] = !"false".equals(reader.getAttributeValue(null, "displayed"));
+            return size++;
+        }
+
+        private static String attribute(XMLStreamReader reader, String name) {
+            String value = reader.getAttributeValue(null, name);
+            return value != null ? value : "";
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.automation.core;
+
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Explicit wait with exponential polling, implicit-wait suppression and latency histograms.
+ *
+ * Selenium's WebDriverWait polls every 500 ms and, with an implicit wait configured, every
+ * negative lookup inside the condition blocks for the implicit timeout as well. This wait:
+ * - suspends the implicit wait while the condition is evaluated, so a miss returns at once
+ * - polls after wait.poll.initial.ms, growing by wait.poll.factor up to wait.poll.max.ms,
+ *   so fast conditions are seen almost immediately and slow ones are not hammered
+ * - records how long each condition took (or that it timed out) in a per-condition histogram,
+ *   reported by {@link #latencyReport()}
+ *
+ * The implicit wait last set through {@link #setImplicitWait} is tracked per driver, so
+ * repeated settings and nested waits cost no extra round-trips.
+ */
+public class AdaptiveWait extends WebDriverWait {
+    private static final Map<WebDriver, Duration> implicitWaits = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+    private final WebDriver driver;
+    private final Duration timeout;
+    private final long initialPollMillis;
+    private final double pollFactor;
+    private final long maxPollMillis;
+
+    public AdaptiveWait(WebDriver driver, Duration timeout) {
+        super(driver, timeout);
+        ConfigManager config = ConfigManager.getInstance();
+        this.driver = driver;
+        this.timeout = timeout;
+        this.initialPollMillis = Math.max(1, config.getIntProperty("wait.poll.initial.ms", 50));
+        this.pollFactor = Math.max(1.0, config.getDoubleProperty("wait.poll.factor", 1.5));
+        this.maxPollMillis = Math.max(initialPollMillis, config.getIntProperty("wait.poll.max.ms", 500));
+    }
+
+    @Override
+    public <V> V until(Function<? super WebDriver, V> isTrue) {
+        return withoutImplicitWait(driver, () -> poll(isTrue));
+    }
+
+    private <V> V poll(Function<? super WebDriver, V> isTrue) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        long interval = initialPollMillis;
+        RuntimeException lastException = null;
+        while (true) {
+            try {
+                V value = isTrue.apply(driver);
+                if (value != null && (!(value instanceof Boolean) || (Boolean) value)) {
+                    histogram(isTrue).recordSuccess(System.nanoTime() - start);
+                    return value;
+                }
+                lastException = null;
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                lastException = e;
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                histogram(isTrue).recordTimeout(System.nanoTime() - start);
+                String message = String.format("Expected condition failed: waiting for %s (tried for %d second(s) with adaptive polling)",
+                    isTrue, timeout.getSeconds());
+                throw timeoutException(message, lastException);
+            }
+            try {
+                Thread.sleep(Math.min(interval, Math.max(1, remaining / 1_000_000)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WebDriverException(e);
+            }
+            interval = Math.min(maxPollMillis, (long) Math.ceil(interval * pollFactor));
+        }
+    }
+
+    /**
+     * Sets the driver's implicit wait, skipping the call if it is already set to that value.
+     */
+    public static void setImplicitWait(WebDriver driver, Duration implicitWait) {
+        if (!implicitWait.equals(implicitWaits.get(driver))) {
+            driver.manage().timeouts().implicitlyWait(implicitWait);
+            implicitWaits.put(driver, implicitWait);
+        }
+    }
+
+    /**
+     * Runs {@code action} with the implicit wait set to zero and restores it afterwards.
+     * Nested calls do not touch the driver again.
+     */
+    public static <T> T withoutImplicitWait(WebDriver driver, Supplier<T> action) {
+        Duration previous = implicitWaits.get(driver);
+        if (previous == null) {
+            previous = driver.manage().timeouts().getImplicitWaitTimeout();
+        }
+        if (previous.isZero()) {
+            return action.get();
+        }
+        setImplicitWait(driver, Duration.ZERO);
+        try {
+            return action.get();
+        } finally {
+            setImplicitWait(driver, previous);
+        }
+    }
+
+    /**
+     * Forgets the tracked implicit wait of a driver that is being quit.
+     */
+    public static void forget(WebDriver driver) {
+        implicitWaits.remove(driver);
+    }
+
+    /**
+     * One line per condition, slowest total first: calls, timeouts, p50/p90/max latency of successes.
+     */
+    public static String latencyReport() {
+        List<Map.Entry<String, LatencyHistogram>> entries = new ArrayList<>(histograms.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, LatencyHistogram> e) -> e.getValue().totalMillis()).reversed());
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, LatencyHistogram> entry : entries) {
+            report.append(entry.getValue()).append("  ").append(entry.getKey()).append('\n');
+        }
+        return report.toString();
+    }
+
+    private static LatencyHistogram histogram(Object condition) {
+        String key = condition.toString();
+        if (key.contains("$$Lambda")) {
+            key = "unnamed condition";
+        }
+        return histograms.computeIfAbsent(key, k -> new LatencyHistogram());
+    }
+
+    /**
+     * Log-scale histogram: bucket i counts latencies below 2^i ms.
+     */
+    static final class LatencyHistogram {
+        private static final int BUCKETS = 18;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong successes = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void recordSuccess(long nanos) {
+            long millis = nanos / 1_000_000;
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(millis));
+            buckets.incrementAndGet(bucket);
+            successes.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        void recordTimeout(long nanos) {
+            timeouts.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+        }
+
+        /**
+         * @return upper bound in ms of the bucket holding the given fraction of successes
+         */
+        long percentileMillis(double fraction) {
+            long total = successes.get();
+            if (total == 0) {
+                return 0;
+            }
+            long target = (long) Math.ceil(total * fraction);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= target) {
+                    return 1L << i;
+                }
+            }
+            return 1L << (BUCKETS - 1);
+        }
+
+        long totalMillis() {
+            return totalNanos.get() / 1_000_000;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("calls=%d timeouts=%d p50<%dms p90<%dms max=%dms",
+                successes.get() + timeouts.get(), timeouts.get(),
+                percentileMillis(0.5), percentileMillis(0.9), maxNanos.get() / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.automation.core;
+
+import com.automation.utils.AdbUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Installs the app under test (device.app.path) on pooled devices, once per suite and only
+ * when the device does not already run this exact build.
+ *
+ * The APK is identified by its SHA-256. After an install the checksum is written to a marker
+ * file on the device together with the package's lastUpdateTime, so a later run (or another
+ * worker of this one) skips the install when both still match; an app reinstalled by hand or
+ * by another tool changes lastUpdateTime and is installed again. Installs on different devices
+ * run in parallel (device.app.install.threads), and concurrent requests for the same device
+ * share one install. A failed install is forgotten, so the next session on that device tries again.
+ *
+ * Sessions then start with appPackage/appActivity only, so Appium does not install the APK again.
+ */
+public final class AppInstallManager {
+    private static final Logger logger = LoggerFactory.getLogger(AppInstallManager.class);
+    private static final String MARKER_DIR = "/data/local/tmp/";
+    private static final String UPDATE_TIME = "lastUpdateTime=";
+    private static AppInstallManager instance;
+
+    /**
+     * Device commands used here, replaced in tests.
+     */
+    interface Adb {
+        String shell(String udid, String commandLine);
+
+        void install(String udid, Path apk, Duration timeout);
+    }
+
+    private final Adb adb;
+    private final Duration installTimeout;
+    private final ExecutorService executor;
+    private final Map<String, CompletableFuture<Boolean>> installs = new ConcurrentHashMap<>();
+    private final Map<Path, String> checksums = new ConcurrentHashMap<>();
+
+    AppInstallManager(Adb adb, int threads, Duration installTimeout) {
+        this.adb = adb;
+        this.installTimeout = installTimeout;
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "apk-install");
+                thread.setDaemon(true);
+                return thread;
+            });
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+    }
+
+    public static synchronized AppInstallManager getInstance() {
+        if (instance == null) {
+            ConfigManager config = ConfigManager.getInstance();
+            Adb adb = new Adb() {
+                @Override
+                public String shell(String udid, String commandLine) {
+                    return AdbUtil.shell(udid, commandLine);
+                }
+
+                @Override
+                public void install(String udid, Path apk, Duration timeout) {
+                    AdbUtil.install(udid, apk, timeout);
+                }
+            };
+            instance = new AppInstallManager(adb,
+                Math.max(1, config.getIntProperty("device.app.install.threads", 4)),
+                Duration.ofMillis(config.getIntProperty("device.app.install.timeout.ms", 300000)));
+        }
+        return instance;
+    }
+
+    /**
+     * Starts installing the app on every device in parallel without waiting for the result.
+     */
+    public void installAll(Collection<DeviceSlot> slots) {
+        for (DeviceSlot slot : slots) {
+            install(slot);
+        }
+    }
+
+    /**
+     * Waits until the configured APK is on the device, installing it first if this suite has not.
+     *
+     * @return false if no APK is configured or the install failed; the session then uses
+     *         whatever version the device has
+     */
+    public boolean ensureInstalled(DeviceSlot slot) {
+        return install(slot).join();
+    }
+
+    CompletableFuture<Boolean> install(DeviceSlot slot) {
+        ConfigManager config = slot.getConfig();
+        Path apk = resolveApk(config.getProperty("device.app.path"));
+        String appPackage = config.getProperty("device.app.package");
+        if (apk == null || appPackage == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return install(slot.getUdid(), apk, appPackage);
+    }
+
+    CompletableFuture<Boolean> install(String udid, Path apk, String appPackage) {
+        return installs.computeIfAbsent(udid + "|" + apk, key -> {
+            CompletableFuture<Boolean> install = new CompletableFuture<>();
+            executor.execute(() -> {
+                boolean installed = false;
+                try {
+                    installed = installIfChanged(udid, apk, appPackage);
+                } finally {
+                    // Only successful installs are shared; after a failure or timeout the next session retries
+                    if (!installed) {
+                        installs.remove(key, install);
+                    }
+                    install.complete(installed);
+                }
+            });
+            return install;
+        });
+    }
+
+    private static Path resolveApk(String appPath) {
+        if (appPath == null || appPath.isBlank()) {
+            return null;
+        }
+        Path apk = Paths.get(appPath);
+        if (!apk.isAbsolute()) {
+            apk = Paths.get(System.getProperty("user.dir")).resolve(apk);
+        }
+        if (!Files.isRegularFile(apk)) {
+            logger.warn("APK file not found at path: {}. Using the app installed on the device", apk);
+            return null;
+        }
+        return apk.toAbsolutePath().normalize();
+    }
+
+    private boolean installIfChanged(String udid, Path apk, String appPackage) {
+        try {
+            String checksum = checksums.computeIfAbsent(apk, AppInstallManager::sha256);
+            String marker = MARKER_DIR + appPackage + ".apk.sha256";
+            // One round trip: marker (if any) and the package's last update time (if installed);
+            // "true" keeps the exit code 0 when grep finds nothing
+            String state = adb.shell(udid,
+                "cat " + marker + " 2>/dev/null; dumpsys package " + appPackage + " | grep -m 1 " + UPDATE_TIME + "; true");
+            String updateTime = updateTime(state);
+            if (updateTime != null && markerLine(state).equals(checksum + " " + updateTime)) {
+                logger.info("{} is up to date on {} ({})", apk.getFileName(), udid, checksum.substring(0, 12));
+                return true;
+            }
+
+            long start = System.currentTimeMillis();
+            logger.info("Installing {} on {}...", apk.getFileName(), udid);
+            adb.install(udid, apk, installTimeout);
+            String installedTime = updateTime(adb.shell(udid,
+                "dumpsys package " + appPackage + " | grep -m 1 " + UPDATE_TIME + "; true"));
+            if (installedTime != null) {
+                adb.shell(udid, "echo '" + checksum + " " + installedTime + "' > " + marker);
+            }
+            logger.info("Installed {} on {} in {} ms", apk.getFileName(), udid, System.currentTimeMillis() - start);
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Failed to install APK on {} (may be due to SDK version mismatch): {}", udid, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @return value of the lastUpdateTime line, or null if the package is not installed
+     */
+    static String updateTime(String output) {
+        for (String line : output.split("\\R")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith(UPDATE_TIME)) {
+                return trimmed.substring(UPDATE_TIME.length()).trim();
+            }
+        }
+        return null;
+    }
+
+    private static String markerLine(String output) {
+        for (String line : output.split("\\R")) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith(UPDATE_TIME)) {
+                return trimmed;
+            }
+        }
+        return "";
+    }
+
+    static String sha256(Path file) {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + file, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -6,20 +6,66 @@ import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Centralized configuration management for the automation framework.
  * Supports properties files and environment variable overrides.
+ *
+ * Lookups are served from an immutable {@link ConfigSnapshot}: environment variables, system
+ * properties and the file are resolved (and ${...} references interpolated) once, and parsed
+ * numbers are cached. With config.reload.enabled=true the file is watched and a changed file
+ * is loaded into a new snapshot that replaces the old one atomically; a file that fails to
+ * load keeps the previous snapshot. Values already copied by long-lived objects are not updated.
+ *
+ * Profiles overlay the base file: config.profiles=ci,pixel7 loads application-ci.properties and
+ * then application-pixel7.properties from the same directory, later files winning. Environment
+ * variables and system properties still override every file. {@link #forProfile(String)} gives
+ * the configuration of one extra profile (one device of the test matrix) alongside the global one.
  */
 public class ConfigManager {
     private static final Logger logger = LoggerFactory.getLogger(ConfigManager.class);
     private static ConfigManager instance;
-    private Configuration config;
+    private static final Map<String, ConfigManager> profileConfigs = new ConcurrentHashMap<>();
+    private final Path configFile;
+    private final String extraProfile;
+    private final AtomicReference<ConfigSnapshot> snapshot = new AtomicReference<>();
+    private volatile List<String> profiles = Collections.emptyList();
 
     private ConfigManager() {
-        loadConfiguration();
+        this(Paths.get(System.getProperty("config.file", "src/main/resources/application.properties")), null);
+        if (getBooleanProperty("config.reload.enabled", false)) {
+            watchConfigFile();
+        }
+    }
+
+    ConfigManager(Path configFile, String extraProfile) {
+        this.configFile = configFile;
+        this.extraProfile = extraProfile;
+        try {
+            snapshot.set(loadConfiguration());
+            logger.info("Configuration loaded from: {} (profiles: {})", configFile, profiles);
+        } catch (ConfigurationException e) {
+            logger.error("Failed to load configuration", e);
+            throw new RuntimeException("Configuration initialization failed", e);
+        }
     }
 
     public static synchronized ConfigManager getInstance() {
@@ -29,62 +75,147 @@ public class ConfigManager {
         return instance;
     }
 
-    private void loadConfiguration() {
-        try {
-            Configurations configs = new Configurations();
-            String configFile = System.getProperty("config.file", "src/main/resources/application.properties");
-            config = configs.properties(new File(configFile));
-            logger.info("Configuration loaded from: {}", configFile);
-        } catch (ConfigurationException e) {
-            logger.error("Failed to load configuration", e);
-            throw new RuntimeException("Configuration initialization failed", e);
-        }
+    /**
+     * Gets the configuration with one more profile applied on top of config.profiles,
+     * e.g. the overlay describing one device of the test matrix.
+     *
+     * @param profile profile name; its overlay file must exist
+     * @return configuration for the profile, created once per profile
+     */
+    public static ConfigManager forProfile(String profile) {
+        ConfigManager global = getInstance();
+        return profileConfigs.computeIfAbsent(profile, name -> new ConfigManager(global.configFile, name));
     }
 
-    public String getProperty(String key) {
-        String envValue = System.getenv(key.replace(".", "_").toUpperCase());
-        if (envValue != null) {
-            return envValue;
+    /**
+     * @return overlay profiles applied to this configuration, in order
+     */
+    public List<String> getProfiles() {
+        return profiles;
+    }
+
+    private ConfigSnapshot loadConfiguration() throws ConfigurationException {
+        Map<String, String> values = readFile(configFile);
+        // config.profiles may itself come from the environment (CONFIG_PROFILES) or -Dconfig.profiles
+        List<String> active = new ArrayList<>(DevicePool.splitList(ConfigSnapshot.of(values).get("config.profiles")));
+        if (extraProfile != null && !active.contains(extraProfile)) {
+            active.add(extraProfile);
+        }
+        for (String profile : active) {
+            values.putAll(readFile(overlayFile(profile)));
         }
-        return config.getString(key);
+        profiles = Collections.unmodifiableList(active);
+        return ConfigSnapshot.of(values);
     }
 
-    public String getProperty(String key, String defaultValue) {
-        return Optional.ofNullable(getProperty(key)).orElse(defaultValue);
+    private Path overlayFile(String profile) {
+        String name = configFile.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String overlay = dot > 0
+            ? name.substring(0, dot) + "-" + profile + name.substring(dot)
+            : name + "-" + profile;
+        return configFile.resolveSibling(overlay);
     }
 
-    public int getIntProperty(String key, int defaultValue) {
-        String value = getProperty(key);
-        if (value != null) {
-            try {
-                return Integer.parseInt(value);
-            } catch (NumberFormatException e) {
-                logger.warn("Invalid integer value for key: {}, using default: {}", key, defaultValue);
+    private static Map<String, String> readFile(Path file) throws ConfigurationException {
+        Configuration config = new Configurations().properties(file.toFile());
+        Map<String, String> values = new HashMap<>();
+        for (Iterator<String> keys = config.getKeys(); keys.hasNext(); ) {
+            String key = keys.next();
+            // Raw value: ${...} references are resolved by the snapshot
+            Object value = config.getProperty(key);
+            if (value instanceof List) {
+                List<?> list = (List<?>) value;
+                value = list.isEmpty() ? "" : list.get(0);
             }
+            values.put(key, String.valueOf(value));
         }
-        return defaultValue;
+        return values;
     }
 
-    public boolean getBooleanProperty(String key, boolean defaultValue) {
-        String value = getProperty(key);
-        if (value != null) {
-            return Boolean.parseBoolean(value);
+    /**
+     * Reloads the configuration file and swaps in the new snapshot.
+     *
+     * @return false if the file could not be loaded; the previous snapshot stays active
+     */
+    public boolean reload() {
+        try {
+            snapshot.set(loadConfiguration());
+            logger.info("Configuration reloaded from: {}", configFile);
+            return true;
+        } catch (ConfigurationException | RuntimeException e) {
+            logger.warn("Failed to reload configuration, keeping previous values: {}", e.getMessage());
+            return false;
         }
-        return defaultValue;
     }
 
-    public double getDoubleProperty(String key, double defaultValue) {
-        String value = getProperty(key);
-        if (value != null) {
+    private void watchConfigFile() {
+        Path directory = configFile.toAbsolutePath().getParent();
+        WatchService watcher;
+        try {
+            watcher = FileSystems.getDefault().newWatchService();
+            directory.register(watcher, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_CREATE);
+        } catch (IOException e) {
+            logger.warn("Cannot watch {} for changes: {}", configFile, e.getMessage());
+            return;
+        }
+        Thread thread = new Thread(() -> {
             try {
-                return Double.parseDouble(value);
-            } catch (NumberFormatException e) {
-                logger.warn("Invalid double value for key: {}, using default: {}", key, defaultValue);
+                while (true) {
+                    WatchKey key = watcher.take();
+                    boolean changed = false;
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        changed |= isConfigFile(event.context());
+                    }
+                    key.reset();
+                    if (changed) {
+                        // Let the editor finish writing; it may save in several steps
+                        Thread.sleep(200);
+                        reload();
+                        profileConfigs.values().forEach(ConfigManager::reload);
+                    }
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // watcher stopped
             }
+        }, "config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Watching {} for configuration changes", configFile);
+    }
+
+    private boolean isConfigFile(Object changed) {
+        if (configFile.getFileName().equals(changed)) {
+            return true;
         }
-        return defaultValue;
+        for (ConfigManager config : profileConfigs.values()) {
+            if (config.profiles.stream().anyMatch(profile -> overlayFile(profile).getFileName().equals(changed))) {
+                return true;
+            }
+        }
+        return profiles.stream().anyMatch(profile -> overlayFile(profile).getFileName().equals(changed));
+    }
+
+    public String getProperty(String key) {
+        return snapshot.get().get(key);
     }
-}
 
+    public String getProperty(String key, String defaultValue) {
+        return Optional.ofNullable(getProperty(key)).orElse(defaultValue);
+    }
 
+    public int getIntProperty(String key, int defaultValue) {
+        Integer value = snapshot.get().getInt(key);
+        return value != null ? value : defaultValue;
+    }
 
+    public boolean getBooleanProperty(String key, boolean defaultValue) {
+        Boolean value = snapshot.get().getBoolean(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public double getDoubleProperty(String key, double defaultValue) {
+        Double value = snapshot.get().getDouble(key);
+        return value != null ? value : defaultValue;
+    }
+}
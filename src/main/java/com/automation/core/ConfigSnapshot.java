@@ -0,0 +1,178 @@
+package com.automation.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable view of the configuration at one point in time, resolved once.
+ *
+ * Each key is resolved from three layers, first match wins:
+ * 1. environment variable with the key upper-cased and dots replaced by underscores
+ *    (device.udid -&gt; DEVICE_UDID)
+ * 2. JVM system property with the key itself (-Ddevice.udid=...)
+ * 3. the properties file
+ *
+ * Values may reference other keys or environment variables as {@code ${NAME}} or
+ * {@code ${NAME:-default}} (the default also applies to an empty value); a reference that
+ * resolves to nothing and has no default is left as written.
+ *
+ * Keys of the file are resolved when the snapshot is built. Other keys are resolved on first
+ * lookup and remembered, as are parsed int/double/boolean values, so repeated lookups cost one
+ * map access.
+ */
+final class ConfigSnapshot {
+    private static final Logger logger = LoggerFactory.getLogger(ConfigSnapshot.class);
+    private static final Pattern REFERENCE = Pattern.compile("\\$\\{([^}]+?)(?::-([^}]*))?}");
+    private static final Object INVALID = new Object();
+
+    private final Map<String, String> fileValues;
+    private final Function<String, String> environment;
+    private final Function<String, String> systemProperties;
+    private final Map<String, Optional<String>> resolved = new ConcurrentHashMap<>();
+    private final Map<String, Object> ints = new ConcurrentHashMap<>();
+    private final Map<String, Object> doubles = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> booleans = new ConcurrentHashMap<>();
+
+    ConfigSnapshot(Map<String, String> fileValues, Function<String, String> environment,
+                   Function<String, String> systemProperties) {
+        this.fileValues = Collections.unmodifiableMap(new HashMap<>(fileValues));
+        this.environment = environment;
+        this.systemProperties = systemProperties;
+        for (String key : this.fileValues.keySet()) {
+            get(key);
+        }
+    }
+
+    /**
+     * Snapshot of the given file values layered under the process environment and system properties.
+     */
+    static ConfigSnapshot of(Map<String, String> fileValues) {
+        Map<String, String> env = System.getenv();
+        Properties system = System.getProperties();
+        return new ConfigSnapshot(fileValues, env::get, system::getProperty);
+    }
+
+    /**
+     * @return the resolved value, or null if no layer defines the key
+     */
+    String get(String key) {
+        Optional<String> value = resolved.get(key);
+        if (value == null) {
+            value = Optional.ofNullable(resolve(key, new HashSet<>()));
+            resolved.putIfAbsent(key, value);
+        }
+        return value.orElse(null);
+    }
+
+    /**
+     * @return the parsed value, or null if the key is missing or not an integer
+     */
+    Integer getInt(String key) {
+        Object value = ints.computeIfAbsent(key, k -> parse(k, "integer", Integer::valueOf));
+        return value == INVALID ? null : (Integer) value;
+    }
+
+    /**
+     * @return the parsed value, or null if the key is missing or not a number
+     */
+    Double getDouble(String key) {
+        Object value = doubles.computeIfAbsent(key, k -> parse(k, "double", Double::valueOf));
+        return value == INVALID ? null : (Double) value;
+    }
+
+    /**
+     * @return the parsed value, or null if the key is missing
+     */
+    Boolean getBoolean(String key) {
+        String value = get(key);
+        return value == null ? null : booleans.computeIfAbsent(key, k -> Boolean.parseBoolean(value));
+    }
+
+    private Object parse(String key, String type, Function<String, Object> parser) {
+        String value = get(key);
+        if (value == null) {
+            return INVALID;
+        }
+        try {
+            return parser.apply(value.trim());
+        } catch (NumberFormatException e) {
+            // Logged once per snapshot; the caller falls back to its default
+            logger.warn("Invalid {} value for key: {}, using default", type, key);
+            return INVALID;
+        }
+    }
+
+    private String resolve(String key, Set<String> resolving) {
+        String value = environment.apply(key.replace(".", "_").toUpperCase(Locale.ROOT));
+        if (value == null) {
+            value = systemProperties.apply(key);
+        }
+        if (value == null) {
+            value = fileValues.get(key);
+        }
+        if (value == null || value.indexOf("${") < 0) {
+            return value;
+        }
+        if (!resolving.add(key)) {
+            logger.warn("Circular reference in config key: {}", key);
+            return value;
+        }
+        try {
+            return interpolate(value, resolving);
+        } finally {
+            resolving.remove(key);
+        }
+    }
+
+    private String interpolate(String value, Set<String> resolving) {
+        Matcher matcher = REFERENCE.matcher(value);
+        StringBuffer result = new StringBuffer(value.length());
+        while (matcher.find()) {
+            String name = matcher.group(1).trim();
+            String replacement = resolving.contains(name) ? null : reference(name, resolving);
+            if ((replacement == null || replacement.isEmpty()) && matcher.group(2) != null) {
+                replacement = matcher.group(2);
+            } else if (replacement == null) {
+                replacement = matcher.group();
+            }
+            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    /**
+     * A reference names another key (any layer) or, failing that, an environment variable
+     * or system property spelled exactly as written. {@code env:NAME} and {@code sys:NAME}
+     * address one of those directly.
+     */
+    private String reference(String name, Set<String> resolving) {
+        if (name.startsWith("env:")) {
+            return environment.apply(name.substring(4));
+        }
+        if (name.startsWith("sys:")) {
+            return systemProperties.apply(name.substring(4));
+        }
+        String value = resolve(name, resolving);
+        if (value == null) {
+            value = environment.apply(name);
+        }
+        if (value == null) {
+            value = systemProperties.apply(name);
+        }
+        return value;
+    }
+}
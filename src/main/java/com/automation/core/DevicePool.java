@@ -0,0 +1,247 @@
+package com.automation.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of devices available to the suite.
+ * Each TestNG worker thread leases one {@link DeviceSlot} for the lifetime of its driver
+ * session and returns it when the session is quit, so N devices give N-way parallelism.
+ *
+ * Configuration (application.properties):
+ * - device.pool.udids: comma-separated UDIDs (defaults to device.udid)
+ * - device.pool.appium.urls: comma-separated Appium URLs matched by index (defaults to appium.server.url)
+ * - device.pool.system.port.base: first UiAutomator2 system port, incremented per device
+ * - device.pool.lease.timeout: seconds to wait for a free device
+ * - device.pool.max.failures: consecutive session failures before a device is quarantined
+ *
+ * When test.matrix.profiles is set, the pool holds one device per matrix profile instead:
+ * device.udid and appium.server.url are read from each profile's overlay
+ * ({@link ConfigManager#forProfile(String)}), and tests of that matrix entry lease the
+ * device by UDID ({@link #lease(String)}).
+ *
+ * @author Ngan Tran
+ * @version 1.0
+ */
+public class DevicePool {
+    private static final Logger logger = LoggerFactory.getLogger(DevicePool.class);
+    private static DevicePool instance;
+
+    private final List<DeviceSlot> slots;
+    private final Map<String, DeviceSlot> slotsByUdid = new HashMap<>();
+    private final BlockingQueue<DeviceSlot> available;
+    private final Set<DeviceSlot> quarantined = ConcurrentHashMap.newKeySet();
+    private final long leaseTimeoutSeconds;
+    private final int maxFailures;
+
+    private DevicePool(ConfigManager config) {
+        this(buildSlots(config), config.getIntProperty("device.pool.lease.timeout", 300),
+            config.getIntProperty("device.pool.max.failures", 3));
+    }
+
+    DevicePool(List<DeviceSlot> slots, long leaseTimeoutSeconds, int maxFailures) {
+        this.slots = Collections.unmodifiableList(new ArrayList<>(slots));
+        for (DeviceSlot slot : this.slots) {
+            slotsByUdid.put(slot.getUdid(), slot);
+        }
+        this.available = new LinkedBlockingQueue<>(this.slots);
+        this.leaseTimeoutSeconds = leaseTimeoutSeconds;
+        this.maxFailures = maxFailures;
+        logger.info("Device pool initialized with {} device(s): {}", slots.size(), slots);
+    }
+
+    public static synchronized DevicePool getInstance() {
+        if (instance == null) {
+            instance = new DevicePool(ConfigManager.getInstance());
+        }
+        return instance;
+    }
+
+    private static List<DeviceSlot> buildSlots(ConfigManager config) {
+        List<String> profiles = splitList(config.getProperty("test.matrix.profiles"));
+        if (!profiles.isEmpty()) {
+            return buildMatrixSlots(profiles, config.getIntProperty("device.pool.system.port.base", 8200));
+        }
+        List<String> udids = splitList(config.getProperty("device.pool.udids"));
+        if (udids.isEmpty()) {
+            udids = List.of(config.getProperty("device.udid", "emulator-5554"));
+        }
+        List<String> urls = splitList(config.getProperty("device.pool.appium.urls"));
+        String defaultUrl = config.getProperty("appium.server.url", "http://localhost:4723");
+        int portBase = config.getIntProperty("device.pool.system.port.base", 8200);
+
+        List<DeviceSlot> result = new ArrayList<>();
+        for (int i = 0; i < udids.size(); i++) {
+            String url = i < urls.size() ? urls.get(i) : (urls.size() == 1 ? urls.get(0) : defaultUrl);
+            try {
+                result.add(new DeviceSlot(udids.get(i), new URL(url), portBase + i));
+            } catch (MalformedURLException e) {
+                throw new IllegalStateException("Invalid Appium URL for device " + udids.get(i) + ": " + url, e);
+            }
+        }
+        return result;
+    }
+
+    private static List<DeviceSlot> buildMatrixSlots(List<String> profiles, int portBase) {
+        Map<String, String> profileByUdid = new HashMap<>();
+        List<DeviceSlot> result = new ArrayList<>();
+        for (String profile : profiles) {
+            ConfigManager profileConfig = ConfigManager.forProfile(profile);
+            String udid = profileConfig.getProperty("device.udid");
+            String url = profileConfig.getProperty("appium.server.url", "http://localhost:4723");
+            String other = profileByUdid.putIfAbsent(udid, profile);
+            if (other != null) {
+                throw new IllegalStateException("Matrix profiles " + other + " and " + profile
+                    + " both use device " + udid);
+            }
+            try {
+                result.add(new DeviceSlot(udid, new URL(url), portBase + result.size(), profile));
+            } catch (MalformedURLException e) {
+                throw new IllegalStateException("Invalid Appium URL in profile " + profile + ": " + url, e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Splits a comma separated config value into trimmed, non-empty items.
+     */
+    public static List<String> splitList(String value) {
+        List<String> items = new ArrayList<>();
+        if (value == null) {
+            return items;
+        }
+        for (String item : value.split(",")) {
+            String trimmed = item.trim();
+            if (!trimmed.isEmpty()) {
+                items.add(trimmed);
+            }
+        }
+        return items;
+    }
+
+    /**
+     * @return all configured devices, including leased and quarantined ones
+     */
+    public List<DeviceSlot> getSlots() {
+        return slots;
+    }
+
+    /**
+     * @return number of devices that can still be leased (not quarantined)
+     */
+    public int size() {
+        return slots.size() - quarantined.size();
+    }
+
+    /**
+     * Leases a free device, blocking until one is returned or the lease timeout elapses.
+     *
+     * @return leased device slot
+     * @throws IllegalStateException if no device becomes available in time
+     */
+    public DeviceSlot lease() {
+        if (size() == 0) {
+            throw new IllegalStateException("All pooled devices are quarantined: " + quarantined);
+        }
+        try {
+            DeviceSlot slot = available.poll(leaseTimeoutSeconds, TimeUnit.SECONDS);
+            if (slot == null) {
+                throw new IllegalStateException("No device became available within " + leaseTimeoutSeconds + "s");
+            }
+            logger.info("Leased device {} to thread {}", slot.getUdid(), Thread.currentThread().getName());
+            return slot;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a device", e);
+        }
+    }
+
+    /**
+     * Leases a free device without waiting.
+     *
+     * @return leased device slot, or null if every device is leased or quarantined
+     */
+    public DeviceSlot tryLease() {
+        DeviceSlot slot = available.poll();
+        if (slot != null) {
+            logger.info("Leased device {} to thread {}", slot.getUdid(), Thread.currentThread().getName());
+        }
+        return slot;
+    }
+
+    /**
+     * Leases one specific device, blocking until it is returned or the lease timeout elapses.
+     * Used by test matrix entries, which are bound to the device their profile describes.
+     *
+     * @param udid device to lease; must be one of the pooled devices
+     * @return leased device slot
+     * @throws IllegalStateException if the device is unknown, quarantined or not returned in time
+     */
+    public DeviceSlot lease(String udid) {
+        DeviceSlot slot = slotsByUdid.get(udid);
+        if (slot == null) {
+            throw new IllegalStateException("Device " + udid + " is not in the pool: " + slots);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(leaseTimeoutSeconds);
+        synchronized (this) {
+            try {
+                // release() notifies after offering, so a return between the check and wait() is not missed
+                while (!available.remove(slot)) {
+                    if (quarantined.contains(slot)) {
+                        throw new IllegalStateException("Device " + udid + " is quarantined");
+                    }
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remaining <= 0) {
+                        throw new IllegalStateException("Device " + udid + " did not become available within "
+                            + leaseTimeoutSeconds + "s");
+                    }
+                    wait(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for device " + udid, e);
+            }
+        }
+        logger.info("Leased device {} to thread {}", udid, Thread.currentThread().getName());
+        return slot;
+    }
+
+    /**
+     * Returns a leased device to the pool.
+     * A device that fails {@code device.pool.max.failures} sessions in a row is quarantined
+     * instead of being handed to the next worker.
+     *
+     * @param slot    leased device slot
+     * @param healthy true if the session on this device behaved normally
+     */
+    public void release(DeviceSlot slot, boolean healthy) {
+        if (slot == null) {
+            return;
+        }
+        int failures = slot.recordOutcome(healthy);
+        if (failures >= maxFailures) {
+            quarantined.add(slot);
+            logger.error("Device {} failed {} consecutive sessions and was quarantined", slot.getUdid(), failures);
+        } else {
+            available.offer(slot);
+            logger.info("Returned device {} to pool", slot.getUdid());
+        }
+        synchronized (this) {
+            notifyAll();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.automation.core;
+
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A single device entry in the {@link DevicePool}.
+ * Holds everything needed to open an Appium session against one device:
+ * UDID, the Appium server it is attached to and a dedicated UiAutomator2 system port.
+ * Devices of the test matrix also carry the config profile that describes them.
+ *
+ * @author Ngan Tran
+ * @version 1.0
+ */
+public class DeviceSlot {
+    private final String udid;
+    private final URL serverUrl;
+    private final int systemPort;
+    private final String profile;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    public DeviceSlot(String udid, URL serverUrl, int systemPort) {
+        this(udid, serverUrl, systemPort, null);
+    }
+
+    public DeviceSlot(String udid, URL serverUrl, int systemPort, String profile) {
+        this.udid = udid;
+        this.serverUrl = serverUrl;
+        this.systemPort = systemPort;
+        this.profile = profile;
+    }
+
+    public String getUdid() {
+        return udid;
+    }
+
+    public URL getServerUrl() {
+        return serverUrl;
+    }
+
+    public int getSystemPort() {
+        return systemPort;
+    }
+
+    /**
+     * @return config profile of this device (see {@link ConfigManager#forProfile(String)}),
+     *         or null for devices from device.pool.udids
+     */
+    public String getProfile() {
+        return profile;
+    }
+
+    /**
+     * @return configuration describing this device: its profile's, or the global one
+     */
+    public ConfigManager getConfig() {
+        return profile != null ? ConfigManager.forProfile(profile) : ConfigManager.getInstance();
+    }
+
+    /**
+     * Records the outcome of the last session on this device.
+     *
+     * @param healthy true if the session started and ended cleanly
+     * @return number of consecutive failures after this update
+     */
+    int recordOutcome(boolean healthy) {
+        if (healthy) {
+            consecutiveFailures.set(0);
+            return 0;
+        }
+        return consecutiveFailures.incrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return udid + "@" + serverUrl + " (systemPort=" + systemPort
+            + (profile != null ? ", profile=" + profile : "") + ")";
+    }
+}
@@ -6,21 +6,25 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.File;
-import java.net.URL;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.Duration;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Driver Manager for Appium AndroidDriver lifecycle management.
- * Implements Singleton pattern with ThreadLocal for parallel execution support.
+ * Implements Singleton pattern with ThreadLocal for parallel execution support:
+ * every worker thread leases its own device from the {@link DevicePool} and keeps
+ * its driver, wait and device slot in thread-local storage.
  * 
  * Responsibilities:
  * - Driver initialization and configuration
- * - App installation and management
+ * - App installation (via {@link AppInstallManager}) and launch
  * - Driver lifecycle management (start, quit, cleanup)
+ * - Device lease/return and session health checks
+ * - Pre-started sessions ({@link WarmSessionPool}, device.pool.warm.size): a session is started
+ *   on a device as soon as its previous session quits, and on spare devices at suite start
  * - Wait object management
  * 
  * @author Ngan Tran
@@ -28,87 +32,139 @@ import java.util.concurrent.atomic.AtomicReference;
  */
 public class DriverManager {
     private static final Logger logger = LoggerFactory.getLogger(DriverManager.class);
-    private static final AtomicReference<AndroidDriver> driver = new AtomicReference<>();
-    private static final AtomicReference<WebDriverWait> wait = new AtomicReference<>();
+    private static final ThreadLocal<AndroidDriver> driver = new ThreadLocal<>();
+    private static final ThreadLocal<WebDriverWait> wait = new ThreadLocal<>();
+    private static final ThreadLocal<DeviceSlot> deviceSlot = new ThreadLocal<>();
+    /** All live sessions across worker threads, so suite-scoped sessions can be closed from any thread */
+    private static final Map<AndroidDriver, DeviceSlot> activeSessions = new ConcurrentHashMap<>();
     private static final ConfigManager config = ConfigManager.getInstance();
+    private static final WarmSessionPool<AndroidDriver> warmSessions = new WarmSessionPool<>(
+        new WarmSessionPool.Sessions<AndroidDriver>() {
+            @Override
+            public AndroidDriver start(DeviceSlot slot) {
+                return startSession(slot);
+            }
+
+            @Override
+            public void quit(AndroidDriver session) {
+                AdaptiveWait.forget(session);
+                session.quit();
+            }
+        },
+        config.getIntProperty("device.pool.warm.size", 0),
+        // Appium ends sessions that get no command for appium.server.timeout; keep a margin for the handover
+        Duration.ofMillis(Math.max(0, config.getIntProperty("appium.server.timeout", 30000) - 5000)));
 
     /**
      * Initializes the Android driver with configuration from application.properties.
+     * Leases a device from the pool; if the session cannot be created the device is
+     * returned as unhealthy and the next free device is tried, up to device.pool.init.attempts.
      */
     public static void initializeDriver() {
+        DevicePool pool = DevicePool.getInstance();
+        int attempts = Math.max(1, Math.min(pool.size(), config.getIntProperty("device.pool.init.attempts", 2)));
+        RuntimeException lastFailure = null;
+
+        for (int attempt = 1; attempt <= attempts; attempt++) {
+            DeviceSlot slot = pool.lease();
+            try {
+                initializeDriver(slot);
+                return;
+            } catch (RuntimeException e) {
+                logger.warn("Session start failed on {} (attempt {}/{})", slot.getUdid(), attempt, attempts);
+                pool.release(slot, false);
+                lastFailure = e;
+            }
+        }
+        throw lastFailure;
+    }
+
+    /**
+     * Initializes the driver on the device of a test matrix profile (test.matrix.profiles).
+     * The profile's overlay supplies device.udid and every other device setting; the call
+     * blocks until that device is free.
+     *
+     * @param profile config profile of the matrix entry, or null for any pooled device
+     */
+    public static void initializeDriver(String profile) {
+        if (profile == null) {
+            initializeDriver();
+            return;
+        }
+        String udid = ConfigManager.forProfile(profile).getProperty("device.udid");
+        DevicePool pool = DevicePool.getInstance();
+        DeviceSlot slot = pool.lease(udid);
+        try {
+            initializeDriver(slot);
+        } catch (RuntimeException e) {
+            logger.warn("Session start failed on {} for profile {}", udid, profile);
+            pool.release(slot, false);
+            throw e;
+        }
+    }
+
+    /**
+     * Starts warm sessions on up to device.pool.warm.size free devices, so the first tests
+     * do not wait for session start. Does nothing when warming is disabled.
+     */
+    public static void prewarmSessions() {
+        if (!warmSessions.isEnabled()) {
+            return;
+        }
+        DevicePool pool = DevicePool.getInstance();
+        List<DeviceSlot> leased = new ArrayList<>();
+        try {
+            DeviceSlot slot;
+            // Each device is leased only while its warm-up is registered; workers then lease it as usual
+            while ((slot = pool.tryLease()) != null) {
+                leased.add(slot);
+                if (!warmSessions.warm(slot)) {
+                    break;
+                }
+            }
+        } finally {
+            for (DeviceSlot slot : leased) {
+                pool.release(slot, true);
+            }
+        }
+    }
+
+    private static void initializeDriver(DeviceSlot slot) {
+        AndroidDriver warmDriver = warmSessions.take(slot);
+        AndroidDriver androidDriver = warmDriver != null ? warmDriver : startSession(slot);
+
+        int explicitTimeout = slot.getConfig().getIntProperty("test.timeout.explicit", 30);
+        wait.set(new AdaptiveWait(androidDriver, Duration.ofSeconds(explicitTimeout)));
+        driver.set(androidDriver);
+        deviceSlot.set(slot);
+        activeSessions.put(androidDriver, slot);
+    }
+
+    private static AndroidDriver startSession(DeviceSlot slot) {
+        // Matrix devices are described by their own profile; pooled devices share the global config
+        ConfigManager config = slot.getConfig();
         try {
-            logger.info("Initializing Android driver...");
+            logger.info("Initializing Android driver on {}...", slot);
 
             UiAutomator2Options options = new UiAutomator2Options();
 
             // Device configuration
             options.setPlatformName(config.getProperty("device.platform", "Android"));
             options.setDeviceName(config.getProperty("device.name", "Android Emulator"));
-            String udid = config.getProperty("device.udid", "emulator-5554");
+            String udid = slot.getUdid();
             options.setUdid(udid);
+            options.setSystemPort(slot.getSystemPort());
 
-            // App configuration
-            String appPath = config.getProperty("device.app.path");
+            // App configuration: the APK is installed by AppInstallManager (once per device and build),
+            // so the session only launches the package and Appium never reinstalls it
             String appPackage = config.getProperty("device.app.package");
             String appActivity = config.getProperty("device.app.activity");
-            boolean appProvided = false;
-
-            if (appPath != null) {
-                File appFile = new File(appPath);
-                if (!appFile.isAbsolute()) {
-                    Path projectRoot = Paths.get(System.getProperty("user.dir"));
-                    appFile = projectRoot.resolve(appPath).toFile();
-                }
-
-                if (appFile.exists()) {
-                    String absoluteAppPath = appFile.getAbsolutePath();
-                    logger.info("APK file found: {}", absoluteAppPath);
-
-                    if (!isAppInstalled(udid, appPackage)) {
-                        logger.info("App not installed on device. Installing APK...");
-                        try {
-                            installApp(udid, absoluteAppPath);
-                            logger.info("APK installed successfully");
-                        } catch (Exception e) {
-                            logger.warn("Failed to install APK (may be due to SDK version mismatch): {}. Using package/activity mode instead", e.getMessage());
-                        }
-                    }
-                    
-                    // Always use APK path if available - more reliable than package/activity mode
-                    options.setApp(absoluteAppPath);
-                    appProvided = true;
-                    logger.info("Using APK path for app launch: {}", absoluteAppPath);
-                } else {
-                    logger.warn("APK file not found at path: {}. Falling back to package/activity", appFile.getAbsolutePath());
-                }
-            }
-
-            if (!appProvided && appPath != null) {
-                // If APK exists but wasn't installed/used, try to install it now
-                File appFile = new File(appPath);
-                if (!appFile.isAbsolute()) {
-                    Path projectRoot = Paths.get(System.getProperty("user.dir"));
-                    appFile = projectRoot.resolve(appPath).toFile();
-                }
-                
-                if (appFile.exists() && !isAppInstalled(udid, appPackage)) {
-                    logger.info("Attempting to install APK before using package/activity mode");
-                    try {
-                        installApp(udid, appFile.getAbsolutePath());
-                        logger.info("APK installed successfully");
-                    } catch (Exception e) {
-                        logger.warn("Failed to install APK: {}", e.getMessage());
-                    }
-                }
-                
-                // Use package/activity mode
-                options.setAppPackage(appPackage);
-                options.setAppActivity(appActivity);
-                options.setNoReset(true);
-                logger.info("Using app package: {} (activity: {})", appPackage, appActivity);
-            } else {
-                options.setNoReset(false);
-            }
+            boolean apkVerified = AppInstallManager.getInstance().ensureInstalled(slot);
+            options.setAppPackage(appPackage);
+            options.setAppActivity(appActivity);
+            // A freshly verified build starts with cleared app data, as Appium's fast reset did
+            options.setNoReset(!apkVerified);
+            logger.info("Using app package: {} (activity: {})", appPackage, appActivity);
 
             // Additional options
             options.setAutomationName(config.getProperty("device.automation.name", "UiAutomator2"));
@@ -117,21 +173,14 @@ public class DriverManager {
             options.setNewCommandTimeout(Duration.ofSeconds(
                 config.getIntProperty("appium.server.timeout", 30000) / 1000));
 
-            String serverUrl = config.getProperty("appium.server.url", "http://localhost:4723");
-            AndroidDriver androidDriver = new AndroidDriver(new URL(serverUrl), options);
+            AndroidDriver androidDriver = new AndroidDriver(slot.getServerUrl(), options);
 
             // Set implicit wait
             int implicitTimeout = config.getIntProperty("test.timeout.implicit", 10);
-            androidDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(implicitTimeout));
-
-            // Initialize WebDriverWait
-            int explicitTimeout = config.getIntProperty("test.timeout.explicit", 30);
-            WebDriverWait webDriverWait = new WebDriverWait(androidDriver, Duration.ofSeconds(explicitTimeout));
+            AdaptiveWait.setImplicitWait(androidDriver, Duration.ofSeconds(implicitTimeout));
 
-            driver.set(androidDriver);
-            wait.set(webDriverWait);
-
-            logger.info("Android driver initialized successfully");
+            logger.info("Android driver initialized successfully on {}", udid);
+            return androidDriver;
 
         } catch (Exception e) {
             logger.error("Failed to initialize driver", e);
@@ -171,72 +220,141 @@ public class DriverManager {
      * @return true if driver is initialized
      */
     public static boolean isDriverInitialized() {
-        return driver.get() != null;
+        AndroidDriver currentDriver = driver.get();
+        if (currentDriver != null && !activeSessions.containsKey(currentDriver)) {
+            // Session was closed from another thread (suite-scoped teardown)
+            driver.remove();
+            wait.remove();
+            deviceSlot.remove();
+            return false;
+        }
+        return currentDriver != null;
     }
 
     /**
-     * Quits the driver and cleans up resources.
+     * Gets the device leased by the current thread.
+     * 
+     * @return leased device slot, or null if no driver is initialized on this thread
      */
-    public static void quitDriver() {
+    public static DeviceSlot getDeviceSlot() {
+        return deviceSlot.get();
+    }
+
+    /**
+     * Checks whether the current session still responds.
+     * Used before reusing a session and when deciding if a device should go back to the pool.
+     * 
+     * @return true if the driver answers a lightweight command
+     */
+    public static boolean isSessionHealthy() {
+        AndroidDriver currentDriver = driver.get();
+        if (currentDriver == null || currentDriver.getSessionId() == null) {
+            return false;
+        }
         try {
-            AndroidDriver currentDriver = driver.get();
-            if (currentDriver != null) {
-                logger.info("Quitting driver...");
-                currentDriver.quit();
-                driver.set(null);
-                wait.set(null);
-                logger.info("Driver quit successfully");
-            }
+            currentDriver.getCurrentPackage();
+            return true;
         } catch (Exception e) {
-            logger.error("Error quitting driver", e);
+            logger.warn("Session health check failed: {}", e.getMessage());
+            return false;
         }
     }
 
     /**
-     * Stops the Appium server (if started by framework).
-     * Note: In most cases, Appium is started externally.
+     * Quits the driver and cleans up resources.
      */
-    public static void stopAppiumServer() {
-        logger.info("Appium server stop requested (typically managed externally)");
-        // Appium server is usually started externally, so this is a placeholder
+    public static void quitDriver() {
+        quitDriver(true);
     }
 
     /**
-     * Checks if app is installed on device.
+     * Quits the driver and returns the leased device to the pool.
      * 
-     * @param udid Device UDID
-     * @param packageName App package name
-     * @return true if app is installed
+     * @param healthy false if the session misbehaved, which counts towards quarantining the device
+     */
+    public static void quitDriver(boolean healthy) {
+        AndroidDriver currentDriver = driver.get();
+        DeviceSlot slot = deviceSlot.get();
+        driver.remove();
+        wait.remove();
+        deviceSlot.remove();
+        if (currentDriver != null && activeSessions.remove(currentDriver) != null) {
+            closeSession(currentDriver, slot, healthy, true);
+        }
+    }
+
+    /**
+     * Quits every live session, including those owned by other worker threads and
+     * pre-started ones nobody took. Used at suite end.
      */
-    private static boolean isAppInstalled(String udid, String packageName) {
+    public static void quitAllDrivers() {
+        warmSessions.close(Duration.ofMillis(config.getIntProperty("device.pool.warm.close.timeout.ms", 60000)));
+        for (AndroidDriver activeDriver : activeSessions.keySet()) {
+            DeviceSlot slot = activeSessions.remove(activeDriver);
+            if (slot != null) {
+                closeSession(activeDriver, slot, true, false);
+            }
+        }
+    }
+
+    /**
+     * @param warmUp start the next session on the device before returning it to the pool
+     */
+    private static void closeSession(AndroidDriver sessionDriver, DeviceSlot slot, boolean healthy, boolean warmUp) {
+        boolean quitCleanly = true;
         try {
-            ProcessBuilder pb = new ProcessBuilder("adb", "-s", udid, "shell", "pm", "list", "packages", packageName);
-            Process process = pb.start();
-            int exitCode = process.waitFor();
-            return exitCode == 0;
+            logger.info("Quitting driver...");
+            sessionDriver.quit();
+            logger.info("Driver quit successfully");
         } catch (Exception e) {
-            logger.warn("Error checking if app is installed", e);
-            return false;
+            quitCleanly = false;
+            logger.error("Error quitting driver", e);
+        } finally {
+            AdaptiveWait.forget(sessionDriver);
+            boolean reusable = healthy && quitCleanly;
+            if (warmUp && reusable) {
+                // Registered while this thread still owns the device; whoever leases it next adopts the session
+                warmSessions.warm(slot);
+            }
+            DevicePool.getInstance().release(slot, reusable);
         }
     }
 
     /**
-     * Installs APK on device using ADB.
+     * Resets the app under test without closing the session, so the next test method
+     * can reuse it. "clear" wipes app data (pm clear); "restart" only force-stops and relaunches.
      * 
-     * @param udid Device UDID
-     * @param apkPath Path to APK file
+     * @return true if the app was reset and the session can be reused
      */
-    private static void installApp(String udid, String apkPath) {
+    public static boolean resetAppState() {
+        AndroidDriver currentDriver = driver.get();
+        ConfigManager config = deviceSlot.get() != null ? deviceSlot.get().getConfig() : DriverManager.config;
+        String appPackage = config.getProperty("device.app.package");
+        if (currentDriver == null || appPackage == null) {
+            return false;
+        }
+        String strategy = config.getProperty("test.session.reset.strategy", "clear");
         try {
-            ProcessBuilder pb = new ProcessBuilder("adb", "-s", udid, "install", "-g", apkPath);
-            Process process = pb.start();
-            int exitCode = process.waitFor();
-            if (exitCode != 0) {
-                throw new RuntimeException("APK installation failed with exit code: " + exitCode);
+            long start = System.currentTimeMillis();
+            currentDriver.terminateApp(appPackage);
+            if ("clear".equalsIgnoreCase(strategy)) {
+                currentDriver.executeScript("mobile: clearApp", Map.of("appId", appPackage));
             }
+            currentDriver.activateApp(appPackage);
+            logger.info("App state reset ({}) in {} ms", strategy, System.currentTimeMillis() - start);
+            return true;
         } catch (Exception e) {
-            logger.error("Failed to install APK", e);
-            throw new RuntimeException("APK installation failed", e);
+            logger.warn("Failed to reset app state ({}): {}", strategy, e.getMessage());
+            return false;
         }
     }
+
+    /**
+     * Stops the Appium server (if started by framework).
+     * Note: In most cases, Appium is started externally.
+     */
+    public static void stopAppiumServer() {
+        logger.info("Appium server stop requested (typically managed externally)");
+        // Appium server is usually started externally, so this is a placeholder
+    }
 }
@@ -0,0 +1,174 @@
+package com.automation.core;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sessions started in the background before a test asks for them, so session start
+ * overlaps with the tests still running instead of sitting in {@code beforeMethod}.
+ *
+ * A warm session belongs to one device. It is registered while the caller still owns the
+ * device (between quitting the previous session and returning the device to the
+ * {@link DevicePool}, or under a short lease at suite start), and the device then goes back
+ * to the pool as usual: whichever worker leases it next adopts the session with
+ * {@link #take(DeviceSlot)}, waiting for it if it is still starting. Devices are never held
+ * by the warm pool, so waiting workers cannot starve.
+ *
+ * At most device.pool.warm.size sessions are starting or waiting at a time. A session left
+ * idle longer than the Appium new-command timeout would have been closed by the server, so
+ * it is quit and the caller starts a fresh one.
+ *
+ * @param <S> session type
+ */
+final class WarmSessionPool<S> {
+    private static final Logger logger = LoggerFactory.getLogger(WarmSessionPool.class);
+
+    /**
+     * Starts and quits sessions, replaced in tests.
+     */
+    interface Sessions<S> {
+        S start(DeviceSlot slot);
+
+        void quit(S session);
+    }
+
+    private static final class Ready<S> {
+        final S session;
+        final long readyAt = System.nanoTime();
+
+        Ready(S session) {
+            this.session = session;
+        }
+    }
+
+    private final Sessions<S> sessions;
+    private final int size;
+    private final Duration maxIdle;
+    private final ExecutorService executor;
+    // Guarded by this
+    private final Map<DeviceSlot, CompletableFuture<Ready<S>>> warming = new LinkedHashMap<>();
+    private boolean closed;
+
+    WarmSessionPool(Sessions<S> sessions, int size, Duration maxIdle) {
+        this.sessions = sessions;
+        this.size = Math.max(0, size);
+        this.maxIdle = maxIdle;
+        int threads = Math.max(1, this.size);
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "session-warmup");
+                thread.setDaemon(true);
+                return thread;
+            });
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+    }
+
+    /**
+     * @return true if sessions are pre-started (device.pool.warm.size &gt; 0)
+     */
+    boolean isEnabled() {
+        return size > 0;
+    }
+
+    /**
+     * Starts a session on the device in the background. The caller must own the device
+     * until this returns, so nobody else opens a session on it in the meantime.
+     *
+     * @return false if the pool is full, closed or already warming this device
+     */
+    synchronized boolean warm(DeviceSlot slot) {
+        if (closed || warming.size() >= size || warming.containsKey(slot)) {
+            return false;
+        }
+        logger.info("Pre-starting a session on {}", slot.getUdid());
+        warming.put(slot, CompletableFuture.supplyAsync(() -> new Ready<>(sessions.start(slot)), executor));
+        return true;
+    }
+
+    /**
+     * Hands over the session pre-started on a device leased by the caller, waiting for it
+     * if it is still starting.
+     *
+     * @return the session, or null if none was started, it failed or it sat idle too long
+     */
+    S take(DeviceSlot slot) {
+        CompletableFuture<Ready<S>> future;
+        synchronized (this) {
+            future = warming.remove(slot);
+        }
+        if (future == null) {
+            return null;
+        }
+        boolean waited = !future.isDone();
+        Ready<S> ready;
+        try {
+            ready = future.join();
+        } catch (CompletionException e) {
+            logger.warn("Pre-started session on {} failed: {}", slot.getUdid(), e.getCause().getMessage());
+            return null;
+        }
+        long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - ready.readyAt);
+        if (idleMillis > maxIdle.toMillis()) {
+            logger.info("Pre-started session on {} idle for {} ms, starting a fresh one", slot.getUdid(), idleMillis);
+            quitQuietly(ready.session);
+            return null;
+        }
+        logger.info("Using pre-started session on {} ({})", slot.getUdid(),
+            waited ? "waited for it to start" : "idle for " + idleMillis + " ms");
+        return ready.session;
+    }
+
+    /**
+     * Quits all pre-started sessions and stops warming. Sessions still starting are waited for
+     * up to {@code timeout} and quit as well; a session left running when the JVM exits would
+     * hold its device until the Appium new-command timeout.
+     */
+    void close(Duration timeout) {
+        List<CompletableFuture<Ready<S>>> remaining;
+        synchronized (this) {
+            closed = true;
+            remaining = new ArrayList<>(warming.values());
+            warming.clear();
+        }
+        List<CompletableFuture<Void>> quits = new ArrayList<>();
+        for (CompletableFuture<Ready<S>> future : remaining) {
+            quits.add(future.thenAccept(ready -> quitQuietly(ready.session)));
+        }
+        try {
+            CompletableFuture.allOf(quits.toArray(new CompletableFuture<?>[0]))
+                .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.warn("Pre-started sessions still starting after {} ms; their devices stay busy until the Appium "
+                + "new-command timeout", timeout.toMillis());
+        } catch (ExecutionException e) {
+            // A start failed; there is no session to quit for it
+            logger.debug("Pre-started session failed while closing: {}", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdown();
+    }
+
+    private void quitQuietly(S session) {
+        try {
+            sessions.quit(session);
+        } catch (RuntimeException e) {
+            logger.debug("Error quitting pre-started session", e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.automation.listeners;
+
+import com.automation.core.ConfigManager;
+import com.automation.core.DevicePool;
+import com.automation.utils.LoggerUtil;
+import org.slf4j.Logger;
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sizes TestNG parallelism to the device pool before the suite starts.
+ *
+ * IAlterSuiteListener is only honoured when registered in the suite XML (or via ServiceLoader),
+ * not through {@code @Listeners}, so it is declared in testng.xml.
+ *
+ * - test.parallel.threads: worker count; 0 means one worker per pooled device
+ * - test.parallel.mode: TestNG parallel mode used when more than one worker is available
+ *
+ * With test.matrix.profiles=api30,api33 every {@code <test>} is expanded into one copy per
+ * profile ("Geofence E2E Tests [api30]", ...) carrying the profile as the device.profile
+ * parameter, and the copies run in parallel ("tests" mode), each on the device described by
+ * its profile (see {@link ConfigManager#forProfile(String)}). This runs the whole device matrix
+ * in one JVM instead of one Maven invocation per device. Framework unit tests live in
+ * testng-unit.xml, which does not register this listener.
+ */
+public class SuiteConfigListener implements IAlterSuiteListener {
+    private static final Logger logger = LoggerUtil.getLogger(SuiteConfigListener.class);
+    public static final String PROFILE_PARAMETER = "device.profile";
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        ConfigManager config = ConfigManager.getInstance();
+        List<String> profiles = DevicePool.splitList(config.getProperty("test.matrix.profiles"));
+        int poolSize = DevicePool.getInstance().size();
+        int configuredThreads = config.getIntProperty("test.parallel.threads", 0);
+        int threads = configuredThreads > 0 ? Math.min(configuredThreads, poolSize) : poolSize;
+
+        if (!profiles.isEmpty()) {
+            for (XmlSuite suite : suites) {
+                expandMatrix(suite, profiles);
+                if (threads > 1) {
+                    // Tests of one matrix entry share its single device, so entries are the unit of parallelism
+                    suite.setParallel(XmlSuite.ParallelMode.TESTS);
+                    suite.setThreadCount(threads);
+                }
+                logger.info("Suite '{}' expanded to {} test(s) over matrix {} with {} thread(s)",
+                    suite.getName(), suite.getTests().size(), profiles, Math.max(threads, 1));
+            }
+            return;
+        }
+
+        if (threads <= 1) {
+            logger.info("Single device available - suites run sequentially");
+            return;
+        }
+
+        XmlSuite.ParallelMode mode = XmlSuite.ParallelMode.getValidParallel(
+            config.getProperty("test.parallel.mode", "classes"));
+        for (XmlSuite suite : suites) {
+            suite.setParallel(mode);
+            suite.setThreadCount(threads);
+            logger.info("Suite '{}' runs parallel={} with {} threads across {} device(s)",
+                suite.getName(), mode, threads, poolSize);
+        }
+    }
+
+    /**
+     * Replaces every test of the suite with one copy per matrix profile.
+     * Copies of the same test follow each other, so a suite reads in its original order.
+     */
+    static void expandMatrix(XmlSuite suite, List<String> profiles) {
+        List<XmlTest> expanded = new ArrayList<>();
+        for (XmlTest test : new ArrayList<>(suite.getTests())) {
+            for (String profile : profiles) {
+                // clone() registers the copy with the suite; the test list is replaced below
+                XmlTest entry = (XmlTest) test.clone();
+                entry.setName(test.getName() + " [" + profile + "]");
+                entry.setPreserveOrder(test.getPreserveOrder());
+                entry.addParameter(PROFILE_PARAMETER, profile);
+                List<XmlClass> classes = new ArrayList<>();
+                for (XmlClass xmlClass : test.getXmlClasses()) {
+                    XmlClass copy = (XmlClass) xmlClass.clone();
+                    copy.setXmlTest(entry);
+                    classes.add(copy);
+                }
+                entry.setXmlClasses(classes);
+                expanded.add(entry);
+            }
+        }
+        suite.setTests(expanded);
+    }
+}
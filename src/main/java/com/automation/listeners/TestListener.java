@@ -1,6 +1,9 @@
 package com.automation.listeners;
 
+import com.automation.core.ConfigManager;
 import com.automation.services.AtlassianService;
+import com.automation.services.DefectQueue;
+import com.automation.services.DefectReport;
 import com.automation.utils.LoggerUtil;
 import com.automation.utils.ScreenshotUtil;
 import org.slf4j.Logger;
@@ -9,12 +12,17 @@ import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 
+import java.time.Duration;
+
 /**
  * TestNG listener for test execution events.
  * Handles test failures, success, and integrates with Jira for defect creation.
  *
  * - onTestFailure(): @Test method failures
  * - onConfigurationFailure(): setup/teardown failures (@Before/@After)
+ *
+ * Defects are filed asynchronously through {@link DefectQueue}: only the screenshot is taken on
+ * the test thread, and onFinish() waits up to atlassian.defect.drain.timeout.seconds for the queue.
  */
 public class TestListener implements ITestListener, IConfigurationListener {
     private static final Logger logger = LoggerUtil.getLogger(TestListener.class);
@@ -61,6 +69,8 @@ public class TestListener implements ITestListener, IConfigurationListener {
             context.getPassedTests().size(),
             context.getFailedTests().size(),
             context.getSkippedTests().size());
+
+        drainDefectQueue();
     }
 
     // =========================================================
@@ -91,18 +101,32 @@ public class TestListener implements ITestListener, IConfigurationListener {
     // =========================================================
 
     private void handleDefectCreation(ITestResult result, String failureType) {
-        String methodName = result.getMethod() != null ? result.getMethod().getMethodName() : "unknown";
-        String screenshotPath = ScreenshotUtil.captureScreenshot(methodName);
+        // The screenshot needs the live session, so it is the only part done on the test thread.
+        // It is cached on the result, so the one taken by BaseTest.afterMethod is reused.
+        String screenshotPath = ScreenshotUtil.captureFailureScreenshot(result);
 
+        if (!atlassianService.isEnabled()) {
+            logger.debug("Jira defect creation disabled, skipping {}", failureType);
+            return;
+        }
+        DefectQueue.getInstance().submit(DefectReport.from(result, failureType, screenshotPath));
+    }
+
+    private void drainDefectQueue() {
+        DefectQueue queue = DefectQueue.getInstance();
+        if (queue.pending() == 0) {
+            return;
+        }
+        int timeoutSeconds = ConfigManager.getInstance().getIntProperty("atlassian.defect.drain.timeout.seconds", 60);
+        logger.info("Waiting up to {}s for {} queued Jira defect(s)", timeoutSeconds, queue.pending());
         try {
-            String jiraKey = atlassianService.createDefect(result, screenshotPath);
-            if (jiraKey != null && !jiraKey.isEmpty()) {
-                logger.info("✅ Jira defect created successfully for {}: {}", failureType, jiraKey);
-            } else {
-                logger.warn("⚠️ Jira defect creation failed or was skipped for {}. Check logs above for details.", failureType);
+            int left = queue.drain(Duration.ofSeconds(timeoutSeconds));
+            if (left > 0) {
+                logger.warn("⚠️ {} Jira defect(s) not filed within {}s", left, timeoutSeconds);
             }
-        } catch (Exception e) {
-            logger.error("❌ Failed to create Jira defect for " + failureType, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for Jira defects");
         }
     }
-}
\ No newline at end of file
+}
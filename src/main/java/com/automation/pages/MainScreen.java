@@ -1,17 +1,29 @@
 package com.automation.pages;
 
 import com.automation.base.BasePage;
+import com.automation.base.LocatorLint;
+import com.automation.base.UiInterruptWatcher;
+import com.automation.base.UiSelector;
+import com.automation.base.UiSnapshot;
+import com.automation.utils.geo.Geofence;
 import io.appium.java_client.AppiumBy;
 import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.android.nativekey.AndroidKey;
 import io.appium.java_client.android.nativekey.KeyEvent;
 import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.ByAll;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Page Object for EgiGeoZone main screen.
@@ -25,6 +37,18 @@ import java.util.List;
  */
 public class MainScreen extends BasePage {
     private static final Logger logger = LoggerFactory.getLogger(MainScreen.class);
+    /**
+     * How long the first-launch permission dialogs get to appear; matches the previous effective
+     * wait of shortWait (2 s) on top of the 10 s implicit wait
+     */
+    private static final Duration PERMISSION_DIALOG_BUDGET = Duration.ofSeconds(12);
+
+    /** Zones saved through the form on this screen, for use with GeofenceOracle */
+    private final List<Geofence> createdZones = new ArrayList<>();
+    private String pendingZoneName;
+    private double pendingZoneLatitude = Double.NaN;
+    private double pendingZoneLongitude = Double.NaN;
+    private double pendingZoneRadius = Double.NaN;
 
     // ============================================================================
     // Permission Locators
@@ -45,13 +69,14 @@ public class MainScreen extends BasePage {
     // Main Screen Locators - EgiGeoZone
     // ============================================================================
     private final By mapView = AppiumBy.id("de.egi.geofence.geozone:id/map");
-    private final By mapViewAlt = AppiumBy.xpath("//android.widget.FrameLayout[contains(@resource-id,'map')]");
+    private final By mapViewAlt = UiSelector.className("android.widget.FrameLayout").resourceIdMatches(".*map.*").toBy();
 
     // Geofence List and Management
     private final By geofenceMenu = AppiumBy.id("de.egi.geofence.geozone:id/nav_geofence");
     private final By navView = AppiumBy.id("de.egi.geofence.geozone:id/design_navigation_view");
     private final By addGeofenceButton = AppiumBy.id("de.egi.geofence.geozone:id/fab");
     private final By zoneListContainer = AppiumBy.id("de.egi.geofence.geozone:id/list");
+    private final By scrollViewContainer = UiSelector.classNameMatching(".*ScrollView.*").toBy();
 
     // ============================================================================
     // Geofence Creation Form Locators
@@ -71,12 +96,14 @@ public class MainScreen extends BasePage {
     private final By triggerEntryCheckbox = AppiumBy.id("de.egi.geofence.geozone:id/enterTracking");
 
     // Notification Settings
-    private final By notificationToggle = AppiumBy
-            .xpath("//android.widget.Switch[contains(@resource-id,'notification')]");
+    private final By notificationToggle = UiSelector.className("android.widget.Switch")
+            .resourceIdMatches(".*notification.*").toBy();
     private final By trackToServerProfile = AppiumBy.id("de.egi.geofence.geozone:id/spinner_tracking_server_profile");
-    private final By trackToServerProfileItem = AppiumBy.xpath("//android.widget.CheckedTextView[@resource-id='android:id/text1' and @text='Staging-Geofence']");
+    private final By trackToServerProfileItem = UiSelector.className("android.widget.CheckedTextView")
+            .resourceId("android:id/text1").text("Staging-Geofence").toBy();
     private final By moreOptionMenuButton = AppiumBy.accessibilityId("More options");
-    private final By refreshButton = AppiumBy.xpath("(//android.widget.LinearLayout[@resource-id='de.egi.geofence.geozone:id/content'])[1]");
+    private final By refreshButton = UiSelector.className("android.widget.LinearLayout")
+            .resourceId("de.egi.geofence.geozone:id/content").instance(0).toBy();
 
 
     // Save/Cancel Buttons
@@ -86,7 +113,8 @@ public class MainScreen extends BasePage {
     // ============================================================================
     // Zone Status and Validation Locators
     // ============================================================================
-    private final By zoneListItem = AppiumBy.xpath("//android.widget.ListView//android.widget.RelativeLayout");
+    private final By zoneListItem = UiSelector.className("android.widget.ListView")
+            .descendant(UiSelector.className("android.widget.RelativeLayout")).toBy();
 
     // ============================================================================
     // Server Profile Locators
@@ -94,7 +122,10 @@ public class MainScreen extends BasePage {
     private final By appMenu = AppiumBy.accessibilityId("Open navigation drawer");
     private final By profilesMenu = AppiumBy.id("de.egi.geofence.geozone:id/nav_profiles");
     private final By serverProfilesMenu = AppiumBy.id("de.egi.geofence.geozone:id/button_onServerProfileClicked");
-    private final By serverProfileListItem = AppiumBy.xpath("//android.widget.ListView//android.widget.RelativeLayout | //androidx.recyclerview.widget.RecyclerView//android.widget.RelativeLayout");
+    private final By serverProfileListItem = new ByAll(
+            zoneListItem,
+            UiSelector.className("androidx.recyclerview.widget.RecyclerView")
+                    .descendant(UiSelector.className("android.widget.RelativeLayout")).toBy());
     private final By addNewProfileButton = AppiumBy.id("de.egi.geofence.geozone:id/fab_profiles");
     private final By profileNameField = AppiumBy.id("de.egi.geofence.geozone:id/value_name");
     private final By urlZoneEnteredField = AppiumBy.id("de.egi.geofence.geozone:id/value_urlEntered");
@@ -108,11 +139,16 @@ public class MainScreen extends BasePage {
     // ============================================================================
     // Notification Locators
     // ============================================================================
-    private final By notificationText = AppiumBy.id(
-            "de.egi.geofence.geozone:id/drawer_item_zone_dist");
-    private final By toastMessage = AppiumBy.xpath("//android.widget.Toast");
-    private final By snackbarMessage = AppiumBy.xpath("//android.widget.TextView[contains(@resource-id,'snackbar')]");
-    private final By dialogMessage = AppiumBy.xpath("//android.widget.TextView[contains(@resource-id,'message')]");
+    private static final String NOTIFICATION_TEXT_ID = "de.egi.geofence.geozone:id/drawer_item_zone_dist";
+    private static final String TOAST_CLASS = "android.widget.Toast";
+    private static final String TEXT_VIEW_CLASS = "android.widget.TextView";
+    private final By notificationText = AppiumBy.id(NOTIFICATION_TEXT_ID);
+
+    public MainScreen() {
+        super();
+        // Locator fields are initialized at this point
+        LocatorLint.lintOnce(this);
+    }
 
     // ============================================================================
     // Permission Handling
@@ -120,69 +156,62 @@ public class MainScreen extends BasePage {
 
     /**
      * Grants location permission to the app following the exact flow:
-     * 1. Check for grant dialog, click "While using the app" if present
+     * 1. Wait for the grant dialog (required), click "While using the app"
      * 2. Handle background permission popup
      * 3. Handle location permission page with "Allow all the time"
      */
     public void grantLocationPermission() throws InterruptedException {
         logger.info("=== Granting location permission ===");
 
-        // Step 1: Check for permission popup (grant_dialog)
-        logger.info("Step 1: Checking for permission popup...");
-        WebElement grantDialogElement = shortWait
-                .until(ExpectedConditions.presenceOfElementLocated(grantDialog));
-        if (grantDialogElement.isDisplayed()) {
-            logger.info("Permission popup found, clicking 'While using the app'...");
-            WebElement whileUsingBtn = shortWait
-                    .until(ExpectedConditions.elementToBeClickable(permissionAllowForegroundOnlyButton));
-            whileUsingBtn.click();
-            logger.info("✅ Clicked 'While using the app' button");
-
-            // Wait for dialog to disappear
-            waitForElementToDisappear(grantDialog);
-
-            // Step 2: Check for background permission popup
-            logger.info("Step 2: Waiting for app to open again...");
-            WebElement bgPopup = shortWait
-                    .until(ExpectedConditions.presenceOfElementLocated(backgroundPermissionPopup));
-            if (bgPopup.isDisplayed()) {
-                logger.info("Background permission popup found, clicking OK...");
-                WebElement okBtn = shortWait.until(ExpectedConditions.elementToBeClickable(okButton));
-                okBtn.click();
+        // Step 1: The permission popup (grant_dialog) is required
+        logger.info("Step 1: Waiting for permission popup...");
+        waitWithBudget(PERMISSION_DIALOG_BUDGET).until(ExpectedConditions.visibilityOfElementLocated(grantDialog));
+        logger.info("Permission popup found, clicking 'While using the app'...");
+        WebElement whileUsingBtn = shortWait
+                .until(ExpectedConditions.elementToBeClickable(permissionAllowForegroundOnlyButton));
+        whileUsingBtn.click();
+        logger.info("✅ Clicked 'While using the app' button");
+
+        // Wait for dialog to disappear
+        waitForElementToDisappear(grantDialog);
+
+        // Step 2: Check for background permission popup
+        logger.info("Step 2: Waiting for app to open again...");
+        if (isPresentWithin(backgroundPermissionPopup, PERMISSION_DIALOG_BUDGET)) {
+            logger.info("Background permission popup found, clicking OK...");
+            WebElement okBtn = shortWait.until(ExpectedConditions.elementToBeClickable(okButton));
+            okBtn.click();
+            logger.info("✅ Clicked OK on background permission popup");
+
+            // Step 3: Wait for location permission page
+            logger.info("Step 3: Waiting for location permission page...");
+            shortWait.until(ExpectedConditions.presenceOfElementLocated(locationPermissionPage));
+            logger.info("Location permission page appeared");
+
+            // Select "Allow all the time"
+            logger.info("Selecting 'Allow all the time' option...");
+            WebElement allowAlwaysBtn = shortWait
+                    .until(ExpectedConditions.elementToBeClickable(allowAlwaysRadioButton));
+            allowAlwaysBtn.click();
+            logger.info("✅ Selected 'Allow all the time'");
+
+            // Click back button
+            logger.info("Clicking back button...");
+            WebElement backBtn = shortWait
+                    .until(ExpectedConditions.elementToBeClickable(navigateUpButton));
+            backBtn.click();
+            logger.info("✅ Clicked back button");
+
+            if (isPresentWithin(backgroundPermissionPopup, PERMISSION_DIALOG_BUDGET)) {
+                logger.info("Background permission popup found again, clicking OK...");
+                WebElement okBtn2 = shortWait
+                        .until(ExpectedConditions.elementToBeClickable(okButton));
+                okBtn2.click();
                 logger.info("✅ Clicked OK on background permission popup");
 
-                // Step 3: Wait for location permission page
-                logger.info("Step 3: Waiting for location permission page...");
-                shortWait.until(ExpectedConditions.presenceOfElementLocated(locationPermissionPage));
-                logger.info("Location permission page appeared");
-
-                // Select "Allow all the time"
-                logger.info("Selecting 'Allow all the time' option...");
-                WebElement allowAlwaysBtn = shortWait
-                        .until(ExpectedConditions.elementToBeClickable(allowAlwaysRadioButton));
-                allowAlwaysBtn.click();
-                logger.info("✅ Selected 'Allow all the time'");
-
-                // Click back button
-                logger.info("Clicking back button...");
-                WebElement backBtn = shortWait
-                        .until(ExpectedConditions.elementToBeClickable(navigateUpButton));
-                backBtn.click();
-                logger.info("✅ Clicked back button");
-
-                WebElement bgPopup2 = shortWait
-                        .until(ExpectedConditions.presenceOfElementLocated(backgroundPermissionPopup));
-                if (bgPopup2.isDisplayed()) {
-                    logger.info("Background permission popup found again, clicking OK...");
-                    WebElement okBtn2 = shortWait
-                            .until(ExpectedConditions.elementToBeClickable(okButton));
-                    okBtn2.click();
-                    logger.info("✅ Clicked OK on background permission popup");
-
-                    // Wait for popup to disappear
-                    waitForElementToDisappear(backgroundPermissionPopup);
-                    logger.info("✅ Background permission popup disappeared");
-                }
+                // Wait for popup to disappear (closing animation, slow emulators)
+                waitForElementToDisappear(backgroundPermissionPopup);
+                logger.info("✅ Background permission popup disappeared");
             }
         }
 
@@ -202,9 +231,16 @@ public class MainScreen extends BasePage {
         permanentLocationPermissionCheckboxElement.click();
         logger.info("✅ Permanent location permission checkbox clicked");
 
-        pressBackButtonOfDevice();
-
-        Thread.sleep(10000); // Wait for popup disapear  
+        // Dismiss or wait out the popups that follow instead of sleeping a fixed time
+        boolean clear;
+        try (UiInterruptWatcher watcher = UiInterruptWatcher.start(driver)) {
+            pressBackButtonOfDevice();
+            clear = watcher.awaitClear(Duration.ofSeconds(10));
+        }
+        if (!clear) {
+            logger.warn("A permission dialog is still open after 10 s; permanent location permission may not be granted");
+            return;
+        }
         logger.info("✅ Permanent location permission granted");
     }
 
@@ -248,7 +284,7 @@ public class MainScreen extends BasePage {
      * Selects the Geofence menu and waits for the menu to disappear.
      */
     public void selectGeofenceMenu() {
-        if (mediumWait.until(ExpectedConditions.presenceOfElementLocated(navView)).isDisplayed()) {
+        if (isPresentWithin(navView, Duration.ofSeconds(5))) {
             logger.info("=== Selecting Geofence menu ===");
             // Click on Geofence menu
             logger.info("Clicking on Geofence menu...");
@@ -286,7 +322,6 @@ public class MainScreen extends BasePage {
         // Wait for form to appear - check for ScrollView container first
         logger.info("Waiting for geofence creation form to appear...");
 
-        By scrollViewContainer = AppiumBy.xpath("//android.widget.ScrollView[contains(@class,'ScrollView')]");
         shortWait.until(ExpectedConditions.presenceOfElementLocated(scrollViewContainer));
         logger.info("✅ Form ScrollView container appeared");
     }
@@ -301,6 +336,7 @@ public class MainScreen extends BasePage {
         String geofenceName = "TestGeofence_" + System.currentTimeMillis();
         nameField.clear();
         nameField.sendKeys(geofenceName);
+        pendingZoneName = geofenceName;
         logger.info("✅ Entered geofence name: {}", geofenceName);
     }
 
@@ -309,6 +345,7 @@ public class MainScreen extends BasePage {
         WebElement latField = waitForElementToReady(geofenceLatitudeField, geofenceLatitudeFieldAlt);
         latField.clear();
         latField.sendKeys(String.valueOf(latitude));
+        pendingZoneLatitude = latitude;
         logger.info("✅ Entered latitude: {}", latitude);
     }
 
@@ -317,6 +354,7 @@ public class MainScreen extends BasePage {
         WebElement lonField = waitForElementToReady(geofenceLongitudeField, geofenceLongitudeFieldAlt);
         lonField.clear();
         lonField.sendKeys(String.valueOf(longitude));
+        pendingZoneLongitude = longitude;
         logger.info("✅ Entered longitude: {}", longitude);
     }
 
@@ -325,6 +363,7 @@ public class MainScreen extends BasePage {
         WebElement radiusField = waitForElementToReady(geofenceRadiusField, geofenceRadiusFieldAlt);
         radiusField.clear();
         radiusField.sendKeys(String.valueOf(radius));
+        pendingZoneRadius = radius;
         logger.info("✅ Entered radius: {} meters", radius);
     }
 
@@ -456,7 +495,7 @@ public class MainScreen extends BasePage {
         logger.info("=== Enabling notifications for geofence zone ===");
 
         // Try notification toggle
-        if (isDisplayedWithTimeout(notificationToggle, 3)) {
+        if (isPresentWithin(notificationToggle, Duration.ofSeconds(3))) {
             WebElement toggle = mediumWait.until(ExpectedConditions.elementToBeClickable(notificationToggle));
             if (!toggle.isSelected()) {
                 toggle.click();
@@ -476,7 +515,7 @@ public class MainScreen extends BasePage {
      * @return true if notifications are enabled
      */
     public boolean areNotificationsEnabled() {
-        if (isDisplayedWithTimeout(notificationToggle, 5)) {
+        if (isPresentWithin(notificationToggle, Duration.ofSeconds(5))) {
             WebElement toggle = wait.until(ExpectedConditions.presenceOfElementLocated(notificationToggle));
             return toggle.isSelected();
         }
@@ -496,6 +535,31 @@ public class MainScreen extends BasePage {
         saveBtn.click();
         logger.info("✅ Save button clicked - waiting for save to complete");
         shortWait.until(ExpectedConditions.invisibilityOfElementLocated(geofenceNameField));
+        recordCreatedZone();
+    }
+
+    private void recordCreatedZone() {
+        if (pendingZoneName == null || Double.isNaN(pendingZoneLatitude)
+                || Double.isNaN(pendingZoneLongitude) || Double.isNaN(pendingZoneRadius)) {
+            logger.debug("Saved zone form was incomplete, not recording it");
+            return;
+        }
+        Geofence zone = new Geofence(pendingZoneName, pendingZoneLatitude, pendingZoneLongitude, pendingZoneRadius);
+        createdZones.add(zone);
+        logger.info("Recorded created zone: {}", zone);
+        pendingZoneName = null;
+        pendingZoneLatitude = Double.NaN;
+        pendingZoneLongitude = Double.NaN;
+        pendingZoneRadius = Double.NaN;
+    }
+
+    /**
+     * Gets the zones saved through this screen, in creation order.
+     * 
+     * @return created zones
+     */
+    public List<Geofence> getCreatedZones() {
+        return Collections.unmodifiableList(createdZones);
     }
 
     // ============================================================================
@@ -511,25 +575,17 @@ public class MainScreen extends BasePage {
         shortWait.until(ExpectedConditions.presenceOfElementLocated(zoneListContainer));
         logger.info("Zone list is visible");
 
-        // Check if zone list container exists and has items
-        List<WebElement> zones = driver.findElements(zoneListItem);
-        logger.info("Found {} zones in list", zones.size());
-        if (zones.size() > 0) {
+        // Count list items and scan for zone text in one page source
+        UiSnapshot snapshot = UiSnapshot.capture(driver);
+        int zones = snapshot.countDescendants("android.widget.ListView", "android.widget.RelativeLayout");
+        logger.info("Found {} zones in list", zones);
+        if (zones > 0) {
             return true;
         }
 
-        // Fallback: check page source
-        String pageSource = driver.getPageSource();
-        if (pageSource != null) {
-            String lowerSource = pageSource.toLowerCase();
-            boolean hasGeofenceIndicator = lowerSource.contains("testgeofence") ||
-                    lowerSource.contains("geofence") ||
-                    lowerSource.contains("zone");
-
-            if (hasGeofenceIndicator) {
-                logger.info("Found geofence indicators in page source");
-                return true;
-            }
+        if (snapshot.containsText("testgeofence") || snapshot.containsText("geofence") || snapshot.containsText("zone")) {
+            logger.info("Found geofence indicators in page source");
+            return true;
         }
 
         // If zone was created successfully, assume it's in the list
@@ -559,6 +615,47 @@ public class MainScreen extends BasePage {
         return false;
     }
 
+    /**
+     * Waits for the zone list to report an exit from the named zone.
+     *
+     * @param zoneName name the zone was saved under
+     * @return true if the zone's row reports an exit within the short wait
+     */
+    public boolean isExitEventDetected(String zoneName) {
+        logger.info("Checking for exit event from zone {}...", zoneName);
+        try {
+            return shortWait.until(webDriver -> isExitEventShown(zoneName));
+        } catch (TimeoutException e) {
+            logger.info("No exit event reported for zone {}", zoneName);
+            return false;
+        }
+    }
+
+    /**
+     * Checks, without waiting, whether the zone list currently reports an exit from the named zone.
+     *
+     * @param zoneName name the zone was saved under
+     * @return true if the zone's row reports an exit
+     */
+    public boolean isExitEventShown(String zoneName) {
+        UiSnapshot snapshot = UiSnapshot.capture(driver);
+        // The row lists the zone name before its distance line, so the zone's distance is the
+        // first distance line after the name in document order
+        for (int node = 0; node < snapshot.size(); node++) {
+            if (!zoneName.equals(snapshot.text(node))) {
+                continue;
+            }
+            for (int next = node + 1; next < snapshot.size(); next++) {
+                if (NOTIFICATION_TEXT_ID.equals(snapshot.resourceId(next))) {
+                    String text = snapshot.text(next).toLowerCase();
+                    logger.info("Distance line for zone {}: {}", zoneName, text);
+                    return text.contains("linear distance to fence about");
+                }
+            }
+        }
+        return false;
+    }
+
     // ============================================================================
     // Notification Handling
     // ============================================================================
@@ -569,52 +666,56 @@ public class MainScreen extends BasePage {
      * @return Notification text
      */
     public String getNotificationText() {
-        // Check toast messages
-        if (isDisplayedWithTimeout(toastMessage, 3)) {
-            String toast = getText(toastMessage);
-            if (!toast.isEmpty()) {
-                logger.info("Found toast message: {}", toast);
-                return toast;
-            }
-        }
+        // One page source per attempt answers all probes; retry with backing-off polls for late
+        // toasts, so the hierarchy dumps do not compete with the toast for the device
+        Duration budget = Duration.ofMillis(config.getIntProperty("notification.probe.timeout.ms", 3000));
+        UiSnapshot[] lastSnapshot = new UiSnapshot[1];
+        try {
+            return waitWithBudget(budget).until(new Function<WebDriver, String>() {
+                @Override
+                public String apply(WebDriver webDriver) {
+                    lastSnapshot[0] = UiSnapshot.capture(driver);
+                    String text = firstNotificationText(lastSnapshot[0]);
+                    return text.isEmpty() ? null : text;
+                }
 
-        // Check snackbar messages
-        if (isDisplayedWithTimeout(snackbarMessage, 3)) {
-            String snackbar = getText(snackbarMessage);
-            if (!snackbar.isEmpty()) {
-                logger.info("Found snackbar message: {}", snackbar);
-                return snackbar;
-            }
+                @Override
+                public String toString() {
+                    return "notification text";
+                }
+            });
+        } catch (TimeoutException e) {
+            logger.debug("No notification source within {} ms", budget.toMillis());
         }
+        UiSnapshot snapshot = lastSnapshot[0] != null ? lastSnapshot[0] : UiSnapshot.capture(driver);
 
-        // Check dialog messages
-        if (isDisplayedWithTimeout(dialogMessage, 3)) {
-            String dialog = getText(dialogMessage);
-            if (!dialog.isEmpty()) {
-                logger.info("Found dialog message: {}", dialog);
-                return dialog;
-            }
+        // Check page source for notification-related text
+        if (snapshot.containsText("exit") || snapshot.containsText("out")
+                || snapshot.containsText("left") || snapshot.containsText("geofence")) {
+            logger.info("Found notification-related text in page source");
+            return "Geofence exit detected";
         }
 
-        // Check notification text in UI
-        if (isDisplayedWithTimeout(notificationText, 3)) {
-            String notification = getText(notificationText);
-            if (!notification.isEmpty()) {
-                logger.info("Found notification text: {}", notification);
-                return notification;
-            }
-        }
+        return "";
+    }
 
-        // Check page source for notification-related text
-        String pageSource = driver.getPageSource();
-        if (pageSource != null) {
-            if (pageSource.contains("exit") || pageSource.contains("out") ||
-                    pageSource.contains("left") || pageSource.contains("geofence")) {
-                logger.info("Found notification-related text in page source");
-                return "Geofence exit detected";
+    /**
+     * Checks the notification sources in priority order: toast, snackbar, dialog, in-app notification.
+     */
+    private String firstNotificationText(UiSnapshot snapshot) {
+        String[][] sources = {
+            {"toast message", TOAST_CLASS, null},
+            {"snackbar message", TEXT_VIEW_CLASS, "snackbar"},
+            {"dialog message", TEXT_VIEW_CLASS, "message"},
+            {"notification text", null, NOTIFICATION_TEXT_ID},
+        };
+        for (String[] source : sources) {
+            int node = snapshot.first(source[1], source[2]);
+            if (node >= 0 && !snapshot.text(node).isEmpty()) {
+                logger.info("Found {}: {}", source[0], snapshot.text(node));
+                return snapshot.text(node);
             }
         }
-
         return "";
     }
 
@@ -650,22 +751,6 @@ public class MainScreen extends BasePage {
         return driver.getPageSource();
     }
 
-    // ============================================================================
-    // Helper Methods
-    // ============================================================================
-
-    /**
-     * Checks if element is displayed with timeout.
-     * 
-     * @param locator        Element locator
-     * @param timeoutSeconds Timeout in seconds
-     * @return true if displayed
-     */
-    private boolean isDisplayedWithTimeout(By locator, int timeoutSeconds) {
-        WebElement element = shortWait.until(ExpectedConditions.presenceOfElementLocated(locator));
-        return element != null && element.isDisplayed();
-    }
-
     // ============================================================================
     // Server Profile Management
     // ============================================================================
@@ -704,7 +789,7 @@ public class MainScreen extends BasePage {
 
         // Check if there are any existing profiles in the Server Profile list
         logger.info("Checking if server profiles already exist...");
-        List<WebElement> existingProfiles = driver.findElements(serverProfileListItem);
+        List<WebElement> existingProfiles = findElements(serverProfileListItem);
         if (existingProfiles != null && existingProfiles.size() > 0) {
             logger.info("✅ Found {} existing server profile(s). Skipping profile creation.", existingProfiles.size());
             logger.info("=== Server profile setup skipped (profiles already exist) ===");
@@ -1,18 +1,27 @@
 package com.automation.services;
 
 import com.automation.core.ConfigManager;
+import com.automation.utils.ArtifactWriter;
 import com.automation.utils.LoggerUtil;
-import io.restassured.RestAssured;
-import io.restassured.http.ContentType;
-import io.restassured.response.Response;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.slf4j.Logger;
 import org.testng.ITestResult;
 
-import java.io.File;
-import java.time.LocalDateTime;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class AtlassianService {
 
@@ -24,6 +33,15 @@ public class AtlassianService {
     private final String apiEmail;
     private final String jiraProjectKey;
     private final boolean autoCreateDefect;
+    private final JiraHttpClient http;
+
+    // Issue key per failure fingerprint, remembered for the rest of the run
+    private final Map<String, String> issuesByFingerprint = new ConcurrentHashMap<>();
+
+    private static final Duration ATTACHMENT_WAIT = Duration.ofSeconds(30);
+
+    // Jira accepts at most 50 issues per bulk create
+    private static final int BULK_LIMIT = 50;
 
     private static final DateTimeFormatter DATE_FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
@@ -36,81 +54,266 @@ public class AtlassianService {
         this.apiEmail = config.getProperty("atlassian.api.email", "");
         this.jiraProjectKey = config.getProperty("atlassian.jira.project.key", "DEV");
         this.autoCreateDefect = config.getBooleanProperty("atlassian.auto.create.defect", true);
+        this.http = JiraHttpClient.shared(baseUrl, apiEmail, apiToken);
 
         if (baseUrl.isEmpty() || apiToken.isEmpty()) {
             logger.warn("Atlassian credentials not configured. Integration will be skipped.");
         }
     }
 
+    /**
+     * @return true if credentials are configured and auto creation is on
+     */
+    public boolean isEnabled() {
+        return autoCreateDefect && !baseUrl.isEmpty() && !apiToken.isEmpty();
+    }
+
     /**
      * Create Jira defect when test fails
      */
     public String createDefect(ITestResult testResult, String screenshotPath) {
+        return createDefect(DefectReport.from(testResult, "test-failure", screenshotPath));
+    }
 
-        if (!autoCreateDefect) return null;
-        if (baseUrl.isEmpty() || apiToken.isEmpty()) return null;
+    /**
+     * Create Jira defect from a failure captured earlier, e.g. by {@link DefectQueue}
+     */
+    public String createDefect(DefectReport report) {
+        return fileDefects(List.of(report)).get(0);
+    }
+
+    /**
+     * File a batch of failures, one issue per {@link FailureFingerprint}.
+     *
+     * - fingerprints already filed in this run reuse the remembered issue
+     * - the others are looked up among open issues with one JQL search per batch
+     * - fingerprints still unknown get a new issue, created with the bulk endpoint
+     * - every further failure with a known fingerprint becomes one occurrence comment per issue
+     *
+     * @return issue key per report, in input order (null where filing failed or was skipped)
+     */
+    public List<String> fileDefects(List<DefectReport> reports) {
+        List<String> keys = new ArrayList<>(Collections.nCopies(reports.size(), (String) null));
+        if (!isEnabled() || reports.isEmpty()) return keys;
 
         try {
-            String summary = String.format("Test Failure - %s",
-                    testResult.getMethod().getMethodName());
+            // ========== GROUP BY FINGERPRINT ==========
+            Map<String, List<DefectReport>> groups = new LinkedHashMap<>();
+            Map<DefectReport, String> fingerprints = new IdentityHashMap<>();
+            for (DefectReport report : reports) {
+                String fingerprint = FailureFingerprint.of(report);
+                fingerprints.put(report, fingerprint);
+                groups.computeIfAbsent(fingerprint, k -> new ArrayList<>()).add(report);
+            }
+
+            List<String> unknown = new ArrayList<>();
+            for (String fingerprint : groups.keySet()) {
+                if (!issuesByFingerprint.containsKey(fingerprint)) unknown.add(fingerprint);
+            }
+            issuesByFingerprint.putAll(findOpenIssues(unknown));
+
+            List<String> toCreate = new ArrayList<>();
+            for (String fingerprint : unknown) {
+                if (!issuesByFingerprint.containsKey(fingerprint)) toCreate.add(fingerprint);
+            }
+            Map<String, String> created = createIssues(toCreate, groups);
+            issuesByFingerprint.putAll(created);
+
+            // ========== ATTACHMENTS AND OCCURRENCES ==========
+            for (Map.Entry<String, List<DefectReport>> group : groups.entrySet()) {
+                String issueKey = issuesByFingerprint.get(group.getKey());
+                if (issueKey == null) continue;
+
+                List<DefectReport> occurrences = group.getValue();
+                if (created.containsKey(group.getKey())) {
+                    DefectReport first = occurrences.get(0);
+                    if (first.getScreenshotPath() != null) {
+                        attachFileToJira(issueKey, first.getScreenshotPath());
+                    }
+                    for (String artifactPath : first.getArtifactPaths()) {
+                        attachFileToJira(issueKey, artifactPath);
+                    }
+                    addAllureLinkToJira(issueKey);
+                    occurrences = occurrences.subList(1, occurrences.size());
+                }
+                if (!occurrences.isEmpty()) {
+                    addOccurrencesToJira(issueKey, group.getKey(), occurrences);
+                }
+            }
+
+            for (int i = 0; i < reports.size(); i++) {
+                keys.set(i, issuesByFingerprint.get(fingerprints.get(reports.get(i))));
+            }
+            return keys;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while filing Jira defects");
+            return keys;
+        } catch (Exception e) {
+            logger.error("Error while filing Jira defects", e);
+            return keys;
+        }
+    }
+
+    // =========================================================
+    // ===================== FIND OPEN ISSUES ==================
+    // =========================================================
+    private Map<String, String> findOpenIssues(List<String> fingerprints) throws IOException, InterruptedException {
+        Map<String, String> found = new HashMap<>();
+        for (int from = 0; from < fingerprints.size(); from += BULK_LIMIT) {
+            List<String> chunk = fingerprints.subList(from, Math.min(fingerprints.size(), from + BULK_LIMIT));
+            StringBuilder labels = new StringBuilder();
+            for (String fingerprint : chunk) {
+                if (labels.length() > 0) labels.append(", ");
+                labels.append('"').append(FailureFingerprint.label(fingerprint)).append('"');
+            }
+            String jql = String.format("project = \"%s\" AND labels in (%s) AND statusCategory != Done ORDER BY created ASC",
+                    jiraProjectKey, labels);
 
-            StringBuilder rawDesc = new StringBuilder();
-            rawDesc.append("Test Failure Details\n\n");
-            rawDesc.append("Test Class: ").append(testResult.getTestClass().getName()).append("\n");
-            rawDesc.append("Test Method: ").append(testResult.getMethod().getMethodName()).append("\n");
-            rawDesc.append("Execution Time: ")
-                    .append(LocalDateTime.now().format(DATE_FORMATTER)).append("\n\n");
+            JiraHttpClient.Response response = http.postJson("/rest/api/3/search/jql",
+                    Map.of("jql", jql, "fields", List.of("labels"), "maxResults", 100));
 
-            if (testResult.getThrowable() != null) {
-                rawDesc.append("Error Message:\n")
-                        .append(testResult.getThrowable().getMessage()).append("\n\n");
-                rawDesc.append("Stack Trace:\n")
-                        .append(getStackTrace(testResult.getThrowable()));
+            if (response.statusCode() != 200) {
+                // Without the lookup a duplicate issue may be created, which is better than none
+                logger.warn("Jira duplicate lookup failed. Status: {}", response.statusCode());
+                continue;
             }
 
-            // ========== BUILD PAYLOAD ==========
-            Map<String, Object> fields = new HashMap<>();
-            fields.put("project", Map.of("key", jiraProjectKey));
-            fields.put("summary", summary);
-            fields.put("issuetype",
-                    Map.of("name",
-                            config.getProperty("atlassian.jira.issue.type", "Bug")));
+            for (JsonNode issue : response.json().path("issues")) {
+                for (JsonNode label : issue.path("fields").path("labels")) {
+                    String text = label.asText();
+                    if (text.startsWith(FailureFingerprint.LABEL_PREFIX)) {
+                        // Oldest issue wins when several are open for the same fingerprint
+                        found.putIfAbsent(text.substring(FailureFingerprint.LABEL_PREFIX.length()),
+                                issue.path("key").asText());
+                    }
+                }
+            }
+        }
+        if (!found.isEmpty()) {
+            logger.info("🔎 Found open Jira issues for {} failure fingerprint(s)", found.size());
+        }
+        return found;
+    }
 
-            // ⚠️ Jira Cloud requires ADF format for description
-            fields.put("description", buildAdf(rawDesc.toString()));
+    // =========================================================
+    // ===================== BULK CREATE =======================
+    // =========================================================
+    private Map<String, String> createIssues(List<String> fingerprints, Map<String, List<DefectReport>> groups)
+            throws IOException, InterruptedException {
+        Map<String, String> created = new HashMap<>();
+        for (int from = 0; from < fingerprints.size(); from += BULK_LIMIT) {
+            List<String> chunk = fingerprints.subList(from, Math.min(fingerprints.size(), from + BULK_LIMIT));
+            List<Map<String, Object>> issueUpdates = new ArrayList<>();
+            for (String fingerprint : chunk) {
+                issueUpdates.add(Map.of("fields", buildFields(groups.get(fingerprint).get(0), fingerprint)));
+            }
 
-            Map<String, Object> payload = Map.of("fields", fields);
+            JiraHttpClient.Response response = http.postJson("/rest/api/3/issue/bulk",
+                    Map.of("issueUpdates", issueUpdates));
 
-            // ========== CALL API ==========
-            Response response = RestAssured.given()
-                    .baseUri(baseUrl)
-                    .auth().preemptive().basic(apiEmail, apiToken)
-                    .contentType(ContentType.JSON)
-                    .body(payload)
-                    .post("/rest/api/3/issue");
+            // 201: all created; 400: some or all elements failed, reported per element
+            if (response.statusCode() != 201 && response.statusCode() != 400) {
+                logger.error("❌ Bulk create Jira issues failed. Status: {}", response.statusCode());
+                logger.error("Response: {}", response.body());
+                continue;
+            }
 
-            if (response.statusCode() != 201) {
-                logger.error("❌ Create Jira issue failed. Status: {}", response.statusCode());
-                logger.error("Response: {}", response.asString());
-                return null;
+            JsonNode json = response.json();
+            List<Integer> failed = new ArrayList<>();
+            for (JsonNode error : json.path("errors")) {
+                failed.add(error.path("failedElementNumber").asInt());
+            }
+            int[] createdElements = createdElements(chunk.size(), failed);
+            JsonNode issues = json.path("issues");
+            for (int i = 0; i < issues.size() && i < createdElements.length; i++) {
+                String fingerprint = chunk.get(createdElements[i]);
+                String issueKey = issues.get(i).path("key").asText();
+                created.put(fingerprint, issueKey);
+                logger.info("✅ Jira defect created: {} ({})", issueKey, groups.get(fingerprint).get(0));
+            }
+            if (!failed.isEmpty()) {
+                logger.error("❌ {} Jira issue(s) rejected by bulk create. Response: {}", failed.size(), response.body());
             }
+        }
+        return created;
+    }
 
-            String issueKey = response.jsonPath().getString("key");
-            logger.info("✅ Jira defect created: {}", issueKey);
+    /**
+     * Jira lists created issues in request order, leaving out the elements named in errors.
+     *
+     * @return request positions of the created issues, in response order
+     */
+    static int[] createdElements(int requested, List<Integer> failedElements) {
+        int[] positions = new int[requested];
+        int count = 0;
+        for (int i = 0; i < requested; i++) {
+            if (!failedElements.contains(i)) positions[count++] = i;
+        }
+        return Arrays.copyOf(positions, count);
+    }
+
+    private Map<String, Object> buildFields(DefectReport report, String fingerprint) {
+        String summary = String.format("Test Failure - %s",
+                report.getTestMethod());
+
+        StringBuilder rawDesc = new StringBuilder();
+        rawDesc.append("Test Failure Details\n\n");
+        rawDesc.append("Test Class: ").append(report.getTestClass()).append("\n");
+        rawDesc.append("Test Method: ").append(report.getTestMethod()).append("\n");
+        rawDesc.append("Execution Time: ")
+                .append(report.getFailedAt().format(DATE_FORMATTER)).append("\n");
+        rawDesc.append("Failure Fingerprint: ").append(fingerprint).append("\n\n");
+
+        if (report.getThrowable() != null) {
+            rawDesc.append("Error Message:\n")
+                    .append(report.getThrowable().getMessage()).append("\n\n");
+            rawDesc.append("Stack Trace:\n")
+                    .append(getStackTrace(report.getThrowable()));
+        }
 
-            // Attach screenshot if exists
-            if (screenshotPath != null && new File(screenshotPath).exists()) {
-                attachFileToJira(issueKey, screenshotPath);
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("project", Map.of("key", jiraProjectKey));
+        fields.put("summary", summary);
+        fields.put("issuetype",
+                Map.of("name",
+                        config.getProperty("atlassian.jira.issue.type", "Bug")));
+        fields.put("labels", List.of(FailureFingerprint.label(fingerprint)));
+
+        // ⚠️ Jira Cloud requires ADF format for description
+        fields.put("description", buildAdf(rawDesc.toString()));
+        return fields;
+    }
+
+    // =========================================================
+    // ===================== OCCURRENCES =======================
+    // =========================================================
+    private void addOccurrencesToJira(String issueKey, String fingerprint, List<DefectReport> occurrences) {
+        try {
+            StringBuilder text = new StringBuilder();
+            text.append("🔁 Failed again ").append(occurrences.size())
+                    .append(" time(s) (fingerprint ").append(fingerprint).append("):\n");
+            for (DefectReport occurrence : occurrences) {
+                text.append("- ").append(occurrence.getFailedAt().format(DATE_FORMATTER))
+                        .append(' ').append(occurrence);
+                if (occurrence.getThrowable() != null) {
+                    text.append(": ").append(occurrence.getThrowable().getMessage());
+                }
+                text.append("\n");
             }
 
-            // Add Allure link as comment
-            addAllureLinkToJira(issueKey);
+            JiraHttpClient.Response response = http.postJson("/rest/api/3/issue/" + issueKey + "/comment",
+                    Map.of("body", buildAdf(text.toString())));
 
-            return issueKey;
+            if (response.statusCode() == 201) {
+                logger.info("🔁 {} duplicate failure(s) recorded on {}", occurrences.size(), issueKey);
+            } else {
+                logger.warn("Add occurrence comment failed. Status: {}", response.statusCode());
+            }
 
         } catch (Exception e) {
-            logger.error("Error while creating Jira defect", e);
-            return null;
+            logger.warn("Failed to record duplicate failures (non-blocking)", e);
         }
     }
 
@@ -119,23 +322,28 @@ public class AtlassianService {
     // =========================================================
     private void attachFileToJira(String issueKey, String filePath) {
         try {
-            File file = new File(filePath);
+            Path file = Paths.get(filePath);
+            // Screenshots are written in the background and may still be queued
+            ArtifactWriter.getInstance().await(file.toAbsolutePath(), ATTACHMENT_WAIT);
+            if (!Files.isRegularFile(file)) {
+                logger.warn("Attachment not found, skipping: {}", filePath);
+                return;
+            }
 
-            Response response = RestAssured.given()
-                    .baseUri(baseUrl)
-                    .auth().preemptive().basic(apiEmail, apiToken)
-                    .header("X-Atlassian-Token", "no-check")
-                    .multiPart("file", file)
-                    .post("/rest/api/3/issue/" + issueKey + "/attachments");
+            // Streamed from disk, so recordings and logcat dumps do not have to fit in memory
+            MultipartFile part = MultipartFile.of("file", file,
+                    config.getIntProperty("atlassian.attachment.gzip.min.bytes", 1048576));
+            JiraHttpClient.Response response = http.postMultipart(
+                    "/rest/api/3/issue/" + issueKey + "/attachments", part);
 
             if (response.statusCode() == 200 || response.statusCode() == 201) {
-                logger.info("📎 Screenshot attached to {}", issueKey);
+                logger.info("📎 {} attached to {}", part.fileName(), issueKey);
             } else {
                 logger.warn("Attach failed. Status: {}", response.statusCode());
             }
 
         } catch (Exception e) {
-            logger.warn("Attach screenshot failed (non-blocking)", e);
+            logger.warn("Attach file failed (non-blocking)", e);
         }
     }
 
@@ -168,12 +376,7 @@ public class AtlassianService {
                     "body", buildAdf(commentText)
             );
 
-            Response response = RestAssured.given()
-                    .baseUri(baseUrl)
-                    .auth().preemptive().basic(apiEmail, apiToken)
-                    .contentType(ContentType.JSON)
-                    .body(payload)
-                    .post("/rest/api/3/issue/" + issueKey + "/comment");
+            JiraHttpClient.Response response = http.postJson("/rest/api/3/issue/" + issueKey + "/comment", payload);
 
             if (response.statusCode() == 201) {
                 logger.info("💬 Allure link added to {}", issueKey);
@@ -0,0 +1,152 @@
+package com.automation.services;
+
+import com.automation.core.ConfigManager;
+import com.automation.utils.LoggerUtil;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Files Jira defects in the background so a failed test releases its thread (and device) at once.
+ *
+ * Reports are queued on a bounded queue (atlassian.defect.queue.capacity) and filed by a
+ * dedicated daemon thread in batches of up to atlassian.defect.batch.size. The thread waits
+ * atlassian.defect.batch.linger.ms after the first report so a burst of failures (e.g. all
+ * invocations of a parameterized test) lands in one batch and is deduplicated and bulk created
+ * together by {@link AtlassianService#fileDefects(List)}. When the queue is full the report is
+ * dropped with a warning rather than blocking the test. {@link #drain(Duration)} waits for queued
+ * reports at the end of a run.
+ *
+ * Usage:
+ * <pre>
+ * DefectQueue.getInstance().submit(DefectReport.from(result, "test-failure", screenshotPath));
+ * ...
+ * DefectQueue.getInstance().drain(Duration.ofSeconds(60));
+ * </pre>
+ */
+public final class DefectQueue {
+    private static final Logger logger = LoggerUtil.getLogger(DefectQueue.class);
+    private static DefectQueue instance;
+
+    private final Consumer<List<DefectReport>> filer;
+    private final ArrayBlockingQueue<DefectReport> backlog;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final ExecutorService executor;
+    private final Object monitor = new Object();
+    private int pending;
+    private boolean flushing;
+
+    DefectQueue(Consumer<List<DefectReport>> filer, int capacity, int batchSize, long lingerMillis) {
+        this.filer = filer;
+        this.backlog = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        // One filer at a time, so two batches never race to create the same fingerprint
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jira-defect");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized DefectQueue getInstance() {
+        if (instance == null) {
+            ConfigManager config = ConfigManager.getInstance();
+            AtlassianService atlassianService = new AtlassianService();
+            instance = new DefectQueue(atlassianService::fileDefects,
+                Math.max(1, config.getIntProperty("atlassian.defect.queue.capacity", 200)),
+                Math.max(1, Math.min(50, config.getIntProperty("atlassian.defect.batch.size", 50))),
+                Math.max(0, config.getIntProperty("atlassian.defect.batch.linger.ms", 1000)));
+        }
+        return instance;
+    }
+
+    /**
+     * Queues a report for filing and returns immediately.
+     *
+     * @return false if the queue was full and the report was dropped
+     */
+    public boolean submit(DefectReport report) {
+        synchronized (monitor) {
+            if (!backlog.offer(report)) {
+                logger.warn("⚠️ Jira defect queue full, dropping defect for {}", report);
+                return false;
+            }
+            pending++;
+            if (!flushing) {
+                flushing = true;
+                executor.execute(this::flush);
+            }
+        }
+        logger.debug("Queued Jira defect for {}", report);
+        return true;
+    }
+
+    /**
+     * Waits until all queued reports are filed or the timeout expires. Reports still in flight
+     * at the deadline keep running on the daemon thread but are not waited for.
+     *
+     * @return number of reports not yet filed
+     */
+    public int drain(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (monitor) {
+            while (pending > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                TimeUnit.NANOSECONDS.timedWait(monitor, remaining);
+            }
+            return pending;
+        }
+    }
+
+    /**
+     * @return number of reports queued or being filed
+     */
+    public int pending() {
+        synchronized (monitor) {
+            return pending;
+        }
+    }
+
+    private void flush() {
+        if (lingerMillis > 0) {
+            try {
+                Thread.sleep(lingerMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        while (true) {
+            List<DefectReport> batch = new ArrayList<>(batchSize);
+            synchronized (monitor) {
+                backlog.drainTo(batch, batchSize);
+                if (batch.isEmpty()) {
+                    flushing = false;
+                    return;
+                }
+            }
+            try {
+                logger.debug("Filing {} Jira defect(s)", batch.size());
+                filer.accept(batch);
+            } catch (RuntimeException e) {
+                logger.error("❌ Failed to file " + batch.size() + " Jira defect(s)", e);
+            } finally {
+                synchronized (monitor) {
+                    pending -= batch.size();
+                    monitor.notifyAll();
+                }
+            }
+        }
+    }
+}
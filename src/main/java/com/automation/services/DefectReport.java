@@ -0,0 +1,102 @@
+package com.automation.services;
+
+import org.testng.ITestResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable copy of what a Jira defect needs from a failed test.
+ *
+ * Taken on the TestNG thread at failure time, so the defect can be filed later from another
+ * thread without touching the {@link ITestResult}, which TestNG keeps mutating.
+ */
+public final class DefectReport {
+    private final String testClass;
+    private final String testMethod;
+    private final String failureType;
+    private final Throwable throwable;
+    private final String screenshotPath;
+    private final LocalDateTime failedAt;
+    private final List<String> artifactPaths;
+
+    public DefectReport(String testClass, String testMethod, String failureType, Throwable throwable,
+                        String screenshotPath, LocalDateTime failedAt) {
+        this(testClass, testMethod, failureType, throwable, screenshotPath, failedAt, List.of());
+    }
+
+    private DefectReport(String testClass, String testMethod, String failureType, Throwable throwable,
+                         String screenshotPath, LocalDateTime failedAt, List<String> artifactPaths) {
+        this.testClass = testClass;
+        this.testMethod = testMethod;
+        this.failureType = failureType;
+        this.throwable = throwable;
+        this.screenshotPath = screenshotPath;
+        this.failedAt = failedAt;
+        this.artifactPaths = artifactPaths;
+    }
+
+    public static DefectReport from(ITestResult result, String failureType, String screenshotPath) {
+        return new DefectReport(
+            result.getTestClass() != null ? result.getTestClass().getName() : "UnknownClass",
+            result.getMethod() != null ? result.getMethod().getMethodName() : "unknown",
+            failureType,
+            result.getThrowable(),
+            screenshotPath,
+            LocalDateTime.now());
+    }
+
+    public String getTestClass() {
+        return testClass;
+    }
+
+    public String getTestMethod() {
+        return testMethod;
+    }
+
+    public String getFailureType() {
+        return failureType;
+    }
+
+    /**
+     * @return the failure cause, or null if TestNG recorded none
+     */
+    public Throwable getThrowable() {
+        return throwable;
+    }
+
+    /**
+     * @return absolute path of the failure screenshot, or null if none was captured
+     */
+    public String getScreenshotPath() {
+        return screenshotPath;
+    }
+
+    public LocalDateTime getFailedAt() {
+        return failedAt;
+    }
+
+    /**
+     * @return further files to attach besides the screenshot (recordings, logcat dumps, ...)
+     */
+    public List<String> getArtifactPaths() {
+        return artifactPaths;
+    }
+
+    /**
+     * @return a copy of this report that also attaches the given file
+     */
+    public DefectReport withArtifact(String path) {
+        List<String> paths = new ArrayList<>(artifactPaths);
+        paths.add(path);
+        return new DefectReport(testClass, testMethod, failureType, throwable, screenshotPath, failedAt,
+            Collections.unmodifiableList(paths));
+    }
+
+    @Override
+    public String toString() {
+        return failureType + " " + testClass + "." + testMethod;
+    }
+}
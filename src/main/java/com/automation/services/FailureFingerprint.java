@@ -0,0 +1,101 @@
+package com.automation.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Pattern;
+
+/**
+ * Stable identity of a failure, used to file one Jira issue per distinct problem.
+ *
+ * The fingerprint hashes the test method, the exception type (and root cause type) and the top
+ * stack frames of the failure, normalized so it survives re-runs: line numbers are left out,
+ * generated lambda and anonymous class suffixes are stripped, and JDK/TestNG frames are
+ * skipped. Exception messages are not hashed, since they carry timestamps, ids and coordinates
+ * that differ on every run. Parameterized invocations of the same method that fail the same
+ * way therefore share a fingerprint.
+ *
+ * The fingerprint is stored on the issue as the label {@link #label(String)}, so open issues
+ * can be found again with JQL in later runs.
+ */
+public final class FailureFingerprint {
+    public static final String LABEL_PREFIX = "failure-fp-";
+    static final int TOP_FRAMES = 5;
+
+    private static final Pattern LAMBDA = Pattern.compile("\\$\\$Lambda\\$?[0-9]*(/0x[0-9a-f]+)?");
+    private static final Pattern ANONYMOUS = Pattern.compile("\\$[0-9]+");
+    private static final String[] SKIPPED_PACKAGES = {"java.", "javax.", "jdk.", "sun.", "org.testng."};
+
+    private FailureFingerprint() {
+    }
+
+    /**
+     * @return 16 hex characters identifying the failure
+     */
+    public static String of(DefectReport report) {
+        return hash(canonical(report.getTestClass(), report.getTestMethod(), report.getThrowable()));
+    }
+
+    /**
+     * @return the Jira label carrying the fingerprint
+     */
+    public static String label(String fingerprint) {
+        return LABEL_PREFIX + fingerprint;
+    }
+
+    /**
+     * The normalized text that is hashed, one element per line.
+     */
+    static String canonical(String testClass, String testMethod, Throwable throwable) {
+        StringBuilder text = new StringBuilder(testClass).append('#').append(testMethod).append('\n');
+        if (throwable == null) {
+            return text.append("no-throwable").toString();
+        }
+        Throwable root = throwable;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        text.append(normalize(throwable.getClass().getName())).append('\n');
+        if (root != throwable) {
+            text.append("caused by ").append(normalize(root.getClass().getName())).append('\n');
+        }
+        int frames = 0;
+        for (StackTraceElement frame : throwable.getStackTrace()) {
+            if (frames == TOP_FRAMES) {
+                break;
+            }
+            if (isSkipped(frame.getClassName())) {
+                continue;
+            }
+            text.append(normalize(frame.getClassName())).append('.').append(frame.getMethodName()).append('\n');
+            frames++;
+        }
+        return text.toString();
+    }
+
+    private static String normalize(String className) {
+        return ANONYMOUS.matcher(LAMBDA.matcher(className).replaceAll("\\$\\$Lambda")).replaceAll("\\$");
+    }
+
+    private static boolean isSkipped(String className) {
+        for (String prefix : SKIPPED_PACKAGES) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String hash(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(16);
+            for (int i = 0; i < 8; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.automation.services;
+
+import com.automation.core.ConfigManager;
+import com.automation.utils.LoggerUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Shared HTTP client for the Jira REST API.
+ *
+ * One {@link HttpClient} is kept for the whole run, so connections are pooled and kept alive
+ * across calls, and HTTP/2 is used when the server negotiates it (falling back to HTTP/1.1).
+ * Every request carries the same preemptive basic auth header, a connect timeout
+ * (atlassian.http.connect.timeout.ms) and a response timeout (atlassian.http.read.timeout.ms).
+ *
+ * Rate limiting (429) and 503 responses are retried up to atlassian.http.retry.max times,
+ * waiting for the server's Retry-After (seconds or HTTP date) or, without one, an exponential
+ * backoff starting at atlassian.http.retry.backoff.ms; no wait exceeds
+ * atlassian.http.retry.max.delay.ms. Refused connections are retried the same way, since the
+ * request never reached the server. Other errors are returned to the caller unchanged.
+ */
+public final class JiraHttpClient {
+    private static final Logger logger = LoggerUtil.getLogger(JiraHttpClient.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static JiraHttpClient shared;
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String authorization;
+    private final Duration readTimeout;
+    private final Duration uploadTimeout;
+    private final int maxRetries;
+    private final long backoffMillis;
+    private final long maxDelayMillis;
+
+    JiraHttpClient(String baseUrl, String email, String apiToken, Duration connectTimeout, Duration readTimeout,
+                   Duration uploadTimeout, int maxRetries, long backoffMillis, long maxDelayMillis) {
+        this.client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(connectTimeout)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+        this.baseUrl = trimSlash(baseUrl);
+        this.authorization = basicAuth(email, apiToken);
+        this.readTimeout = readTimeout;
+        this.uploadTimeout = uploadTimeout;
+        this.maxRetries = maxRetries;
+        this.backoffMillis = backoffMillis;
+        this.maxDelayMillis = maxDelayMillis;
+    }
+
+    /**
+     * Returns the run-wide client for the given Jira site, with timeouts and retry settings from
+     * the config. Callers with the same site and credentials share one client and its connections.
+     */
+    public static synchronized JiraHttpClient shared(String baseUrl, String email, String apiToken) {
+        if (shared == null || !shared.isFor(baseUrl, email, apiToken)) {
+            shared = create(baseUrl, email, apiToken);
+        }
+        return shared;
+    }
+
+    private static JiraHttpClient create(String baseUrl, String email, String apiToken) {
+        ConfigManager config = ConfigManager.getInstance();
+        return new JiraHttpClient(baseUrl, email, apiToken,
+            Duration.ofMillis(config.getIntProperty("atlassian.http.connect.timeout.ms", 10000)),
+            Duration.ofMillis(config.getIntProperty("atlassian.http.read.timeout.ms", 30000)),
+            Duration.ofMillis(config.getIntProperty("atlassian.http.upload.timeout.ms", 600000)),
+            Math.max(0, config.getIntProperty("atlassian.http.retry.max", 3)),
+            Math.max(1, config.getIntProperty("atlassian.http.retry.backoff.ms", 1000)),
+            Math.max(1, config.getIntProperty("atlassian.http.retry.max.delay.ms", 30000)));
+    }
+
+    /**
+     * POSTs {@code body} serialized as JSON.
+     */
+    public Response postJson(String path, Object body) throws IOException, InterruptedException {
+        String json;
+        try {
+            json = MAPPER.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize Jira request body", e);
+        }
+        return send(request(path)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * POSTs a file as streamed multipart/form-data, as the Jira attachment endpoint expects.
+     * The response timeout is atlassian.http.upload.timeout.ms, since it includes the upload.
+     */
+    public Response postMultipart(String path, MultipartFile part) throws IOException, InterruptedException {
+        return send(request(path)
+            .timeout(uploadTimeout)
+            .header("Content-Type", part.contentType())
+            .header("X-Atlassian-Token", "no-check")
+            .POST(part.publisher()));
+    }
+
+    /**
+     * Starts a request to {@code path} with auth, JSON accept header and the read timeout set.
+     */
+    public HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(readTimeout)
+            .header("Authorization", authorization)
+            .header("Accept", "application/json");
+    }
+
+    /**
+     * Sends the request, retrying rate-limited, unavailable and refused attempts.
+     * The request body must be re-readable: JDK body publishers are, and ofInputStream
+     * (used by {@link MultipartFile}) opens a new stream per attempt.
+     */
+    public Response send(HttpRequest.Builder builder) throws IOException, InterruptedException {
+        HttpRequest request = builder.build();
+        for (int attempt = 0; ; attempt++) {
+            HttpResponse<String> response;
+            try {
+                response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            } catch (ConnectException e) {
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+                long delay = backoff(attempt);
+                logger.warn("Jira connection refused for {} {}, retrying in {} ms", request.method(), request.uri().getPath(), delay);
+                Thread.sleep(delay);
+                continue;
+            }
+
+            int status = response.statusCode();
+            if ((status == 429 || status == 503) && attempt < maxRetries) {
+                long delay = retryDelay(response.headers().firstValue("Retry-After"), attempt);
+                logger.warn("Jira returned {} for {} {}, retrying in {} ms", status, request.method(), request.uri().getPath(), delay);
+                Thread.sleep(delay);
+                continue;
+            }
+            return new Response(status, response.body());
+        }
+    }
+
+    private boolean isFor(String baseUrl, String email, String apiToken) {
+        return this.baseUrl.equals(trimSlash(baseUrl)) && authorization.equals(basicAuth(email, apiToken));
+    }
+
+    private static String trimSlash(String baseUrl) {
+        return baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
+
+    private static String basicAuth(String email, String apiToken) {
+        return "Basic " + Base64.getEncoder().encodeToString((email + ":" + apiToken).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the server's Retry-After in ms if present and parseable, else the backoff; capped
+     */
+    long retryDelay(Optional<String> retryAfter, int attempt) {
+        if (retryAfter.isPresent()) {
+            String value = retryAfter.get().trim();
+            try {
+                return Math.min(maxDelayMillis, Math.max(0, Long.parseLong(value) * 1000));
+            } catch (NumberFormatException e) {
+                try {
+                    long millis = Duration.between(ZonedDateTime.now(),
+                        ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME)).toMillis();
+                    return Math.min(maxDelayMillis, Math.max(0, millis));
+                } catch (DateTimeParseException ignored) {
+                    logger.debug("Ignoring unparseable Retry-After: {}", value);
+                }
+            }
+        }
+        return backoff(attempt);
+    }
+
+    private long backoff(int attempt) {
+        return Math.min(maxDelayMillis, backoffMillis << Math.min(attempt, 20));
+    }
+
+    /**
+     * Status and body of a Jira response.
+     */
+    public static final class Response {
+        private final int statusCode;
+        private final String body;
+
+        Response(int statusCode, String body) {
+            this.statusCode = statusCode;
+            this.body = body;
+        }
+
+        public int statusCode() {
+            return statusCode;
+        }
+
+        public String body() {
+            return body;
+        }
+
+        /**
+         * @return the body parsed as JSON, or a missing node if it is empty or not JSON
+         */
+        public JsonNode json() {
+            try {
+                JsonNode node = body == null || body.isEmpty() ? null : MAPPER.readTree(body);
+                return node != null ? node : MAPPER.missingNode();
+            } catch (JsonProcessingException e) {
+                return MAPPER.missingNode();
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.automation.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.net.http.HttpRequest;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A single file as a streamed multipart/form-data body.
+ *
+ * The body is the part header, the file read through a {@link FileChannel} and the closing
+ * boundary, chained as streams and sent with chunked transfer, so the file is never held in
+ * memory and the upload starts before the whole file has been read. With gzip on, the file is
+ * compressed on the fly in 64 KB steps and sent as {@code <name>.gz}.
+ *
+ * {@link #publisher()} opens a new stream for every send, so a retried request re-reads the
+ * file from the start.
+ */
+public final class MultipartFile {
+    private static final int CHUNK = 64 * 1024;
+    private static final List<String> COMPRESSED_EXTENSIONS =
+        List.of(".png", ".jpg", ".jpeg", ".webp", ".mp4", ".webm", ".gz", ".zip");
+
+    private final String fieldName;
+    private final Path file;
+    private final boolean gzip;
+    private final String boundary = "----jira-" + UUID.randomUUID();
+
+    private MultipartFile(String fieldName, Path file, boolean gzip) {
+        this.fieldName = fieldName;
+        this.file = file;
+        this.gzip = gzip;
+    }
+
+    /**
+     * @param gzip compress the file while sending it
+     */
+    public static MultipartFile of(String fieldName, Path file, boolean gzip) {
+        return new MultipartFile(fieldName, file, gzip);
+    }
+
+    /**
+     * Compresses files of at least {@code minGzipBytes} unless their format is already compressed
+     * (images, videos, archives); a negative threshold disables compression.
+     */
+    public static MultipartFile of(String fieldName, Path file, long minGzipBytes) throws IOException {
+        return new MultipartFile(fieldName, file, shouldCompress(file, minGzipBytes));
+    }
+
+    static boolean shouldCompress(Path file, long minGzipBytes) throws IOException {
+        if (minGzipBytes < 0) {
+            return false;
+        }
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (String extension : COMPRESSED_EXTENSIONS) {
+            if (name.endsWith(extension)) {
+                return false;
+            }
+        }
+        return Files.size(file) >= minGzipBytes;
+    }
+
+    public boolean isCompressed() {
+        return gzip;
+    }
+
+    /**
+     * @return the file name sent to the server, with .gz appended when compressed
+     */
+    public String fileName() {
+        return file.getFileName() + (gzip ? ".gz" : "");
+    }
+
+    public String contentType() {
+        return "multipart/form-data; boundary=" + boundary;
+    }
+
+    public HttpRequest.BodyPublisher publisher() {
+        return HttpRequest.BodyPublishers.ofInputStream(() -> {
+            try {
+                return open();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read attachment " + file, e);
+            }
+        });
+    }
+
+    /**
+     * Opens the whole multipart body as one stream.
+     */
+    InputStream open() throws IOException {
+        String partType = gzip ? "application/gzip" : Files.probeContentType(file);
+        String head = "--" + boundary + "\r\n"
+            + "Content-Disposition: form-data; name=\"" + fieldName + "\"; filename=\"" + fileName() + "\"\r\n"
+            + "Content-Type: " + (partType != null ? partType : "application/octet-stream") + "\r\n\r\n";
+        String tail = "\r\n--" + boundary + "--\r\n";
+
+        InputStream content = Channels.newInputStream(FileChannel.open(file, StandardOpenOption.READ));
+        if (gzip) {
+            content = new GzipStream(content);
+        }
+        return new SequenceInputStream(Collections.enumeration(List.of(
+            new ByteArrayInputStream(head.getBytes(StandardCharsets.UTF_8)),
+            content,
+            new ByteArrayInputStream(tail.getBytes(StandardCharsets.UTF_8)))));
+    }
+
+    /**
+     * Reads a source stream as gzip, compressing one chunk at a time.
+     */
+    static final class GzipStream extends InputStream {
+        private final InputStream source;
+        private final ByteArrayOutputStream compressed = new ByteArrayOutputStream(CHUNK);
+        private final GZIPOutputStream gzip;
+        private final byte[] chunk = new byte[CHUNK];
+        private byte[] pending;
+        private int position;
+        private boolean finished;
+
+        GzipStream(InputStream source) throws IOException {
+            this.source = source;
+            this.gzip = new GZIPOutputStream(compressed, CHUNK);
+            // The constructor already wrote the gzip header
+            this.pending = compressed.toByteArray();
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (position == pending.length) {
+                if (finished) {
+                    return -1;
+                }
+                refill();
+            }
+            int count = Math.min(length, pending.length - position);
+            System.arraycopy(pending, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+
+        private void refill() throws IOException {
+            compressed.reset();
+            int read = source.read(chunk);
+            if (read < 0) {
+                gzip.finish();
+                finished = true;
+            } else {
+                gzip.write(chunk, 0, read);
+            }
+            pending = compressed.toByteArray();
+            position = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                source.close();
+            } finally {
+                // Releases the native deflater; output still buffered is discarded with this stream
+                gzip.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.automation.utils;
+
+import com.automation.core.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * ADB client speaking the adb server's wire protocol over its socket (adb.server.host:adb.server.port,
+ * 5037 by default) instead of forking an adb process per command.
+ *
+ * Every request is a 4-digit hex length followed by the request ("000chost:version"); the server
+ * answers OKAY or FAIL plus a length-prefixed message. Device services first switch the socket to
+ * a device with host:transport:&lt;serial&gt;, after which the socket belongs to that one service,
+ * so a connection serves a single command. Files are pushed with the sync protocol in 64 KB DATA
+ * chunks read straight from disk, and several files share one sync connection. Shell commands use
+ * the shell v2 protocol when the device supports it, which separates stdout/stderr and reports the
+ * exit code; older devices fall back to the raw shell, where the exit code is not known.
+ *
+ * If the server is not running it is started once with {@code adb start-server}.
+ */
+public final class AdbClient {
+    private static final Logger logger = LoggerFactory.getLogger(AdbClient.class);
+    private static final int SYNC_CHUNK = 64 * 1024;
+    private static final int FILE_MODE = 0100644;
+    private static final int SHELL_STDOUT = 1;
+    private static final int SHELL_STDERR = 2;
+    private static final int SHELL_EXIT = 3;
+    private static final int SHELL_CLOSE_STDIN = 4;
+    private static AdbClient instance;
+
+    private final String host;
+    private final int port;
+    private final Duration timeout;
+    private final String adbPath;
+    private final Map<String, Boolean> shellV2 = new ConcurrentHashMap<>();
+    private volatile boolean serverStartAttempted;
+
+    AdbClient(String host, int port, Duration timeout, String adbPath) {
+        this.host = host;
+        this.port = port;
+        this.timeout = timeout;
+        this.adbPath = adbPath;
+    }
+
+    public static synchronized AdbClient getInstance() {
+        if (instance == null) {
+            ConfigManager config = ConfigManager.getInstance();
+            instance = new AdbClient(
+                config.getProperty("adb.server.host", "127.0.0.1"),
+                config.getIntProperty("adb.server.port", 5037),
+                Duration.ofMillis(config.getIntProperty("adb.command.timeout.ms", 60000)),
+                config.getProperty("adb.path", "adb"));
+        }
+        return instance;
+    }
+
+    /**
+     * @return protocol version of the adb server
+     */
+    public int version() {
+        try (Socket socket = connect(timeout)) {
+            return Integer.parseInt(query(socket, "host:version"), 16);
+        } catch (IOException e) {
+            throw new RuntimeException("adb host:version failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return serials of attached devices that are online ("device" state)
+     */
+    public List<String> devices() {
+        try (Socket socket = connect(timeout)) {
+            return Arrays.stream(query(socket, "host:devices").split("\n"))
+                .map(line -> line.split("\t"))
+                .filter(fields -> fields.length == 2 && "device".equals(fields[1].trim()))
+                .map(fields -> fields[0])
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new RuntimeException("adb host:devices failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Runs a command line in the device shell.
+     *
+     * @return stdout followed by stderr
+     * @throws RuntimeException if the command exits with a non-zero code
+     */
+    public String shell(String serial, String command) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int exitCode = shell(serial, command, out, out, timeout);
+        String output = out.toString(StandardCharsets.UTF_8);
+        if (exitCode != 0) {
+            throw new RuntimeException("adb shell exited with code " + exitCode + ": " + output.trim());
+        }
+        return output;
+    }
+
+    /**
+     * Runs a command line in the device shell, streaming its output as it arrives.
+     *
+     * @param timeout longest pause in the output before the command is abandoned
+     * @return exit code of the command; 0 on devices without shell v2
+     */
+    public int shell(String serial, String command, OutputStream stdout, OutputStream stderr, Duration timeout) {
+        boolean v2 = supportsShellV2(serial);
+        try (Socket socket = openService(serial, (v2 ? "shell,v2,raw:" : "shell:") + command, timeout)) {
+            if (!v2) {
+                socket.getInputStream().transferTo(stdout);
+                return 0;
+            }
+            OutputStream toDevice = socket.getOutputStream();
+            // The command gets no input from us; closing stdin lets commands that read it finish
+            toDevice.write(shellPacketHeader(SHELL_CLOSE_STDIN, 0));
+            toDevice.flush();
+            return readShellPackets(new DataInputStream(socket.getInputStream()), stdout, stderr);
+        } catch (IOException e) {
+            throw new RuntimeException("adb shell failed on " + serial + ": " + command + " (" + e.getMessage() + ")", e);
+        }
+    }
+
+    /**
+     * Runs a command without a terminal and returns its raw output, e.g. binary data
+     * such as {@code screencap -p}.
+     */
+    public byte[] exec(String serial, String command) {
+        try (Socket socket = openService(serial, "exec:" + command, timeout)) {
+            return socket.getInputStream().readAllBytes();
+        } catch (IOException e) {
+            throw new RuntimeException("adb exec failed on " + serial + ": " + command + " (" + e.getMessage() + ")", e);
+        }
+    }
+
+    /**
+     * @return PNG screenshot of the device screen
+     */
+    public byte[] screencap(String serial) {
+        return exec(serial, "screencap -p");
+    }
+
+    /**
+     * Copies a local file to the device.
+     */
+    public void push(String serial, Path local, String remote) {
+        push(serial, Map.of(local, remote));
+    }
+
+    /**
+     * Copies local files to the device over a single sync connection.
+     *
+     * @param files local file to remote path
+     */
+    public void push(String serial, Map<Path, String> files) {
+        try (Socket socket = openService(serial, "sync:", timeout)) {
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream(), SYNC_CHUNK + 8);
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            byte[] buffer = new byte[SYNC_CHUNK];
+            for (Map.Entry<Path, String> file : files.entrySet()) {
+                long start = System.currentTimeMillis();
+                byte[] target = (file.getValue() + "," + FILE_MODE).getBytes(StandardCharsets.UTF_8);
+                out.write(syncHeader("SEND", target.length));
+                out.write(target);
+                long size = 0;
+                try (InputStream source = Files.newInputStream(file.getKey())) {
+                    int read;
+                    while ((read = source.readNBytes(buffer, 0, buffer.length)) > 0) {
+                        out.write(syncHeader("DATA", read));
+                        out.write(buffer, 0, read);
+                        size += read;
+                    }
+                }
+                int mtime = (int) (Files.getLastModifiedTime(file.getKey()).to(TimeUnit.SECONDS));
+                out.write(syncHeader("DONE", mtime));
+                out.flush();
+                readSyncStatus(in, file.getValue());
+                logger.debug("Pushed {} to {}:{} ({} bytes in {} ms)", file.getKey(), serial, file.getValue(),
+                    size, System.currentTimeMillis() - start);
+            }
+            out.write(syncHeader("QUIT", 0));
+            out.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("adb push to " + serial + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Installs an APK: streams it to /data/local/tmp, runs pm install and removes the copy.
+     *
+     * @param installTimeout longest pause in pm output, which is silent while installing
+     * @throws RuntimeException if pm does not report Success
+     */
+    public void install(String serial, Path apk, Duration installTimeout, String... options) {
+        String remote = "/data/local/tmp/" + apk.getFileName().toString().replaceAll("[^A-Za-z0-9._-]", "_");
+        push(serial, apk, remote);
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int exitCode = shell(serial, "pm install " + String.join(" ", options) + " " + remote, out, out, installTimeout);
+            String output = out.toString(StandardCharsets.UTF_8).trim();
+            if (exitCode != 0 || !output.contains("Success")) {
+                throw new RuntimeException("APK installation failed on " + serial + ": " + output);
+            }
+        } finally {
+            try {
+                shell(serial, "rm -f " + remote);
+            } catch (RuntimeException e) {
+                logger.debug("Failed to remove {} from {}", remote, serial, e);
+            }
+        }
+    }
+
+    private boolean supportsShellV2(String serial) {
+        return shellV2.computeIfAbsent(serial, key -> {
+            try (Socket socket = connect(timeout)) {
+                return Arrays.asList(query(socket, "host-serial:" + key + ":features").trim().split(","))
+                    .contains("shell_v2");
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Could not read features of {}: {}", key, e.getMessage());
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Opens a socket bound to a service on the device.
+     */
+    private Socket openService(String serial, String service, Duration timeout) throws IOException {
+        Socket socket = connect(timeout);
+        try {
+            request(socket, "host:transport:" + serial);
+            request(socket, service);
+            return socket;
+        } catch (IOException | RuntimeException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private Socket connect(Duration readTimeout) throws IOException {
+        try {
+            return open(readTimeout);
+        } catch (ConnectException e) {
+            if (serverStartAttempted) {
+                throw e;
+            }
+            serverStartAttempted = true;
+            startServer();
+            return open(readTimeout);
+        }
+    }
+
+    private Socket open(Duration readTimeout) throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(host, port), (int) Math.min(timeout.toMillis(), 10000));
+            socket.setSoTimeout((int) Math.min(readTimeout.toMillis(), Integer.MAX_VALUE));
+            socket.setTcpNoDelay(true);
+            return socket;
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private void startServer() {
+        logger.info("adb server not reachable on {}:{}, starting it", host, port);
+        try {
+            Process process = new ProcessBuilder(adbPath, "-P", String.valueOf(port), "start-server")
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+            if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to start adb server: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sends a request and waits for OKAY.
+     *
+     * @throws RuntimeException with the server's message on FAIL
+     */
+    private static void request(Socket socket, String request) throws IOException {
+        byte[] payload = request.getBytes(StandardCharsets.UTF_8);
+        byte[] message = (String.format("%04x", payload.length) + request).getBytes(StandardCharsets.UTF_8);
+        OutputStream out = socket.getOutputStream();
+        out.write(message);
+        out.flush();
+
+        DataInputStream in = new DataInputStream(socket.getInputStream());
+        String status = readAscii(in, 4);
+        if ("FAIL".equals(status)) {
+            throw new RuntimeException("adb " + request + ": " + readLengthPrefixed(in));
+        }
+        if (!"OKAY".equals(status)) {
+            throw new IOException("Unexpected adb response to " + request + ": " + status);
+        }
+    }
+
+    /**
+     * Sends a host request whose answer is a length-prefixed string.
+     */
+    private static String query(Socket socket, String request) throws IOException {
+        request(socket, request);
+        return readLengthPrefixed(new DataInputStream(socket.getInputStream()));
+    }
+
+    private static String readLengthPrefixed(DataInputStream in) throws IOException {
+        int length = Integer.parseInt(readAscii(in, 4), 16);
+        return readAscii(in, length);
+    }
+
+    private static String readAscii(DataInputStream in, int length) throws IOException {
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] syncHeader(String id, int value) {
+        return ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN)
+            .put(id.getBytes(StandardCharsets.US_ASCII))
+            .putInt(value)
+            .array();
+    }
+
+    private static void readSyncStatus(DataInputStream in, String remote) throws IOException {
+        String status = readAscii(in, 4);
+        int length = Integer.reverseBytes(in.readInt());
+        if ("FAIL".equals(status)) {
+            throw new RuntimeException("adb push to " + remote + " failed: " + readAscii(in, length));
+        }
+        if (!"OKAY".equals(status)) {
+            throw new IOException("Unexpected sync response for " + remote + ": " + status);
+        }
+    }
+
+    private static byte[] shellPacketHeader(int id, int length) {
+        return ByteBuffer.allocate(5).order(ByteOrder.LITTLE_ENDIAN).put((byte) id).putInt(length).array();
+    }
+
+    /**
+     * Demultiplexes shell v2 packets (id byte, little-endian length, payload) until the exit packet.
+     */
+    private static int readShellPackets(DataInputStream in, OutputStream stdout, OutputStream stderr) throws IOException {
+        byte[] buffer = new byte[SYNC_CHUNK];
+        while (true) {
+            int id = in.readUnsignedByte();
+            int length = Integer.reverseBytes(in.readInt());
+            if (id == SHELL_EXIT) {
+                byte[] exit = new byte[length];
+                in.readFully(exit);
+                return exit.length > 0 ? exit[0] & 0xff : 0;
+            }
+            // Other packet types (e.g. window size) carry nothing for us
+            OutputStream target = id == SHELL_STDOUT ? stdout : id == SHELL_STDERR ? stderr : null;
+            int remaining = length;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new IOException("shell stream ended inside a packet");
+                }
+                if (target != null) {
+                    target.write(buffer, 0, read);
+                }
+                remaining -= read;
+            }
+        }
+    }
+}
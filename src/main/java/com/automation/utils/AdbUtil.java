@@ -0,0 +1,133 @@
+package com.automation.utils;
+
+import com.automation.core.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Thin wrapper around adb for device-side setup that Appium does not cover.
+ *
+ * Shell, push and install go through {@link AdbClient}, which talks to the adb server socket
+ * instead of starting a process per command; adb.transport=cli switches them back to the adb
+ * command line. {@link #run} always uses the command line, for commands without a protocol
+ * equivalent. Its output goes to a temporary file rather than a pipe, so commands with large
+ * output cannot block on a full buffer. Commands are bounded by adb.command.timeout.ms.
+ */
+public class AdbUtil {
+    private static final Logger logger = LoggerFactory.getLogger(AdbUtil.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+
+    /**
+     * Runs {@code adb -s <udid> <args...>}.
+     *
+     * @return combined stdout and stderr
+     * @throws RuntimeException if adb exits with a non-zero code or times out
+     */
+    public static String run(String udid, String... args) {
+        return run(Duration.ofMillis(config.getIntProperty("adb.command.timeout.ms", 60000)), udid, args);
+    }
+
+    /**
+     * Runs {@code adb -s <udid> <args...>} with its own timeout, for commands such as
+     * {@code install} that take longer than adb.command.timeout.ms.
+     *
+     * @return combined stdout and stderr
+     * @throws RuntimeException if adb exits with a non-zero code or times out
+     */
+    public static String run(Duration timeout, String udid, String... args) {
+        List<String> command = new ArrayList<>();
+        command.add(config.getProperty("adb.path", "adb"));
+        command.add("-s");
+        command.add(udid);
+        command.addAll(Arrays.asList(args));
+        long timeoutMs = timeout.toMillis();
+
+        logger.debug("Running: {}", String.join(" ", command));
+        Process process = null;
+        Path outputFile = null;
+        try {
+            outputFile = Files.createTempFile("adb-", ".out");
+            process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(outputFile.toFile())
+                .start();
+            process.getOutputStream().close();
+            if (!process.waitFor(timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new RuntimeException("adb timed out after " + timeoutMs + " ms: " + String.join(" ", args));
+            }
+            String output = Files.readString(outputFile, StandardCharsets.UTF_8);
+            if (process.exitValue() != 0) {
+                throw new RuntimeException("adb exited with code " + process.exitValue() + ": " + output.trim());
+            }
+            return output;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to run adb " + String.join(" ", args), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while running adb " + String.join(" ", args), e);
+        } finally {
+            if (process != null && process.isAlive()) {
+                process.destroyForcibly();
+            }
+            if (outputFile != null) {
+                try {
+                    Files.deleteIfExists(outputFile);
+                } catch (IOException e) {
+                    logger.debug("Failed to delete {}", outputFile, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a command line in the device shell. The line is interpreted by the device shell,
+     * so redirections and pipes apply on the device.
+     *
+     * @throws RuntimeException if the command exits with a non-zero code
+     */
+    public static String shell(String udid, String commandLine) {
+        if (useCli()) {
+            return run(udid, "shell", commandLine);
+        }
+        return AdbClient.getInstance().shell(udid, commandLine);
+    }
+
+    /**
+     * Copies a local file to the device.
+     */
+    public static void push(String udid, String localPath, String remotePath) {
+        if (useCli()) {
+            run(udid, "push", localPath, remotePath);
+            return;
+        }
+        AdbClient.getInstance().push(udid, Paths.get(localPath), remotePath);
+    }
+
+    /**
+     * Installs (or replaces) an APK with all runtime permissions granted.
+     *
+     * @throws RuntimeException if the installation fails
+     */
+    public static void install(String udid, Path apk, Duration timeout) {
+        if (useCli()) {
+            run(timeout, udid, "install", "-r", "-g", apk.toString());
+            return;
+        }
+        AdbClient.getInstance().install(udid, apk, timeout, "-r", "-g");
+    }
+
+    private static boolean useCli() {
+        return "cli".equalsIgnoreCase(config.getProperty("adb.transport", "socket"));
+    }
+}
@@ -0,0 +1,241 @@
+package com.automation.utils;
+
+import com.automation.core.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Encodes and writes screenshots on a background thread, so capturing evidence costs the
+ * failing test only the screenshot call itself.
+ *
+ * Screenshots are queued (artifact.writer.queue.capacity) and written by one daemon thread.
+ * When the queue is full the caller encodes and writes the screenshot itself, so evidence is
+ * never dropped and memory stays bounded. Before writing, a screenshot can be re-encoded to cut
+ * disk size:
+ * - artifact.screenshot.format: png (as captured), jpeg, or webp if an ImageIO WebP plugin is
+ *   on the classpath (the JDK has none; falls back to jpeg)
+ * - artifact.screenshot.max.width: downscale wider screenshots to this width; 0 keeps the size
+ * - artifact.screenshot.jpeg.quality: 0.0 - 1.0
+ *
+ * Readers of a file that may still be queued call {@link #await(Path, Duration)}; the suite
+ * calls {@link #flush(Duration)} at the end.
+ */
+public final class ArtifactWriter {
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactWriter.class);
+    private static ArtifactWriter instance;
+
+    private final String format;
+    private final int maxWidth;
+    private final float quality;
+    private final ThreadPoolExecutor executor;
+    private final Map<Path, CompletableFuture<Path>> pending = new ConcurrentHashMap<>();
+
+    ArtifactWriter(int capacity, String format, int maxWidth, float quality) {
+        this.format = supportedFormat(format);
+        this.maxWidth = maxWidth;
+        this.quality = quality;
+        this.executor = new ThreadPoolExecutor(1, 1, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(capacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "artifact-writer");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static synchronized ArtifactWriter getInstance() {
+        if (instance == null) {
+            ConfigManager config = ConfigManager.getInstance();
+            instance = new ArtifactWriter(
+                Math.max(1, config.getIntProperty("artifact.writer.queue.capacity", 32)),
+                config.getProperty("artifact.screenshot.format", "png"),
+                Math.max(0, config.getIntProperty("artifact.screenshot.max.width", 0)),
+                (float) Math.min(1.0, Math.max(0.0, config.getDoubleProperty("artifact.screenshot.jpeg.quality", 0.85))));
+        }
+        return instance;
+    }
+
+    /**
+     * @return file extension of written screenshots, including the dot
+     */
+    public String extension() {
+        return "jpeg".equals(format) ? ".jpg" : "." + format;
+    }
+
+    /**
+     * @return MIME type of written screenshots
+     */
+    public String mimeType() {
+        return "image/" + format;
+    }
+
+    /**
+     * Queues a PNG screenshot to be re-encoded and written to {@code destination}.
+     *
+     * @param encodedConsumer also receives the encoded bytes on the writer thread (e.g. Allure),
+     *                        or null
+     * @return completes with the destination once written
+     */
+    public CompletableFuture<Path> submit(Path destination, byte[] png, Consumer<byte[]> encodedConsumer) {
+        CompletableFuture<Path> written = new CompletableFuture<>();
+        pending.put(destination, written);
+        written.whenComplete((path, error) -> pending.remove(destination, written));
+        executor.execute(() -> {
+            try {
+                byte[] encoded = encode(png);
+                write(destination, encoded);
+                if (encodedConsumer != null) {
+                    encodedConsumer.accept(encoded);
+                }
+                logger.debug("Wrote {} ({} bytes)", destination, encoded.length);
+                written.complete(destination);
+            } catch (IOException | RuntimeException e) {
+                logger.error("Failed to write artifact {}", destination, e);
+                written.completeExceptionally(e);
+            }
+        });
+        return written;
+    }
+
+    /**
+     * Waits until the file is written if it is still queued.
+     *
+     * @return false if it was not written within the timeout or failed
+     */
+    public boolean await(Path destination, Duration timeout) throws InterruptedException {
+        CompletableFuture<Path> written = pending.get(destination);
+        if (written == null) {
+            return true;
+        }
+        try {
+            written.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Waits for all queued artifacts to be written.
+     *
+     * @return number of artifacts still pending at the deadline
+     */
+    public int flush(Duration timeout) throws InterruptedException {
+        try {
+            CompletableFuture.allOf(pending.values().toArray(new CompletableFuture[0]))
+                .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // already logged by the writer; the others are complete
+        } catch (TimeoutException e) {
+            logger.warn("{} artifact(s) still being written after {} ms", unwritten(), timeout.toMillis());
+        }
+        return unwritten();
+    }
+
+    private int unwritten() {
+        // Completed futures may not have been removed yet
+        return (int) pending.values().stream().filter(written -> !written.isDone()).count();
+    }
+
+    /**
+     * Re-encodes a PNG to the configured format and width; returns it untouched if neither applies.
+     */
+    byte[] encode(byte[] png) throws IOException {
+        if ("png".equals(format) && maxWidth == 0) {
+            return png;
+        }
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            logger.warn("Screenshot is not a readable image, writing it as captured");
+            return png;
+        }
+        image = scale(image);
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(png.length / 2);
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (!"png".equals(format) && param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionType(param.getCompressionTypes()[0]);
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private BufferedImage scale(BufferedImage image) {
+        boolean opaque = !"png".equals(format);
+        if ((maxWidth == 0 || image.getWidth() <= maxWidth) && !(opaque && image.getColorModel().hasAlpha())) {
+            return image;
+        }
+        int width = maxWidth > 0 ? Math.min(maxWidth, image.getWidth()) : image.getWidth();
+        int height = Math.max(1, (int) Math.round((double) image.getHeight() * width / image.getWidth()));
+        // JPEG has no alpha channel, so the image is drawn onto an opaque RGB canvas
+        BufferedImage scaled = new BufferedImage(width, height,
+            opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private static void write(Path destination, byte[] content) throws IOException {
+        try (FileChannel channel = FileChannel.open(destination,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static String supportedFormat(String format) {
+        String name = format.trim().toLowerCase(Locale.ROOT);
+        if ("jpg".equals(name)) {
+            name = "jpeg";
+        }
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(name);
+        if (writers.hasNext()) {
+            return name;
+        }
+        logger.warn("No ImageIO writer for screenshot format '{}', using jpeg", format);
+        return "jpeg";
+    }
+}
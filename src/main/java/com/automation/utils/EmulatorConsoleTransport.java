@@ -0,0 +1,309 @@
+package com.automation.utils;
+
+import com.automation.core.ConfigManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sends location fixes straight to an Android emulator's console ({@code geo fix}) instead of
+ * through Appium, which costs an HTTP round trip to the Appium server per fix.
+ *
+ * The console listens on localhost at the port in the emulator's serial (emulator-5554 -&gt; 5554)
+ * and asks for the token in ~/.emulator_console_auth_token when the emulator was started with
+ * one. One socket is kept open per emulator. Fixes are pipelined: {@link #push} writes the
+ * command and returns, and a reader thread counts the OK/KO replies, so route playback is not
+ * limited by round trips. {@link #awaitAcknowledged(Duration)} waits for the replies and reports
+ * a rejected command. A dropped connection is re-opened on the next fix.
+ *
+ * Selected per device with location.transport=console (e.g. in a device profile overlay);
+ * physical devices have no console and keep using Appium.
+ */
+public final class EmulatorConsoleTransport implements LocationSink, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(EmulatorConsoleTransport.class);
+    private static final Pattern EMULATOR_SERIAL = Pattern.compile("emulator-(\\d+)");
+    private static final Map<String, EmulatorConsoleTransport> consoles = new ConcurrentHashMap<>();
+
+    private final String host;
+    private final int port;
+    private final String authToken;
+    private final Duration timeout;
+    // Connection state, guarded by this
+    private Socket socket;
+    private Writer writer;
+    private long sent;
+    private long generation;
+    // Reply state of the current connection, guarded by replies so the reader never waits for a writer
+    private final Object replies = new Object();
+    private long replyGeneration;
+    private long acknowledged;
+    private boolean open;
+    private String rejection;
+
+    EmulatorConsoleTransport(String host, int port, String authToken, Duration timeout) {
+        this.host = host;
+        this.port = port;
+        this.authToken = authToken;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Gets the console connection of an emulator, shared by all callers for that device.
+     *
+     * @param udid emulator serial, e.g. emulator-5554
+     * @throws IllegalArgumentException if the serial is not an emulator's
+     */
+    public static EmulatorConsoleTransport forDevice(String udid) {
+        return consoles.computeIfAbsent(udid, serial -> {
+            ConfigManager config = ConfigManager.getInstance();
+            String tokenFile = config.getProperty("location.console.auth.token.file", "");
+            Path tokenPath = tokenFile.isEmpty()
+                ? Paths.get(System.getProperty("user.home"), ".emulator_console_auth_token")
+                : Paths.get(tokenFile);
+            return new EmulatorConsoleTransport(
+                config.getProperty("location.console.host", "127.0.0.1"),
+                consolePort(serial),
+                readToken(tokenPath),
+                Duration.ofMillis(config.getIntProperty("location.console.timeout.ms", 5000)));
+        });
+    }
+
+    /**
+     * Closes all console connections, e.g. at the end of the suite.
+     */
+    public static void closeAll() {
+        consoles.values().forEach(EmulatorConsoleTransport::close);
+        consoles.clear();
+    }
+
+    static int consolePort(String udid) {
+        Matcher matcher = EMULATOR_SERIAL.matcher(udid);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Device " + udid + " is not an emulator; it has no console");
+        }
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    private static String readToken(Path tokenPath) {
+        try {
+            return Files.isRegularFile(tokenPath) ? Files.readString(tokenPath, StandardCharsets.UTF_8).trim() : "";
+        } catch (IOException e) {
+            logger.warn("Cannot read emulator console token {}: {}", tokenPath, e.getMessage());
+            return "";
+        }
+    }
+
+    /**
+     * Sends one fix without waiting for the console's reply.
+     *
+     * @throws IOException if the console cannot be reached or rejected an earlier fix
+     */
+    @Override
+    public synchronized void push(double latitude, double longitude) throws IOException {
+        throwRejection();
+        // geo fix takes longitude first
+        String command = String.format(Locale.ROOT, "geo fix %.7f %.7f\n", longitude, latitude);
+        try {
+            send(command);
+        } catch (IOException e) {
+            logger.info("Emulator console {} connection lost ({}), reconnecting", port, e.getMessage());
+            disconnect();
+            send(command);
+        }
+    }
+
+    /**
+     * Waits until the console has replied to every fix sent so far.
+     *
+     * @throws IOException if a fix was rejected or the replies did not arrive in time
+     */
+    public void awaitAcknowledged(Duration timeout) throws IOException, InterruptedException {
+        long target;
+        long connection;
+        synchronized (this) {
+            target = sent;
+            connection = generation;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (replies) {
+            while (replyGeneration == connection && open && acknowledged < target && rejection == null) {
+                long remaining = (deadline - System.nanoTime()) / 1_000_000;
+                if (remaining <= 0) {
+                    throw new IOException("Emulator console " + port + " acknowledged " + acknowledged + " of "
+                        + target + " fixes within " + timeout.toMillis() + " ms");
+                }
+                replies.wait(remaining);
+            }
+            if (replyGeneration == connection && acknowledged < target && rejection == null) {
+                throw new IOException("Emulator console " + port + " closed before acknowledging all fixes");
+            }
+        }
+        throwRejection();
+    }
+
+    @Override
+    public synchronized void close() {
+        disconnect();
+    }
+
+    private void send(String command) throws IOException {
+        if (socket != null && !isOpen()) {
+            // The console closed the connection; writes to it would be lost silently
+            disconnect();
+        }
+        if (socket == null) {
+            connect();
+        }
+        writer.write(command);
+        writer.flush();
+        sent++;
+    }
+
+    private void connect() throws IOException {
+        Socket connection = new Socket();
+        BufferedReader reader;
+        Writer output;
+        try {
+            connection.connect(new InetSocketAddress(host, port), (int) timeout.toMillis());
+            connection.setTcpNoDelay(true);
+            connection.setSoTimeout((int) timeout.toMillis());
+            reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.US_ASCII));
+            output = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.US_ASCII));
+
+            if (readUntilOk(reader).contains("Authentication required")) {
+                if (authToken.isEmpty()) {
+                    throw new IOException("Emulator console " + port + " requires an auth token; "
+                        + "set location.console.auth.token.file");
+                }
+                output.write("auth " + authToken + "\n");
+                output.flush();
+                readUntilOk(reader);
+            }
+            connection.setSoTimeout(0);
+        } catch (IOException e) {
+            connection.close();
+            throw e;
+        }
+        socket = connection;
+        writer = output;
+        sent = 0;
+        long current = ++generation;
+        synchronized (replies) {
+            replyGeneration = current;
+            acknowledged = 0;
+            rejection = null;
+            open = true;
+        }
+        startReader(reader, current);
+        logger.info("Connected to emulator console on {}:{}", host, port);
+    }
+
+    private boolean isOpen() {
+        synchronized (replies) {
+            return open && replyGeneration == generation;
+        }
+    }
+
+    /**
+     * Reads console lines until OK.
+     *
+     * @return everything read before OK
+     * @throws IOException on KO or end of stream
+     */
+    private String readUntilOk(BufferedReader reader) throws IOException {
+        StringBuilder text = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if ("OK".equals(line.trim())) {
+                return text.toString();
+            }
+            if (line.startsWith("KO")) {
+                throw new IOException("Emulator console " + port + " refused: " + line.trim());
+            }
+            text.append(line).append('\n');
+        }
+        throw new IOException("Emulator console " + port + " closed the connection");
+    }
+
+    private void startReader(BufferedReader reader, long connection) {
+        Thread thread = new Thread(() -> {
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String reply = line.trim();
+                    if ("OK".equals(reply) || reply.startsWith("KO")) {
+                        acknowledge(connection, reply.startsWith("KO") ? reply : null);
+                    }
+                }
+            } catch (IOException e) {
+                logger.debug("Emulator console {} reader stopped: {}", port, e.getMessage());
+            }
+            synchronized (replies) {
+                if (replyGeneration == connection) {
+                    open = false;
+                    replies.notifyAll();
+                }
+            }
+        }, "emulator-console-" + port);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void acknowledge(long connection, String error) {
+        synchronized (replies) {
+            if (replyGeneration != connection) {
+                return;
+            }
+            acknowledged++;
+            if (error != null && rejection == null) {
+                rejection = error;
+            }
+            replies.notifyAll();
+        }
+    }
+
+    private void throwRejection() throws IOException {
+        String error;
+        synchronized (replies) {
+            error = rejection;
+            rejection = null;
+        }
+        if (error != null) {
+            throw new IOException("Emulator console " + port + " rejected a fix: " + error);
+        }
+    }
+
+    private void disconnect() {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                logger.debug("Error closing emulator console {}", port, e);
+            }
+        }
+        socket = null;
+        writer = null;
+        synchronized (replies) {
+            open = false;
+            replies.notifyAll();
+        }
+    }
+}
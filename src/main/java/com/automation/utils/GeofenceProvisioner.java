@@ -0,0 +1,319 @@
+package com.automation.utils;
+
+import com.automation.core.ConfigManager;
+import com.automation.core.DeviceSlot;
+import com.automation.core.DriverManager;
+import com.automation.utils.geo.Geodesy;
+import com.automation.utils.geo.GeoPoint;
+import com.automation.utils.geo.Geofence;
+import io.appium.java_client.android.AndroidDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Seeds geofence zones straight into the app database, bypassing the creation form.
+ *
+ * Creating a zone through {@link com.automation.pages.MainScreen} costs dozens of UI round-trips;
+ * this writes all zones with one SQL script in a single transaction, so tests that need many
+ * zones start in seconds. Keep the UI path for tests that exercise the form itself.
+ *
+ * The app is force-stopped, the script is pushed to the device and piped into
+ * {@code run-as <package> sqlite3 databases/<db>}, then the app is relaunched and the zones are
+ * read back. This only works against a debuggable build of the app on a device image that ships
+ * sqlite3 (emulator images do); release builds such as the APKPure download and user-build
+ * devices are rejected up front.
+ *
+ * Unverified: the default table and columns (geofence.provision.*) are assumptions about
+ * EgiGeoZone's internal database and have not been checked against a real install, and the
+ * APK this repo installs is not debuggable, so no suite runs this path yet. Before anything is
+ * written, the table and every column named in the insert template are checked against the
+ * device's database, so a wrong schema fails fast instead of corrupting it. Existing zones are
+ * kept unless geofence.provision.replace.existing is set.
+ *
+ * Usage:
+ * <pre>
+ * List&lt;Geofence&gt; zones = GeofenceProvisioner.provision(
+ *     GeofenceProvisioner.gridZones(100, 37.7749, -122.4194, 50, 200));
+ * </pre>
+ */
+public class GeofenceProvisioner {
+    private static final Logger logger = LoggerFactory.getLogger(GeofenceProvisioner.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final String REMOTE_DIR = "/data/local/tmp/";
+    private static final String EXIT_MARKER = "__exit=";
+    private static final Pattern COLUMN_LIST = Pattern.compile("(?i)INSERT\\s+INTO\\s+[^\\s(]+\\s*\\(([^)]*)\\)");
+
+    /**
+     * Seeds zones on the device leased by the current thread (or device.udid).
+     *
+     * @return the seeded zones, for use with GeofenceOracle
+     */
+    public static List<Geofence> provision(List<Geofence> zones) {
+        return provision(currentUdid(), zones);
+    }
+
+    public static List<Geofence> provision(String udid, List<Geofence> zones) {
+        String appPackage = config.getProperty("device.app.package");
+        String database = "databases/" + config.getProperty("geofence.provision.db.name", "egigeozone");
+        String table = config.getProperty("geofence.provision.table", "zone");
+        long start = System.currentTimeMillis();
+        logger.info("Provisioning {} geofence zones on {}", zones.size(), udid);
+
+        checkDebuggable(udid, appPackage);
+        checkSqlite(udid);
+        checkSchema(udid, appPackage, database, table);
+        int existing = replaceExisting() ? 0 : countZones(udid, appPackage, database, table);
+
+        Path script = null;
+        String remoteScript = REMOTE_DIR + "geozones-" + System.nanoTime() + ".sql";
+        try {
+            script = Files.createTempFile("geozones-", ".sql");
+            Files.writeString(script, buildScript(zones), StandardCharsets.UTF_8);
+            AdbUtil.push(udid, script.toString(), remoteScript);
+
+            AdbUtil.shell(udid, "am force-stop " + appPackage);
+            // -bail stops at the first failing statement and makes sqlite3 exit non-zero
+            shellChecked(udid, "run-as " + appPackage + " sqlite3 -bail " + database + " < " + remoteScript,
+                "Zone provisioning failed");
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to prepare zone provisioning script", e);
+        } finally {
+            deleteQuietly(udid, remoteScript, script);
+        }
+
+        relaunchApp(appPackage);
+        int count = countZones(udid, appPackage, database, table);
+        if (count != existing + zones.size()) {
+            throw new RuntimeException("Expected " + (existing + zones.size()) + " zones in " + table
+                + " after relaunch but found " + count);
+        }
+        logger.info("Provisioned {} zones in {} ms", zones.size(), System.currentTimeMillis() - start);
+        return List.copyOf(zones);
+    }
+
+    /**
+     * Replaces the app database with a prepared file, e.g. one exported from a device where
+     * the zones were set up once by hand. Requires a debuggable build of the app.
+     */
+    public static void restoreDatabase(Path databaseFile) {
+        String udid = currentUdid();
+        String appPackage = config.getProperty("device.app.package");
+        String remoteFile = REMOTE_DIR + "geozones-" + System.nanoTime() + ".db";
+        logger.info("Restoring app database from {} on {}", databaseFile, udid);
+
+        checkDebuggable(udid, appPackage);
+        AdbUtil.push(udid, databaseFile.toString(), remoteFile);
+        try {
+            AdbUtil.shell(udid, "am force-stop " + appPackage);
+            shellChecked(udid, "run-as " + appPackage + " sh -c 'cat > databases/"
+                + config.getProperty("geofence.provision.db.name", "egigeozone") + "' < " + remoteFile,
+                "Database restore failed");
+        } finally {
+            deleteQuietly(udid, remoteFile, null);
+        }
+        relaunchApp(appPackage);
+    }
+
+    /**
+     * Generates {@code count} zones on a square grid centered on the given point,
+     * with centers {@code spacingMeters} apart, named Zone_0..Zone_{count-1}.
+     */
+    public static List<Geofence> gridZones(int count, double latitude, double longitude,
+                                           double radiusMeters, double spacingMeters) {
+        int side = (int) Math.ceil(Math.sqrt(count));
+        double half = (side - 1) * spacingMeters / 2;
+        List<Geofence> zones = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double north = (i / side) * spacingMeters - half;
+            double east = (i % side) * spacingMeters - half;
+            GeoPoint row = Geodesy.destination(latitude, longitude, north >= 0 ? 0 : 180, Math.abs(north));
+            GeoPoint center = Geodesy.destination(row.getLatitude(), row.getLongitude(),
+                east >= 0 ? 90 : 270, Math.abs(east));
+            zones.add(new Geofence("Zone_" + i, center.getLatitude(), center.getLongitude(), radiusMeters));
+        }
+        return zones;
+    }
+
+    /**
+     * Builds the SQL script inserting all zones in one transaction.
+     * Placeholders in geofence.provision.insert.template: {table}, {name}, {latitude}, {longitude}, {radius}.
+     */
+    static String buildScript(List<Geofence> zones) {
+        String table = config.getProperty("geofence.provision.table", "zone");
+        String template = insertTemplate();
+
+        StringBuilder sql = new StringBuilder(zones.size() * template.length() + 64);
+        sql.append("BEGIN TRANSACTION;\n");
+        if (replaceExisting()) {
+            sql.append("DELETE FROM ").append(table).append(";\n");
+        }
+        for (Geofence zone : zones) {
+            sql.append(template
+                .replace("{table}", table)
+                .replace("{name}", quote(zone.getId()))
+                .replace("{latitude}", quote(Double.toString(zone.getLatitude())))
+                .replace("{longitude}", quote(Double.toString(zone.getLongitude())))
+                .replace("{radius}", quote(Long.toString(Math.round(zone.getRadiusMeters())))))
+                .append('\n');
+        }
+        sql.append("COMMIT;\n");
+        return sql.toString();
+    }
+
+    /**
+     * Quotes a value as an SQL string literal. The app stores coordinates and radius as text.
+     */
+    private static String quote(String value) {
+        return "'" + value.replace("'", "''") + "'";
+    }
+
+    /**
+     * run-as refuses packages that are not debuggable, which is what every step here relies on.
+     */
+    private static void checkDebuggable(String udid, String appPackage) {
+        String output = AdbUtil.shell(udid, "run-as " + appPackage + " true; echo " + EXIT_MARKER + "$?");
+        if (exitStatus(output) != 0) {
+            throw new IllegalStateException(appPackage + " on " + udid + " is not debuggable; zone provisioning "
+                + "needs a debuggable build of the app (run-as said: " + stripStatus(output).trim() + ")");
+        }
+    }
+
+    private static void checkSqlite(String udid) {
+        String output = AdbUtil.shell(udid, "command -v sqlite3; echo " + EXIT_MARKER + "$?");
+        if (exitStatus(output) != 0) {
+            throw new IllegalStateException("sqlite3 is not available on " + udid
+                + "; zone provisioning needs a device image that ships it (e.g. an emulator image)");
+        }
+    }
+
+    /**
+     * Fails before writing anything when geofence.provision.table, or a column the insert
+     * template writes, does not exist in the app database.
+     */
+    private static void checkSchema(String udid, String appPackage, String database, String table) {
+        String tables = shellChecked(udid, "run-as " + appPackage + " sqlite3 " + database
+            + " \"SELECT name FROM sqlite_master WHERE type='table';\"", "Failed to read app database schema");
+        if (!tables.lines().map(String::trim).collect(Collectors.toList()).contains(table)) {
+            throw new IllegalStateException("Table '" + table + "' not found in " + database + " of " + appPackage
+                + " (tables: " + String.join(", ", tables.trim().split("\\s+"))
+                + "); adjust geofence.provision.* to the app schema");
+        }
+        // table_info rows read "cid|name|type|notnull|dflt_value|pk"
+        List<String> columns = shellChecked(udid, "run-as " + appPackage + " sqlite3 " + database
+            + " 'PRAGMA table_info(" + table + ");'", "Failed to read columns of " + table)
+            .lines()
+            .map(line -> line.split("\\|"))
+            .filter(fields -> fields.length > 1)
+            .map(fields -> fields[1])
+            .collect(Collectors.toList());
+        List<String> missing = new ArrayList<>(templateColumns(insertTemplate()));
+        missing.removeAll(columns);
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Columns " + missing + " not found in " + table + " of " + appPackage
+                + " (columns: " + columns + "); adjust geofence.provision.insert.template to the app schema");
+        }
+    }
+
+    /**
+     * @return column names listed in an "INSERT INTO {table} (a, b, ...)" template, empty if it has no column list
+     */
+    static List<String> templateColumns(String template) {
+        Matcher matcher = COLUMN_LIST.matcher(template);
+        if (!matcher.find()) {
+            return List.of();
+        }
+        return Arrays.stream(matcher.group(1).split(","))
+            .map(String::trim)
+            .filter(column -> !column.isEmpty())
+            .collect(Collectors.toList());
+    }
+
+    private static int countZones(String udid, String appPackage, String database, String table) {
+        String output = shellChecked(udid, "run-as " + appPackage + " sqlite3 " + database
+            + " 'SELECT count(*) FROM " + table + ";'", "Failed to count zones in " + table).trim();
+        try {
+            return Integer.parseInt(output);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Unexpected zone count output: " + output, e);
+        }
+    }
+
+    private static String insertTemplate() {
+        return config.getProperty("geofence.provision.insert.template",
+            "INSERT INTO {table} (name, latitude, longitude, radius) VALUES ({name}, {latitude}, {longitude}, {radius});");
+    }
+
+    private static boolean replaceExisting() {
+        return config.getBooleanProperty("geofence.provision.replace.existing", false);
+    }
+
+    /**
+     * Runs a shell command and fails unless it exited with 0. The exit status is echoed by the
+     * command line itself, since devices without shell v2 do not report it.
+     *
+     * @return output of the command without the status line
+     */
+    private static String shellChecked(String udid, String commandLine, String failureMessage) {
+        String output = AdbUtil.shell(udid, commandLine + "; echo " + EXIT_MARKER + "$?");
+        int status = exitStatus(output);
+        String result = stripStatus(output);
+        if (status != 0) {
+            throw new RuntimeException(failureMessage + " (exit " + status + "): " + result.trim());
+        }
+        return result;
+    }
+
+    /**
+     * @return the status echoed after {@link #EXIT_MARKER} on the last line of the output
+     */
+    static int exitStatus(String output) {
+        int index = output.lastIndexOf(EXIT_MARKER);
+        if (index < 0) {
+            throw new RuntimeException("No exit status in shell output: " + output.trim());
+        }
+        return Integer.parseInt(output.substring(index + EXIT_MARKER.length()).trim());
+    }
+
+    static String stripStatus(String output) {
+        int index = output.lastIndexOf(EXIT_MARKER);
+        return index < 0 ? output : output.substring(0, index);
+    }
+
+    private static String currentUdid() {
+        DeviceSlot slot = DriverManager.getDeviceSlot();
+        return slot != null ? slot.getUdid() : config.getProperty("device.udid");
+    }
+
+    private static void relaunchApp(String appPackage) {
+        if (DriverManager.isDriverInitialized()) {
+            AndroidDriver driver = DriverManager.getDriver();
+            driver.activateApp(appPackage);
+        }
+    }
+
+    private static void deleteQuietly(String udid, String remotePath, Path localPath) {
+        try {
+            AdbUtil.shell(udid, "rm -f " + remotePath);
+        } catch (RuntimeException e) {
+            logger.debug("Failed to remove {} from device", remotePath, e);
+        }
+        if (localPath != null) {
+            try {
+                Files.deleteIfExists(localPath);
+            } catch (IOException e) {
+                logger.debug("Failed to delete {}", localPath, e);
+            }
+        }
+    }
+}
@@ -1,17 +1,43 @@
 package com.automation.utils;
 
+import com.automation.core.ConfigManager;
+import com.automation.core.DeviceSlot;
 import com.automation.core.DriverManager;
+import com.automation.utils.geo.GeoPoint;
+import com.automation.utils.geo.Geodesy;
+import com.automation.utils.geo.TrackSource;
 import io.appium.java_client.android.AndroidDriver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.html5.Location;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Utility class for simulating device location changes.
  * Used for testing geofence exit scenarios.
+ *
+ * After a mock fix is sent, the device's reported location is polled with exponential
+ * backoff until it is within location.settle.tolerance.meters of the target, so callers
+ * continue as soon as the fix is applied. location.settle.timeout.ms is the ceiling.
+ *
+ * Every fix sent from a thread is recorded in that thread's location history, which can be
+ * replayed through {@link com.automation.utils.geo.GeofenceOracle} to compute expected transitions.
+ *
+ * Fixes go through Appium by default. With location.transport=console (set per device in its
+ * profile overlay) they are written to the emulator console instead, see
+ * {@link EmulatorConsoleTransport}; the settled location is still read back through Appium.
  */
 public class LocationSimulator {
     private static final Logger logger = LoggerFactory.getLogger(LocationSimulator.class);
+    private static final ConfigManager config = ConfigManager.getInstance();
+    private static final ThreadLocal<List<GeoPoint>> locationHistory =
+        ThreadLocal.withInitial(() -> Collections.synchronizedList(new ArrayList<>()));
 
     /**
      * Sets the device location to specified coordinates.
@@ -25,42 +51,217 @@ public class LocationSimulator {
             throw new IllegalStateException("Driver is not initialized");
         }
 
-        logger.info("Setting mock location via Appium: lat={}, lon={}", latitude, longitude);
+        EmulatorConsoleTransport console = console();
+        String transport = console != null ? "emulator console" : "Appium";
+        logger.info("Setting mock location via {}: lat={}, lon={}", transport, latitude, longitude);
         try {
-            Location location = new Location(latitude, longitude, 0);
-            driver.setLocation(location);
+            if (console != null) {
+                console.push(latitude, longitude);
+                console.awaitAcknowledged(consoleTimeout());
+            } else {
+                driver.setLocation(new Location(latitude, longitude, 0));
+            }
+            locationHistory.get().add(new GeoPoint(latitude, longitude));
 
-            // Wait for GPS + geofence processing
-            Thread.sleep(5000);
+            // Wait for the fix to be reported, plus the grace period for geofence processing
+            awaitLocationSettled(driver, latitude, longitude);
 
-            logger.info("Mock location applied successfully via Appium");
+            logger.info("Mock location applied successfully via {}", transport);
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while setting mock location", e);
         } catch (Exception e) {
-            logger.error("Failed to set mock location via Appium", e);
+            logger.error("Failed to set mock location via {}", transport, e);
             throw new RuntimeException("Location simulation failed", e);
         }
     }
 
+    /**
+     * @return console of the current thread's device if location.transport=console, else null
+     */
+    private static EmulatorConsoleTransport console() {
+        DeviceSlot slot = DriverManager.getDeviceSlot();
+        ConfigManager deviceConfig = slot != null ? slot.getConfig() : config;
+        if (!"console".equalsIgnoreCase(deviceConfig.getProperty("location.transport", "appium"))) {
+            return null;
+        }
+        String udid = slot != null ? slot.getUdid() : config.getProperty("device.udid");
+        return EmulatorConsoleTransport.forDevice(udid);
+    }
+
+    private static Duration consoleTimeout() {
+        return Duration.ofMillis(config.getIntProperty("location.console.timeout.ms", 5000));
+    }
+
+    /**
+     * Polls the device's reported location until it matches the target within tolerance.
+     * Poll interval starts at location.settle.poll.initial.ms and doubles up to
+     * location.settle.poll.max.ms. If the fix is not observed before location.settle.timeout.ms
+     * the method returns anyway, matching the previous fixed-sleep behaviour. Once the fix is
+     * observed it waits location.settle.grace.ms more, so the app gets time to run its geofence
+     * processing; the reported location only shows that the mock provider took the fix.
+     *
+     * @param driver    Current driver
+     * @param latitude  Target latitude
+     * @param longitude Target longitude
+     * @return true if the device reported the target location before the ceiling
+     */
+    static boolean awaitLocationSettled(AndroidDriver driver, double latitude, double longitude)
+            throws InterruptedException {
+        double toleranceMeters = config.getDoubleProperty("location.settle.tolerance.meters", 10);
+        long timeoutMs = config.getIntProperty("location.settle.timeout.ms", 5000);
+        long pollMs = config.getIntProperty("location.settle.poll.initial.ms", 100);
+        long maxPollMs = config.getIntProperty("location.settle.poll.max.ms", 1000);
+        long graceMs = config.getIntProperty("location.settle.grace.ms", 1000);
+
+        long start = System.currentTimeMillis();
+        long deadline = start + timeoutMs;
+        while (true) {
+            Double offset = null;
+            try {
+                Location reported = driver.location();
+                offset = Geodesy.distanceMeters(latitude, longitude, reported.getLatitude(), reported.getLongitude());
+            } catch (WebDriverException e) {
+                logger.debug("Location query failed while settling: {}", e.getMessage());
+            }
+            if (offset != null && offset <= toleranceMeters) {
+                logger.info("Location settled in {} ms (offset {} m)",
+                    System.currentTimeMillis() - start, String.format("%.1f", offset));
+                // The provider reporting the fix does not mean the app has handled it yet
+                if (graceMs > 0) {
+                    Thread.sleep(graceMs);
+                }
+                return true;
+            }
+            if (offset != null) {
+                logger.debug("Reported location still {} m from target", String.format("%.1f", offset));
+            }
+
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                logger.warn("Location not confirmed within {} ms, continuing", timeoutMs);
+                return false;
+            }
+            Thread.sleep(Math.min(pollMs, remaining));
+            pollMs = Math.min(pollMs * 2, maxPollMs);
+        }
+    }
+
+
+    /**
+     * Creates a sink that pushes fixes through Appium without waiting for them to settle.
+     * The driver of the calling thread is captured, so the sink can be used from
+     * {@link RoutePlayer}'s scheduler thread.
+     * 
+     * @return sink bound to the current thread's driver
+     */
+    public static LocationSink appiumSink() {
+        AndroidDriver driver = DriverManager.getDriver();
+        List<GeoPoint> history = locationHistory.get();
+        return (latitude, longitude) -> {
+            driver.setLocation(new Location(latitude, longitude, 0));
+            history.add(new GeoPoint(latitude, longitude));
+        };
+    }
+
+    /**
+     * Creates a sink for the current thread's device using its location.transport:
+     * the emulator console (fixes are pipelined) or Appium.
+     * 
+     * @return sink bound to the current thread's device
+     */
+    public static LocationSink deviceSink() {
+        EmulatorConsoleTransport console = console();
+        if (console == null) {
+            return appiumSink();
+        }
+        List<GeoPoint> history = locationHistory.get();
+        return (latitude, longitude) -> {
+            console.push(latitude, longitude);
+            history.add(new GeoPoint(latitude, longitude));
+        };
+    }
+
+    /**
+     * Gets the fixes sent from the current thread, in order.
+     * 
+     * @return snapshot of the location history
+     */
+    public static List<GeoPoint> getLocationHistory() {
+        List<GeoPoint> history = locationHistory.get();
+        synchronized (history) {
+            return new ArrayList<>(history);
+        }
+    }
+
+    /**
+     * Clears the current thread's location history, e.g. at the start of a test.
+     */
+    public static void clearLocationHistory() {
+        locationHistory.get().clear();
+    }
+
+    /**
+     * Plays a track on the device at the configured route speed and sample rate,
+     * blocking until the last fix is sent.
+     * 
+     * @param track Track to play (see {@link com.automation.utils.geo.TrackReader})
+     * @return playback statistics
+     */
+    public static RoutePlayer.PlaybackResult playRoute(TrackSource track) {
+        logger.info("Playing route on device");
+        EmulatorConsoleTransport console = console();
+        try (RoutePlayer player = new RoutePlayer(deviceSink())) {
+            RoutePlayer.PlaybackResult result = player.playAndWait(track);
+            if (console != null) {
+                // Surface fixes the console rejected while they were pipelined
+                console.awaitAcknowledged(consoleTimeout());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Route playback interrupted", e);
+        } catch (IOException e) {
+            throw new RuntimeException("Route playback failed on the emulator console", e);
+        }
+    }
+
     /**
      * Simulates device movement outside geofence by setting location
-     * at a specified distance from the geofence center.
+     * at a specified distance from the geofence center, along geofence.exit.bearing.
      * 
      * @param geofenceLat Geofence center latitude
      * @param geofenceLon Geofence center longitude
      * @param distanceMeters Distance in meters to move outside geofence
+     * @return true geodesic distance in meters between the fence center and the new location
      */
-    public static void simulateExitGeofence(double geofenceLat, double geofenceLon, double distanceMeters) {
-        // Calculate new coordinates at specified distance
-        // Using simple approximation: 1 degree latitude ≈ 111 km
-        // For longitude, adjust by cos(latitude)
-        double latOffset = distanceMeters / 111000.0;
-        double lonOffset = distanceMeters / (111000.0 * Math.cos(Math.toRadians(geofenceLat)));
-        
-        double newLat = geofenceLat + latOffset;
-        double newLon = geofenceLon + lonOffset;
-        
-        logger.info("Simulating exit from geofence. Moving {} meters away", distanceMeters);
-        setLocation(newLat, newLon);
+    public static double simulateExitGeofence(double geofenceLat, double geofenceLon, double distanceMeters) {
+        double bearing = config.getDoubleProperty("geofence.exit.bearing", 45);
+        return simulateExitGeofence(geofenceLat, geofenceLon, distanceMeters, bearing);
+    }
+
+    /**
+     * Simulates device movement outside geofence along a given bearing.
+     * The target is computed on the WGS84 ellipsoid, so the displacement matches
+     * the requested distance at any latitude.
+     * 
+     * @param geofenceLat Geofence center latitude
+     * @param geofenceLon Geofence center longitude
+     * @param distanceMeters Distance in meters to move outside geofence
+     * @param bearingDegrees Direction of travel, clockwise from true north
+     * @return true geodesic distance in meters between the fence center and the new location
+     */
+    public static double simulateExitGeofence(double geofenceLat, double geofenceLon, double distanceMeters,
+                                              double bearingDegrees) {
+        GeoPoint target = Geodesy.vincentyDestination(geofenceLat, geofenceLon, bearingDegrees, distanceMeters);
+        double actualDistance = Geodesy.vincentyDistanceMeters(
+            geofenceLat, geofenceLon, target.getLatitude(), target.getLongitude());
+
+        logger.info("Simulating exit from geofence. Moving {} meters away at bearing {} (actual {} m)",
+            distanceMeters, bearingDegrees, String.format("%.2f", actualDistance));
+        setLocation(target.getLatitude(), target.getLongitude());
+        return actualDistance;
     }
 
     /**
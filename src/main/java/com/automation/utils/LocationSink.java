@@ -0,0 +1,18 @@
+package com.automation.utils;
+
+/**
+ * Destination for simulated location fixes.
+ * Implementations push a single fix to the device and return without waiting for it to settle,
+ * which lets {@link RoutePlayer} stream fixes at a fixed rate.
+ */
+@FunctionalInterface
+public interface LocationSink {
+
+    /**
+     * Sends one location fix to the device.
+     *
+     * @param latitude  Latitude coordinate
+     * @param longitude Longitude coordinate
+     */
+    void push(double latitude, double longitude) throws Exception;
+}
@@ -0,0 +1,199 @@
+package com.automation.utils;
+
+import com.automation.core.ConfigManager;
+import com.automation.utils.geo.GeoPoint;
+import com.automation.utils.geo.RouteInterpolator;
+import com.automation.utils.geo.TrackSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams a track to the device at a given travel speed and sample rate.
+ *
+ * The track is resampled lazily by {@link RouteInterpolator} so that consecutive fixes are
+ * speed / rate meters apart. Fix k is due at start + k * period; each tick is scheduled against
+ * that absolute timeline rather than relative to the previous tick, so slow pushes do not
+ * accumulate drift. If a push overruns, fixes that are already in the past are skipped so the
+ * simulated position stays true to wall-clock time.
+ *
+ * Usage:
+ * <pre>
+ * try (RoutePlayer player = new RoutePlayer(LocationSimulator.deviceSink())) {
+ *     player.playAndWait(TrackReader.gpx(Paths.get("route.gpx")));
+ * }
+ * </pre>
+ */
+public class RoutePlayer implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(RoutePlayer.class);
+
+    private final LocationSink sink;
+    private final double speedMetersPerSecond;
+    private final double sampleRateHz;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a player using location.route.speed.mps and location.route.sample.rate.hz.
+     */
+    public RoutePlayer(LocationSink sink) {
+        this(sink,
+            ConfigManager.getInstance().getDoubleProperty("location.route.speed.mps", 1.4),
+            ConfigManager.getInstance().getDoubleProperty("location.route.sample.rate.hz", 1.0));
+    }
+
+    public RoutePlayer(LocationSink sink, double speedMetersPerSecond, double sampleRateHz) {
+        if (speedMetersPerSecond <= 0 || sampleRateHz <= 0) {
+            throw new IllegalArgumentException("Speed and sample rate must be positive");
+        }
+        this.sink = sink;
+        this.speedMetersPerSecond = speedMetersPerSecond;
+        this.sampleRateHz = sampleRateHz;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "route-player");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts streaming the track asynchronously.
+     * Cancelling the returned future stops playback at the next tick.
+     *
+     * @param track Track to play; closed when playback ends
+     * @return future completed with playback statistics
+     */
+    public CompletableFuture<PlaybackResult> play(TrackSource track) {
+        double stepMeters = speedMetersPerSecond / sampleRateHz;
+        long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / sampleRateHz);
+        Playback playback = new Playback(new RouteInterpolator(track, stepMeters), periodNanos);
+        logger.info("Starting route playback: {} m/s at {} Hz ({} m per fix)",
+            speedMetersPerSecond, sampleRateHz, String.format("%.2f", stepMeters));
+        scheduler.execute(playback::start);
+        return playback.result;
+    }
+
+    /**
+     * Plays the track and blocks until it finishes.
+     */
+    public PlaybackResult playAndWait(TrackSource track) throws InterruptedException {
+        try {
+            return play(track).get();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Route playback failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private final class Playback {
+        private final TrackSource samples;
+        private final long periodNanos;
+        private final CompletableFuture<PlaybackResult> result = new CompletableFuture<>();
+        private long startNanos;
+        private long nextIndex;
+        private long sent;
+        private long dropped;
+        private long maxLagNanos;
+
+        Playback(TrackSource samples, long periodNanos) {
+            this.samples = samples;
+            this.periodNanos = periodNanos;
+        }
+
+        void start() {
+            startNanos = System.nanoTime();
+            tick();
+        }
+
+        void tick() {
+            if (result.isDone()) {
+                samples.close();
+                return;
+            }
+            try {
+                long now = System.nanoTime();
+                long due = Math.max(nextIndex, (now - startNanos) / periodNanos);
+                if (!samples.hasNext()) {
+                    finish(now);
+                    return;
+                }
+
+                // Skip fixes whose due time has passed, but never the final one
+                GeoPoint point = samples.next();
+                while (nextIndex < due && samples.hasNext()) {
+                    point = samples.next();
+                    nextIndex++;
+                    dropped++;
+                }
+                maxLagNanos = Math.max(maxLagNanos, now - (startNanos + nextIndex * periodNanos));
+                sink.push(point.getLatitude(), point.getLongitude());
+                nextIndex++;
+                sent++;
+
+                long delay = startNanos + nextIndex * periodNanos - System.nanoTime();
+                scheduler.schedule(this::tick, Math.max(0, delay), TimeUnit.NANOSECONDS);
+            } catch (Exception e) {
+                samples.close();
+                logger.error("Route playback aborted after {} fixes", sent, e);
+                result.completeExceptionally(e);
+            }
+        }
+
+        private void finish(long now) {
+            samples.close();
+            PlaybackResult stats = new PlaybackResult(sent, dropped,
+                TimeUnit.NANOSECONDS.toMillis(maxLagNanos),
+                TimeUnit.NANOSECONDS.toMillis(now - startNanos));
+            logger.info("Route playback finished: {}", stats);
+            result.complete(stats);
+        }
+    }
+
+    /**
+     * Statistics of a completed playback.
+     */
+    public static class PlaybackResult {
+        private final long fixesSent;
+        private final long fixesDropped;
+        private final long maxLagMillis;
+        private final long durationMillis;
+
+        PlaybackResult(long fixesSent, long fixesDropped, long maxLagMillis, long durationMillis) {
+            this.fixesSent = fixesSent;
+            this.fixesDropped = fixesDropped;
+            this.maxLagMillis = maxLagMillis;
+            this.durationMillis = durationMillis;
+        }
+
+        public long getFixesSent() {
+            return fixesSent;
+        }
+
+        /** Fixes skipped because a previous push overran their due time */
+        public long getFixesDropped() {
+            return fixesDropped;
+        }
+
+        public long getMaxLagMillis() {
+            return maxLagMillis;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("sent=%d, dropped=%d, maxLag=%dms, duration=%dms",
+                fixesSent, fixesDropped, maxLagMillis, durationMillis);
+        }
+    }
+}
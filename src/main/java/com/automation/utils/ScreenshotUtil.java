@@ -2,27 +2,36 @@ package com.automation.utils;
 
 import com.automation.core.DriverManager;
 import io.qameta.allure.Allure;
-import org.apache.commons.io.FileUtils;
+import io.qameta.allure.AllureLifecycle;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.testng.ITestResult;
 
-import java.io.File;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.function.Supplier;
 
 /**
  * Utility class for capturing and managing screenshots.
+ *
+ * The screenshot is taken once as bytes on the calling thread; encoding and writing it to
+ * screenshots/ and to the Allure attachment happen on {@link ArtifactWriter}'s thread from the
+ * same buffer. The returned path may therefore not exist yet: readers call
+ * {@link ArtifactWriter#await}. Failure screenshots are cached on the ITestResult, so the
+ * teardown and the defect listener share one capture.
  */
 public class ScreenshotUtil {
     private static final Logger logger = LoggerFactory.getLogger(ScreenshotUtil.class);
     private static final String SCREENSHOT_DIR = "screenshots";
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss");
+    static final String SCREENSHOT_ATTRIBUTE = "failure.screenshot.path";
 
     static {
         createScreenshotDirectory();
@@ -39,49 +48,83 @@ public class ScreenshotUtil {
         }
     }
 
+    /**
+     * Captures the screen and queues it to be saved under screenshots/ and attached to Allure.
+     *
+     * @return absolute path the file is written to, or null if no screenshot could be taken
+     */
     public static String captureScreenshot(String testName) {
+        return captureScreenshot(testName, ScreenshotUtil::captureBytes);
+    }
+
+    /**
+     * Captures the screenshot of a failed test or configuration method once. Later calls for
+     * the same result (BaseTest.afterMethod, TestListener) reuse the first capture.
+     *
+     * @return absolute path of the saved file, or null if no screenshot could be taken
+     */
+    public static String captureFailureScreenshot(ITestResult result) {
+        return captureFailureScreenshot(result, ScreenshotUtil::captureBytes);
+    }
+
+    static String captureFailureScreenshot(ITestResult result, Supplier<byte[]> capture) {
+        synchronized (result) {
+            Object cached = result.getAttribute(SCREENSHOT_ATTRIBUTE);
+            if (cached != null) {
+                // An empty string records a failed attempt, so it is not retried either
+                return cached.toString().isEmpty() ? null : cached.toString();
+            }
+            String methodName = result.getMethod() != null ? result.getMethod().getMethodName() : "unknown";
+            String path = captureScreenshot(methodName, capture);
+            result.setAttribute(SCREENSHOT_ATTRIBUTE, path != null ? path : "");
+            return path;
+        }
+    }
+
+    static String captureScreenshot(String testName, Supplier<byte[]> capture) {
         try {
-            io.appium.java_client.android.AndroidDriver driver = DriverManager.getDriver();
-            if (driver == null) {
-                logger.warn("Driver is null, cannot capture screenshot");
+            byte[] screenshot = capture.get();
+            if (screenshot == null) {
                 return null;
             }
 
-            TakesScreenshot takesScreenshot = (TakesScreenshot) driver;
-            File sourceFile = takesScreenshot.getScreenshotAs(OutputType.FILE);
-            
+            ArtifactWriter writer = ArtifactWriter.getInstance();
             String timestamp = LocalDateTime.now().format(FORMATTER);
-            String fileName = String.format("%s_%s.png", testName, timestamp);
-            File destinationFile = new File(SCREENSHOT_DIR, fileName);
-            
-            FileUtils.copyFile(sourceFile, destinationFile);
-            logger.info("Screenshot captured: {}", destinationFile.getAbsolutePath());
-            
-            // Attach to Allure
-            attachScreenshotToAllure(destinationFile, testName);
-            
-            return destinationFile.getAbsolutePath();
+            Path destination = Paths.get(SCREENSHOT_DIR, testName + "_" + timestamp + writer.extension()).toAbsolutePath();
+
+            // The Allure attachment is registered with the running test here, on the test thread;
+            // its content is written with the file from the same encoded buffer
+            AllureLifecycle lifecycle = Allure.getLifecycle();
+            String allureSource = lifecycle.prepareAttachment(testName + " Screenshot", writer.mimeType(), writer.extension());
+            writer.submit(destination, screenshot,
+                encoded -> lifecycle.writeAttachment(allureSource, new ByteArrayInputStream(encoded)));
+            logger.info("Screenshot captured: {}", destination);
+
+            return destination.toString();
         } catch (Exception e) {
             logger.error("Failed to capture screenshot", e);
             return null;
         }
     }
 
-    private static void attachScreenshotToAllure(File screenshot, String testName) {
-        try {
-            Allure.addAttachment(testName + " Screenshot", 
-                "image/png", 
-                Files.newInputStream(screenshot.toPath()), 
-                ".png");
-        } catch (IOException e) {
-            logger.error("Failed to attach screenshot to Allure", e);
+    /**
+     * Takes the screenshot as PNG bytes, decoded in memory without a temporary file.
+     *
+     * @return the PNG, or null if there is no driver
+     */
+    private static byte[] captureBytes() {
+        io.appium.java_client.android.AndroidDriver driver = DriverManager.getDriver();
+        if (driver == null) {
+            logger.warn("Driver is null, cannot capture screenshot");
+            return null;
         }
+        return ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
     }
 
     public static void attachScreenshotToAllure(byte[] screenshotBytes, String testName) {
         Allure.addAttachment(testName + " Screenshot", 
             "image/png", 
-            new java.io.ByteArrayInputStream(screenshotBytes), 
+            new ByteArrayInputStream(screenshotBytes), 
             ".png");
     }
 }
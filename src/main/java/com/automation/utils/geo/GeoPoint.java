@@ -0,0 +1,27 @@
+package com.automation.utils.geo;
+
+/**
+ * Immutable WGS84 coordinate in decimal degrees.
+ */
+public final class GeoPoint {
+    private final double latitude;
+    private final double longitude;
+
+    public GeoPoint(double latitude, double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%.6f, %.6f)", latitude, longitude);
+    }
+}
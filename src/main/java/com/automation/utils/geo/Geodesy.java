@@ -0,0 +1,189 @@
+package com.automation.utils.geo;
+
+/**
+ * Geodesy helpers.
+ *
+ * - Haversine / spherical destination: fast, ~0.3% error, fine for fixtures and tracks
+ * - Vincenty direct / inverse on the WGS84 ellipsoid: sub-millimeter, used to verify geometry
+ *
+ * For generating many offsets around one center without allocation see {@link OffsetGenerator}.
+ */
+public final class Geodesy {
+    /** IUGG mean Earth radius in meters */
+    public static final double EARTH_RADIUS_METERS = 6371008.8;
+
+    /** WGS84 semi-major axis in meters */
+    static final double WGS84_A = 6378137.0;
+    /** WGS84 flattening */
+    static final double WGS84_F = 1 / 298.257223563;
+    /** WGS84 semi-minor axis in meters */
+    static final double WGS84_B = WGS84_A * (1 - WGS84_F);
+
+    private static final double VINCENTY_EPSILON = 1e-12;
+    private static final int VINCENTY_MAX_ITERATIONS = 200;
+
+    private Geodesy() {
+    }
+
+    /**
+     * Great-circle distance using the haversine formula.
+     *
+     * @return distance in meters
+     */
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double sinLat = Math.sin(dLat / 2);
+        double sinLon = Math.sin(dLon / 2);
+        double a = sinLat * sinLat
+            + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLon * sinLon;
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    public static double distanceMeters(GeoPoint from, GeoPoint to) {
+        return distanceMeters(from.getLatitude(), from.getLongitude(), to.getLatitude(), to.getLongitude());
+    }
+
+    /**
+     * Linear interpolation between two nearby points.
+     * Accurate enough for consecutive track vertices (tens to hundreds of meters apart).
+     *
+     * @param fraction 0 returns {@code from}, 1 returns {@code to}
+     */
+    public static GeoPoint interpolate(GeoPoint from, GeoPoint to, double fraction) {
+        double lat = from.getLatitude() + (to.getLatitude() - from.getLatitude()) * fraction;
+        double dLon = to.getLongitude() - from.getLongitude();
+        if (dLon > 180) {
+            dLon -= 360;
+        } else if (dLon < -180) {
+            dLon += 360;
+        }
+        return new GeoPoint(lat, normalizeLongitude(from.getLongitude() + dLon * fraction));
+    }
+
+    /**
+     * Point reached by travelling along a great circle on a sphere.
+     *
+     * @param bearingDegrees initial bearing, clockwise from true north
+     */
+    public static GeoPoint destination(double latitude, double longitude, double bearingDegrees, double distanceMeters) {
+        double lat1 = Math.toRadians(latitude);
+        double bearing = Math.toRadians(bearingDegrees);
+        double delta = distanceMeters / EARTH_RADIUS_METERS;
+        double sinLat2 = Math.sin(lat1) * Math.cos(delta) + Math.cos(lat1) * Math.sin(delta) * Math.cos(bearing);
+        double lat2 = Math.asin(sinLat2);
+        double lon2 = Math.toRadians(longitude) + Math.atan2(
+            Math.sin(bearing) * Math.sin(delta) * Math.cos(lat1),
+            Math.cos(delta) - Math.sin(lat1) * sinLat2);
+        return new GeoPoint(Math.toDegrees(lat2), normalizeLongitude(Math.toDegrees(lon2)));
+    }
+
+    /**
+     * Vincenty direct problem on the WGS84 ellipsoid: point at a distance and bearing from a start point.
+     *
+     * @param bearingDegrees initial bearing, clockwise from true north
+     */
+    public static GeoPoint vincentyDestination(double latitude, double longitude, double bearingDegrees,
+                                               double distanceMeters) {
+        double alpha1 = Math.toRadians(bearingDegrees);
+        double sinAlpha1 = Math.sin(alpha1);
+        double cosAlpha1 = Math.cos(alpha1);
+
+        double tanU1 = (1 - WGS84_F) * Math.tan(Math.toRadians(latitude));
+        double cosU1 = 1 / Math.sqrt(1 + tanU1 * tanU1);
+        double sinU1 = tanU1 * cosU1;
+        double sigma1 = Math.atan2(tanU1, cosAlpha1);
+        double sinAlpha = cosU1 * sinAlpha1;
+        double cosSqAlpha = 1 - sinAlpha * sinAlpha;
+        double uSq = cosSqAlpha * (WGS84_A * WGS84_A - WGS84_B * WGS84_B) / (WGS84_B * WGS84_B);
+        double a = 1 + uSq / 16384 * (4096 + uSq * (-768 + uSq * (320 - 175 * uSq)));
+        double b = uSq / 1024 * (256 + uSq * (-128 + uSq * (74 - 47 * uSq)));
+
+        double sigma = distanceMeters / (WGS84_B * a);
+        double sinSigma;
+        double cosSigma;
+        double cos2SigmaM;
+        double previousSigma;
+        int iterations = 0;
+        do {
+            cos2SigmaM = Math.cos(2 * sigma1 + sigma);
+            sinSigma = Math.sin(sigma);
+            cosSigma = Math.cos(sigma);
+            double deltaSigma = b * sinSigma * (cos2SigmaM + b / 4 * (cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)
+                - b / 6 * cos2SigmaM * (-3 + 4 * sinSigma * sinSigma) * (-3 + 4 * cos2SigmaM * cos2SigmaM)));
+            previousSigma = sigma;
+            sigma = distanceMeters / (WGS84_B * a) + deltaSigma;
+        } while (Math.abs(sigma - previousSigma) > VINCENTY_EPSILON && ++iterations < VINCENTY_MAX_ITERATIONS);
+
+        sinSigma = Math.sin(sigma);
+        cosSigma = Math.cos(sigma);
+        cos2SigmaM = Math.cos(2 * sigma1 + sigma);
+        double x = sinU1 * sinSigma - cosU1 * cosSigma * cosAlpha1;
+        double lat2 = Math.atan2(sinU1 * cosSigma + cosU1 * sinSigma * cosAlpha1,
+            (1 - WGS84_F) * Math.sqrt(sinAlpha * sinAlpha + x * x));
+        double lambda = Math.atan2(sinSigma * sinAlpha1, cosU1 * cosSigma - sinU1 * sinSigma * cosAlpha1);
+        double c = WGS84_F / 16 * cosSqAlpha * (4 + WGS84_F * (4 - 3 * cosSqAlpha));
+        double l = lambda - (1 - c) * WGS84_F * sinAlpha
+            * (sigma + c * sinSigma * (cos2SigmaM + c * cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)));
+        return new GeoPoint(Math.toDegrees(lat2), normalizeLongitude(longitude + Math.toDegrees(l)));
+    }
+
+    /**
+     * Vincenty inverse problem on the WGS84 ellipsoid: geodesic distance between two points.
+     * Falls back to haversine for nearly antipodal points where the iteration does not converge.
+     *
+     * @return distance in meters
+     */
+    public static double vincentyDistanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double l = Math.toRadians(lon2 - lon1);
+        double u1 = Math.atan((1 - WGS84_F) * Math.tan(Math.toRadians(lat1)));
+        double u2 = Math.atan((1 - WGS84_F) * Math.tan(Math.toRadians(lat2)));
+        double sinU1 = Math.sin(u1);
+        double cosU1 = Math.cos(u1);
+        double sinU2 = Math.sin(u2);
+        double cosU2 = Math.cos(u2);
+
+        double lambda = l;
+        double previousLambda;
+        double sinSigma;
+        double cosSigma;
+        double sigma;
+        double cosSqAlpha;
+        double cos2SigmaM;
+        int iterations = 0;
+        do {
+            double sinLambda = Math.sin(lambda);
+            double cosLambda = Math.cos(lambda);
+            double t1 = cosU2 * sinLambda;
+            double t2 = cosU1 * sinU2 - sinU1 * cosU2 * cosLambda;
+            sinSigma = Math.sqrt(t1 * t1 + t2 * t2);
+            if (sinSigma == 0) {
+                return 0;
+            }
+            cosSigma = sinU1 * sinU2 + cosU1 * cosU2 * cosLambda;
+            sigma = Math.atan2(sinSigma, cosSigma);
+            double sinAlpha = cosU1 * cosU2 * sinLambda / sinSigma;
+            cosSqAlpha = 1 - sinAlpha * sinAlpha;
+            cos2SigmaM = cosSqAlpha != 0 ? cosSigma - 2 * sinU1 * sinU2 / cosSqAlpha : 0;
+            double c = WGS84_F / 16 * cosSqAlpha * (4 + WGS84_F * (4 - 3 * cosSqAlpha));
+            previousLambda = lambda;
+            lambda = l + (1 - c) * WGS84_F * sinAlpha
+                * (sigma + c * sinSigma * (cos2SigmaM + c * cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)));
+            if (++iterations >= VINCENTY_MAX_ITERATIONS) {
+                return distanceMeters(lat1, lon1, lat2, lon2);
+            }
+        } while (Math.abs(lambda - previousLambda) > VINCENTY_EPSILON);
+
+        double uSq = cosSqAlpha * (WGS84_A * WGS84_A - WGS84_B * WGS84_B) / (WGS84_B * WGS84_B);
+        double a = 1 + uSq / 16384 * (4096 + uSq * (-768 + uSq * (320 - 175 * uSq)));
+        double b = uSq / 1024 * (256 + uSq * (-128 + uSq * (74 - 47 * uSq)));
+        double deltaSigma = b * sinSigma * (cos2SigmaM + b / 4 * (cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)
+            - b / 6 * cos2SigmaM * (-3 + 4 * sinSigma * sinSigma) * (-3 + 4 * cos2SigmaM * cos2SigmaM)));
+        return WGS84_B * a * (sigma - deltaSigma);
+    }
+
+    static double normalizeLongitude(double longitude) {
+        double normalized = (longitude + 540) % 360 - 180;
+        return normalized == -180 && longitude > 0 ? 180 : normalized;
+    }
+}
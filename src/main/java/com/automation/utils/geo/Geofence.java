@@ -0,0 +1,42 @@
+package com.automation.utils.geo;
+
+/**
+ * Circular geofence definition, as configured in the app under test.
+ */
+public final class Geofence {
+    private final String id;
+    private final double latitude;
+    private final double longitude;
+    private final double radiusMeters;
+
+    public Geofence(String id, double latitude, double longitude, double radiusMeters) {
+        if (radiusMeters <= 0) {
+            throw new IllegalArgumentException("Radius must be positive: " + radiusMeters);
+        }
+        this.id = id;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.radiusMeters = radiusMeters;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public double getRadiusMeters() {
+        return radiusMeters;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s(%.6f, %.6f, r=%.0fm)", id, latitude, longitude, radiusMeters);
+    }
+}
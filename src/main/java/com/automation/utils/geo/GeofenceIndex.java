@@ -0,0 +1,441 @@
+package com.automation.utils.geo;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable uniform-grid index over circular geofences (a fixed-precision, geohash-style grid).
+ *
+ * Supports point-in-fence queries ({@link #forEachContaining}, {@link #containing}),
+ * nearest-fence queries ({@link #nearest}) and bulk loading from parallel arrays or a {@link Builder}.
+ *
+ * Fences are stored in parallel primitive arrays and referenced by their position (0..size-1).
+ * Every fence is registered in each grid cell its bounding box touches; the cell table is a
+ * primitive open-addressing hash (cell key to bucket) plus a CSR layout of fence positions,
+ * so queries neither allocate nor box.
+ *
+ * The cell size defaults to twice the mean fence radius (but at least a quarter of the largest
+ * radius), which keeps candidate lists short for fixtures where radii are of similar magnitude.
+ */
+public final class GeofenceIndex {
+    private static final double METERS_PER_DEGREE = Math.PI * Geodesy.EARTH_RADIUS_METERS / 180;
+    private static final double MIN_CELL_METERS = 10;
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int MAX_NEAREST_RINGS = 64;
+    /** Range, relative error and absolute slack within which the equirectangular pre-filter is trusted */
+    private static final double APPROX_MAX_METERS = 50_000;
+    private static final double APPROX_TOLERANCE = 0.01;
+    private static final double APPROX_SLACK_METERS = 1;
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] radii;
+
+    private final double cellDegrees;
+    private final long columns;
+
+    private final long[] cellKeys;
+    private final int[] cellBuckets;
+    private final int cellMask;
+    private final int[] bucketOffsets;
+    private final int[] bucketFences;
+
+    /**
+     * Bulk-loads fences from parallel arrays. The arrays are copied.
+     */
+    public GeofenceIndex(double[] latitudes, double[] longitudes, double[] radiiMeters) {
+        this(latitudes, longitudes, radiiMeters, defaultCellMeters(radiiMeters));
+    }
+
+    /**
+     * Bulk-loads fences from parallel arrays with an explicit grid cell size.
+     */
+    public GeofenceIndex(double[] latitudes, double[] longitudes, double[] radiiMeters, double cellMeters) {
+        if (latitudes.length != longitudes.length || latitudes.length != radiiMeters.length) {
+            throw new IllegalArgumentException("Fence arrays must have the same length");
+        }
+        this.latitudes = latitudes.clone();
+        this.longitudes = longitudes.clone();
+        this.radii = radiiMeters.clone();
+        this.cellDegrees = Math.max(cellMeters, MIN_CELL_METERS) / METERS_PER_DEGREE;
+        this.columns = (long) Math.ceil(360 / cellDegrees);
+
+        int n = latitudes.length;
+        // Pass 1: assign a bucket to every touched cell and count fences per bucket
+        int capacity = Integer.highestOneBit(Math.max(16, n * 4 - 1)) << 1;
+        long[] keys = new long[capacity];
+        int[] buckets = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        int[] counts = new int[Math.max(16, n)];
+        int bucketCount = 0;
+
+        for (int i = 0; i < n; i++) {
+            long[] bounds = cellBounds(i);
+            for (long row = bounds[0]; row <= bounds[1]; row++) {
+                for (long col = bounds[2]; col <= bounds[3]; col++) {
+                    long key = cellKey(row, col);
+                    int slot = findSlot(keys, capacity - 1, key);
+                    if (keys[slot] == EMPTY) {
+                        if (bucketCount * 2 >= capacity) {
+                            // Grow and rehash before inserting
+                            long[] oldKeys = keys;
+                            int[] oldBuckets = buckets;
+                            capacity <<= 1;
+                            keys = new long[capacity];
+                            buckets = new int[capacity];
+                            Arrays.fill(keys, EMPTY);
+                            for (int s = 0; s < oldKeys.length; s++) {
+                                if (oldKeys[s] != EMPTY) {
+                                    int target = findSlot(keys, capacity - 1, oldKeys[s]);
+                                    keys[target] = oldKeys[s];
+                                    buckets[target] = oldBuckets[s];
+                                }
+                            }
+                            slot = findSlot(keys, capacity - 1, key);
+                        }
+                        keys[slot] = key;
+                        buckets[slot] = bucketCount;
+                        if (bucketCount == counts.length) {
+                            counts = Arrays.copyOf(counts, counts.length * 2);
+                        }
+                        bucketCount++;
+                    }
+                    counts[buckets[slot]]++;
+                }
+            }
+        }
+
+        // Pass 2: prefix sums, then fill the CSR arrays
+        int[] offsets = new int[bucketCount + 1];
+        for (int b = 0; b < bucketCount; b++) {
+            offsets[b + 1] = offsets[b] + counts[b];
+        }
+        int[] fences = new int[offsets[bucketCount]];
+        int[] cursor = Arrays.copyOf(offsets, bucketCount);
+        for (int i = 0; i < n; i++) {
+            long[] bounds = cellBounds(i);
+            for (long row = bounds[0]; row <= bounds[1]; row++) {
+                for (long col = bounds[2]; col <= bounds[3]; col++) {
+                    int bucket = buckets[findSlot(keys, capacity - 1, cellKey(row, col))];
+                    fences[cursor[bucket]++] = i;
+                }
+            }
+        }
+
+        this.cellKeys = keys;
+        this.cellBuckets = buckets;
+        this.cellMask = capacity - 1;
+        this.bucketOffsets = offsets;
+        this.bucketFences = fences;
+    }
+
+    public static GeofenceIndex of(List<Geofence> fences) {
+        return new Builder().addAll(fences).build();
+    }
+
+    private static double defaultCellMeters(double[] radii) {
+        if (radii.length == 0) {
+            return MIN_CELL_METERS;
+        }
+        double sum = 0;
+        double max = 0;
+        for (double radius : radii) {
+            sum += radius;
+            max = Math.max(max, radius);
+        }
+        // Bound the number of cells the largest fence spans
+        return Math.max(2 * sum / radii.length, max / 4);
+    }
+
+    public int size() {
+        return latitudes.length;
+    }
+
+    public double latitude(int fence) {
+        return latitudes[fence];
+    }
+
+    public double longitude(int fence) {
+        return longitudes[fence];
+    }
+
+    public double radius(int fence) {
+        return radii[fence];
+    }
+
+    /**
+     * Distance from a point to a fence center in meters.
+     */
+    public double distanceToCenter(int fence, double latitude, double longitude) {
+        return Geodesy.distanceMeters(latitude, longitude, latitudes[fence], longitudes[fence]);
+    }
+
+    /**
+     * Calls {@code action} with every fence whose bounding box covers the point's grid cell.
+     * Candidates are a superset of containing fences; callers filter by distance.
+     */
+    public void forEachCandidate(double latitude, double longitude, IntConsumer action) {
+        int slot = findSlot(cellKeys, cellMask, cellKey(row(latitude), column(longitude)));
+        if (cellKeys[slot] == EMPTY) {
+            return;
+        }
+        int bucket = cellBuckets[slot];
+        for (int k = bucketOffsets[bucket]; k < bucketOffsets[bucket + 1]; k++) {
+            action.accept(bucketFences[k]);
+        }
+    }
+
+    /**
+     * Calls {@code action} with every fence that contains the point (distance to center &lt;= radius).
+     */
+    public void forEachContaining(double latitude, double longitude, IntConsumer action) {
+        int slot = findSlot(cellKeys, cellMask, cellKey(row(latitude), column(longitude)));
+        if (cellKeys[slot] == EMPTY) {
+            return;
+        }
+        int bucket = cellBuckets[slot];
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        for (int k = bucketOffsets[bucket]; k < bucketOffsets[bucket + 1]; k++) {
+            int fence = bucketFences[k];
+            if (mayContain(fence, latitude, longitude, cosLat)
+                    && distanceToCenter(fence, latitude, longitude) <= radii[fence]) {
+                action.accept(fence);
+            }
+        }
+    }
+
+    /**
+     * Writes positions of fences containing the point into {@code out}.
+     *
+     * @return number of containing fences; only the first {@code out.length} are written
+     */
+    public int containing(double latitude, double longitude, int[] out) {
+        int slot = findSlot(cellKeys, cellMask, cellKey(row(latitude), column(longitude)));
+        if (cellKeys[slot] == EMPTY) {
+            return 0;
+        }
+        int bucket = cellBuckets[slot];
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        int count = 0;
+        for (int k = bucketOffsets[bucket]; k < bucketOffsets[bucket + 1]; k++) {
+            int fence = bucketFences[k];
+            if (mayContain(fence, latitude, longitude, cosLat)
+                    && distanceToCenter(fence, latitude, longitude) <= radii[fence]) {
+                if (count < out.length) {
+                    out[count] = fence;
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Signed distance from a point to a fence boundary in meters; negative when inside.
+     */
+    public double distanceToBoundary(int fence, double latitude, double longitude) {
+        return distanceToCenter(fence, latitude, longitude) - radii[fence];
+    }
+
+    /**
+     * Finds the fence whose boundary is closest to the point (the containing fence with the
+     * deepest penetration if the point is inside any).
+     *
+     * Searches grid rings outward from the point's cell and stops once no unvisited cell can
+     * hold a closer fence; falls back to a linear scan if the nearest fence is very far away.
+     *
+     * @return fence position, or -1 if the index is empty
+     */
+    public int nearest(double latitude, double longitude) {
+        if (latitudes.length == 0) {
+            return -1;
+        }
+        long centerRow = row(latitude);
+        long centerColumn = rawColumn(longitude);
+        long maxRow = row(90);
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        // Position of the point inside its cell, as the fraction of a cell to the nearest edge
+        double rowFraction = (Math.max(-90, Math.min(90, latitude)) + 90) / cellDegrees - centerRow;
+        double columnFraction = (longitude + 180) / cellDegrees - centerColumn;
+        double rowMargin = Math.min(rowFraction, 1 - rowFraction);
+        double columnMargin = Math.min(columnFraction, 1 - columnFraction);
+        double cellMeters = cellDegrees * METERS_PER_DEGREE;
+        int best = -1;
+        double bestDistance = Double.POSITIVE_INFINITY;
+
+        for (int ring = 0; ring <= MAX_NEAREST_RINGS; ring++) {
+            for (long r = centerRow - ring; r <= centerRow + ring; r++) {
+                if (r < 0 || r > maxRow) {
+                    continue;
+                }
+                boolean edgeRow = r == centerRow - ring || r == centerRow + ring;
+                long step = edgeRow || ring == 0 ? 1 : 2L * ring;
+                for (long c = centerColumn - ring; c <= centerColumn + ring; c += step) {
+                    int slot = findSlot(cellKeys, cellMask, cellKey(r, c));
+                    if (cellKeys[slot] == EMPTY) {
+                        continue;
+                    }
+                    int bucket = cellBuckets[slot];
+                    for (int k = bucketOffsets[bucket]; k < bucketOffsets[bucket + 1]; k++) {
+                        int fence = bucketFences[k];
+                        if (!mayBeCloser(fence, latitude, longitude, cosLat, bestDistance)) {
+                            continue;
+                        }
+                        double distance = distanceToBoundary(fence, latitude, longitude);
+                        if (distance < bestDistance) {
+                            bestDistance = distance;
+                            best = fence;
+                        }
+                    }
+                }
+            }
+            // Any fence not seen yet lies entirely outside the searched square
+            double searchedLatitude = Math.min(89.9, Math.abs(latitude) + (ring + 1) * cellDegrees);
+            double searchedMeters = cellMeters * Math.min(ring + rowMargin,
+                (ring + columnMargin) * Math.cos(Math.toRadians(searchedLatitude)));
+            if (best >= 0 && bestDistance <= searchedMeters) {
+                return best;
+            }
+        }
+
+        for (int fence = 0; fence < latitudes.length; fence++) {
+            double distance = distanceToBoundary(fence, latitude, longitude);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = fence;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Incremental loader backed by growable primitive arrays, for fixtures built fence by fence.
+     */
+    public static final class Builder {
+        private double[] latitudes = new double[64];
+        private double[] longitudes = new double[64];
+        private double[] radii = new double[64];
+        private int size;
+        private double cellMeters = Double.NaN;
+
+        public Builder add(double latitude, double longitude, double radiusMeters) {
+            if (size == latitudes.length) {
+                int capacity = size * 2;
+                latitudes = Arrays.copyOf(latitudes, capacity);
+                longitudes = Arrays.copyOf(longitudes, capacity);
+                radii = Arrays.copyOf(radii, capacity);
+            }
+            latitudes[size] = latitude;
+            longitudes[size] = longitude;
+            radii[size] = radiusMeters;
+            size++;
+            return this;
+        }
+
+        public Builder addAll(List<Geofence> fences) {
+            for (Geofence fence : fences) {
+                add(fence.getLatitude(), fence.getLongitude(), fence.getRadiusMeters());
+            }
+            return this;
+        }
+
+        /**
+         * Overrides the default grid cell size.
+         */
+        public Builder cellMeters(double cellMeters) {
+            this.cellMeters = cellMeters;
+            return this;
+        }
+
+        public GeofenceIndex build() {
+            double[] lats = Arrays.copyOf(latitudes, size);
+            double[] lons = Arrays.copyOf(longitudes, size);
+            double[] rads = Arrays.copyOf(radii, size);
+            double cell = Double.isNaN(cellMeters) ? defaultCellMeters(rads) : cellMeters;
+            return new GeofenceIndex(lats, lons, rads, cell);
+        }
+    }
+
+    /**
+     * Equirectangular distance in meters: several times cheaper than haversine and within a
+     * fraction of a percent of it at short range. Only used to rule candidates out.
+     */
+    private double approxDistance(int fence, double latitude, double longitude, double cosLat) {
+        double dLat = latitudes[fence] - latitude;
+        double dLon = longitudes[fence] - longitude;
+        if (dLon > 180) {
+            dLon -= 360;
+        } else if (dLon < -180) {
+            dLon += 360;
+        }
+        double x = dLon * cosLat;
+        return METERS_PER_DEGREE * Math.sqrt(x * x + dLat * dLat);
+    }
+
+    private double approxLowerBound(int fence, double latitude, double longitude, double cosLat) {
+        double approx = approxDistance(fence, latitude, longitude, cosLat);
+        if (approx >= APPROX_MAX_METERS) {
+            return 0;
+        }
+        return approx * (1 - APPROX_TOLERANCE) - APPROX_SLACK_METERS;
+    }
+
+    private boolean mayContain(int fence, double latitude, double longitude, double cosLat) {
+        return approxLowerBound(fence, latitude, longitude, cosLat) <= radii[fence];
+    }
+
+    private boolean mayBeCloser(int fence, double latitude, double longitude, double cosLat, double bestDistance) {
+        return approxLowerBound(fence, latitude, longitude, cosLat) - radii[fence] < bestDistance;
+    }
+
+    private long[] cellBounds(int fence) {
+        double latExtent = radii[fence] / METERS_PER_DEGREE;
+        // Use the poleward edge, where a degree of longitude is shortest
+        double edgeLat = Math.min(90, Math.abs(latitudes[fence]) + latExtent);
+        double cosLat = Math.max(Math.cos(Math.toRadians(edgeLat)), 1e-6);
+        double lonExtent = Math.min(180, latExtent / cosLat);
+        long firstColumn = rawColumn(longitudes[fence] - lonExtent);
+        long lastColumn = rawColumn(longitudes[fence] + lonExtent);
+        if (lastColumn - firstColumn + 1 >= columns) {
+            // Fence wraps the whole parallel; register each column once
+            firstColumn = 0;
+            lastColumn = columns - 1;
+        }
+        return new long[] {
+            row(latitudes[fence] - latExtent),
+            row(latitudes[fence] + latExtent),
+            firstColumn,
+            lastColumn
+        };
+    }
+
+    private long row(double latitude) {
+        return (long) Math.floor((Math.max(-90, Math.min(90, latitude)) + 90) / cellDegrees);
+    }
+
+    private long column(double longitude) {
+        return Math.floorMod(rawColumn(longitude), columns);
+    }
+
+    private long rawColumn(double longitude) {
+        return (long) Math.floor((longitude + 180) / cellDegrees);
+    }
+
+    private long cellKey(long row, long rawColumn) {
+        return row * columns + Math.floorMod(rawColumn, columns);
+    }
+
+    private static int findSlot(long[] keys, int mask, long key) {
+        int slot = (int) mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+}
@@ -0,0 +1,115 @@
+package com.automation.utils.geo;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Computes the geofence transitions a correct app should report for a location track.
+ *
+ * A fence is entered when a fix is within (radius - hysteresis) of its center and exited when a
+ * fix is farther than (radius + hysteresis); fixes inside the band keep the previous state, which
+ * mirrors how platform geofencing suppresses flapping at the boundary. Candidate fences for
+ * entry come from a {@link GeofenceIndex}; only fences currently inside are checked for exit,
+ * so cost per fix is proportional to nearby fences, not to the fixture size.
+ *
+ * Usage:
+ * <pre>
+ * GeofenceOracle oracle = new GeofenceOracle(mainScreen.getCreatedZones(), 10);
+ * List&lt;GeofenceTransition&gt; expected = oracle.evaluate(LocationSimulator.getLocationHistory());
+ * </pre>
+ */
+public class GeofenceOracle {
+    private final List<Geofence> fences;
+    private final GeofenceIndex index;
+    private final double hysteresisMeters;
+    private final boolean initialTriggerEnter;
+
+    /**
+     * Creates an oracle that reports ENTER for fences containing the first fix,
+     * like Android's default INITIAL_TRIGGER_ENTER.
+     */
+    public GeofenceOracle(List<Geofence> fences, double hysteresisMeters) {
+        this(fences, hysteresisMeters, true);
+    }
+
+    /**
+     * @param initialTriggerEnter if false, the first fix only establishes state and emits nothing
+     */
+    public GeofenceOracle(List<Geofence> fences, double hysteresisMeters, boolean initialTriggerEnter) {
+        if (hysteresisMeters < 0) {
+            throw new IllegalArgumentException("Hysteresis must not be negative: " + hysteresisMeters);
+        }
+        this.fences = List.copyOf(fences);
+        this.index = GeofenceIndex.of(this.fences);
+        this.hysteresisMeters = hysteresisMeters;
+        this.initialTriggerEnter = initialTriggerEnter;
+    }
+
+    public List<GeofenceTransition> evaluate(List<GeoPoint> track) {
+        return evaluate(track.iterator());
+    }
+
+    /**
+     * Replays the track and returns expected transitions in order.
+     * Within a single fix, exits are reported before entries.
+     */
+    public List<GeofenceTransition> evaluate(Iterator<GeoPoint> track) {
+        Run run = new Run();
+        while (track.hasNext()) {
+            run.step(track.next());
+        }
+        return run.transitions;
+    }
+
+    /**
+     * Per-evaluation state. Implements IntConsumer so index callbacks do not allocate per fix.
+     */
+    private final class Run implements IntConsumer {
+        private final boolean[] inside = new boolean[fences.size()];
+        private final int[] insideFences = new int[fences.size()];
+        private final List<GeofenceTransition> transitions = new ArrayList<>();
+        private int insideCount;
+        private long sampleIndex = -1;
+        private GeoPoint current;
+
+        void step(GeoPoint point) {
+            sampleIndex++;
+            current = point;
+            double lat = point.getLatitude();
+            double lon = point.getLongitude();
+
+            for (int k = 0; k < insideCount; ) {
+                int fence = insideFences[k];
+                if (index.distanceToCenter(fence, lat, lon) > index.radius(fence) + hysteresisMeters) {
+                    inside[fence] = false;
+                    insideFences[k] = insideFences[--insideCount];
+                    transitions.add(transition(fence, GeofenceTransition.Type.EXIT));
+                } else {
+                    k++;
+                }
+            }
+            index.forEachCandidate(lat, lon, this);
+        }
+
+        @Override
+        public void accept(int fence) {
+            if (inside[fence]) {
+                return;
+            }
+            double enterRadius = Math.max(0, index.radius(fence) - hysteresisMeters);
+            if (index.distanceToCenter(fence, current.getLatitude(), current.getLongitude()) <= enterRadius) {
+                inside[fence] = true;
+                insideFences[insideCount++] = fence;
+                if (sampleIndex > 0 || initialTriggerEnter) {
+                    transitions.add(transition(fence, GeofenceTransition.Type.ENTER));
+                }
+            }
+        }
+
+        private GeofenceTransition transition(int fence, GeofenceTransition.Type type) {
+            return new GeofenceTransition(fences.get(fence).getId(), type, sampleIndex, current);
+        }
+    }
+}
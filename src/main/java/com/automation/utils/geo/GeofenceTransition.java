@@ -0,0 +1,46 @@
+package com.automation.utils.geo;
+
+/**
+ * Expected geofence transition computed by {@link GeofenceOracle}.
+ */
+public final class GeofenceTransition {
+
+    public enum Type {
+        ENTER,
+        EXIT
+    }
+
+    private final String fenceId;
+    private final Type type;
+    private final long sampleIndex;
+    private final GeoPoint location;
+
+    public GeofenceTransition(String fenceId, Type type, long sampleIndex, GeoPoint location) {
+        this.fenceId = fenceId;
+        this.type = type;
+        this.sampleIndex = sampleIndex;
+        this.location = location;
+    }
+
+    public String getFenceId() {
+        return fenceId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /** Index of the track point that triggered the transition */
+    public long getSampleIndex() {
+        return sampleIndex;
+    }
+
+    public GeoPoint getLocation() {
+        return location;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + fenceId + " @" + sampleIndex + " " + location;
+    }
+}
@@ -0,0 +1,96 @@
+package com.automation.utils.geo;
+
+/**
+ * Allocation-free generator of points at a distance from a fixed center.
+ *
+ * Trigonometry of the center and of every bearing is computed once in the constructor;
+ * each {@link #generate} call then costs two sin/cos pairs per distance plus one asin/atan2
+ * per point and writes into caller-owned arrays. Uses the spherical model, so results carry
+ * the same ~0.3% error as {@link Geodesy#destination}; verify with
+ * {@link Geodesy#vincentyDistanceMeters} where exact geometry matters.
+ */
+public final class OffsetGenerator {
+    private final double centerLonRad;
+    private final double sinCenterLat;
+    private final double cosCenterLat;
+    private final double[] sinBearing;
+    private final double[] cosBearing;
+
+    /**
+     * Creates a generator with {@code bearingCount} bearings evenly spaced clockwise from north.
+     */
+    public OffsetGenerator(double centerLatitude, double centerLongitude, int bearingCount) {
+        this(centerLatitude, centerLongitude, evenlySpaced(bearingCount));
+    }
+
+    /**
+     * Creates a generator for explicit bearings in degrees (clockwise from north).
+     */
+    public OffsetGenerator(double centerLatitude, double centerLongitude, double[] bearingsDegrees) {
+        double centerLatRad = Math.toRadians(centerLatitude);
+        this.centerLonRad = Math.toRadians(centerLongitude);
+        this.sinCenterLat = Math.sin(centerLatRad);
+        this.cosCenterLat = Math.cos(centerLatRad);
+        this.sinBearing = new double[bearingsDegrees.length];
+        this.cosBearing = new double[bearingsDegrees.length];
+        for (int i = 0; i < bearingsDegrees.length; i++) {
+            double bearing = Math.toRadians(bearingsDegrees[i]);
+            sinBearing[i] = Math.sin(bearing);
+            cosBearing[i] = Math.cos(bearing);
+        }
+    }
+
+    private static double[] evenlySpaced(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("bearingCount must be positive: " + count);
+        }
+        double[] bearings = new double[count];
+        for (int i = 0; i < count; i++) {
+            bearings[i] = 360.0 * i / count;
+        }
+        return bearings;
+    }
+
+    /**
+     * @return number of bearings, i.e. points written per {@link #generate} call
+     */
+    public int size() {
+        return sinBearing.length;
+    }
+
+    /**
+     * Writes one point per bearing at {@code distanceMeters} from the center.
+     *
+     * @param latitudes  output latitudes, written from {@code offset} to {@code offset + size() - 1}
+     * @param longitudes output longitudes, same layout
+     * @return index after the last written element
+     */
+    public int generate(double distanceMeters, double[] latitudes, double[] longitudes, int offset) {
+        double delta = distanceMeters / Geodesy.EARTH_RADIUS_METERS;
+        double sinDelta = Math.sin(delta);
+        double cosDelta = Math.cos(delta);
+        double a = sinCenterLat * cosDelta;
+        double b = cosCenterLat * sinDelta;
+        for (int i = 0; i < sinBearing.length; i++) {
+            double sinLat = a + b * cosBearing[i];
+            double lon = centerLonRad + Math.atan2(sinBearing[i] * b, cosDelta - sinCenterLat * sinLat);
+            latitudes[offset + i] = Math.toDegrees(Math.asin(sinLat));
+            longitudes[offset + i] = Geodesy.normalizeLongitude(Math.toDegrees(lon));
+        }
+        return offset + sinBearing.length;
+    }
+
+    /**
+     * Writes a single point for one bearing into {@code out[0]} (latitude) and {@code out[1]} (longitude).
+     */
+    public void generate(int bearingIndex, double distanceMeters, double[] out) {
+        double delta = distanceMeters / Geodesy.EARTH_RADIUS_METERS;
+        double sinDelta = Math.sin(delta);
+        double cosDelta = Math.cos(delta);
+        double sinLat = sinCenterLat * cosDelta + cosCenterLat * sinDelta * cosBearing[bearingIndex];
+        double lon = centerLonRad + Math.atan2(sinBearing[bearingIndex] * sinDelta * cosCenterLat,
+            cosDelta - sinCenterLat * sinLat);
+        out[0] = Math.toDegrees(Math.asin(sinLat));
+        out[1] = Geodesy.normalizeLongitude(Math.toDegrees(lon));
+    }
+}
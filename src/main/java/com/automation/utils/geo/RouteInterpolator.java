@@ -0,0 +1,88 @@
+package com.automation.utils.geo;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Resamples a track into evenly spaced points along its path.
+ * Consumes the underlying source one vertex at a time, so it is as lazy as the source.
+ *
+ * The first and last vertices are always emitted; in between, a point is emitted
+ * every {@code stepMeters} of travelled distance, carrying the remainder across vertices.
+ */
+public class RouteInterpolator implements TrackSource {
+    /** A sample this close to the last vertex already is the last vertex */
+    private static final double END_TOLERANCE_METERS = 1e-6;
+
+    private final TrackSource source;
+    private final double stepMeters;
+
+    private GeoPoint segmentStart;
+    private GeoPoint segmentEnd;
+    private double segmentLength;
+    /** Distance along the current segment at which the next sample is due */
+    private double nextOffset;
+    private GeoPoint pending;
+    private boolean lastEmitted;
+
+    public RouteInterpolator(TrackSource source, double stepMeters) {
+        if (stepMeters <= 0) {
+            throw new IllegalArgumentException("stepMeters must be positive: " + stepMeters);
+        }
+        this.source = source;
+        this.stepMeters = stepMeters;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pending == null) {
+            pending = advance();
+        }
+        return pending != null;
+    }
+
+    @Override
+    public GeoPoint next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        GeoPoint result = pending;
+        pending = null;
+        return result;
+    }
+
+    private GeoPoint advance() {
+        if (segmentStart == null) {
+            if (!source.hasNext()) {
+                return null;
+            }
+            segmentStart = source.next();
+            segmentEnd = segmentStart;
+            nextOffset = stepMeters;
+            return segmentStart;
+        }
+        while (true) {
+            if (nextOffset <= segmentLength && segmentLength > 0) {
+                GeoPoint point = Geodesy.interpolate(segmentStart, segmentEnd, nextOffset / segmentLength);
+                nextOffset += stepMeters;
+                return point;
+            }
+            if (!source.hasNext()) {
+                if (!lastEmitted && segmentEnd != segmentStart
+                        && segmentLength - (nextOffset - stepMeters) > END_TOLERANCE_METERS) {
+                    lastEmitted = true;
+                    return segmentEnd;
+                }
+                return null;
+            }
+            nextOffset -= segmentLength;
+            segmentStart = segmentEnd;
+            segmentEnd = source.next();
+            segmentLength = Geodesy.distanceMeters(segmentStart, segmentEnd);
+        }
+    }
+
+    @Override
+    public void close() {
+        source.close();
+    }
+}
@@ -0,0 +1,254 @@
+package com.automation.utils.geo;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Factory for {@link TrackSource}s.
+ * File-backed sources read one point at a time, so tracks with tens of thousands of
+ * points are never fully materialized in memory.
+ *
+ * Supported inputs:
+ * - CSV: one "latitude,longitude[,...]" per line; blank lines, '#' comments and a header are skipped
+ * - GPX: trkpt and rtept elements, read with a StAX cursor
+ * - Encoded polyline (Google polyline algorithm, precision 5)
+ * - In-memory point list
+ */
+public final class TrackReader {
+    private static final Logger logger = LoggerFactory.getLogger(TrackReader.class);
+
+    private TrackReader() {
+    }
+
+    public static TrackSource csv(Path path) {
+        try {
+            return new CsvTrackSource(Files.newBufferedReader(path, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open CSV track: " + path, e);
+        }
+    }
+
+    public static TrackSource gpx(Path path) {
+        try {
+            return new GpxTrackSource(Files.newInputStream(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open GPX track: " + path, e);
+        }
+    }
+
+    /**
+     * Opens a track file, choosing the parser from the file extension (.gpx or .csv).
+     */
+    public static TrackSource open(Path path) {
+        String name = path.getFileName().toString().toLowerCase();
+        return name.endsWith(".gpx") ? gpx(path) : csv(path);
+    }
+
+    public static TrackSource polyline(String encoded) {
+        return new PolylineTrackSource(encoded);
+    }
+
+    public static TrackSource points(List<GeoPoint> points) {
+        Iterator<GeoPoint> delegate = points.iterator();
+        return new TrackSource() {
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            @Override
+            public GeoPoint next() {
+                return delegate.next();
+            }
+
+            @Override
+            public void close() {
+                // nothing to release
+            }
+        };
+    }
+
+    /**
+     * Base class for sources that compute the next point on demand.
+     */
+    private abstract static class LookaheadTrackSource implements TrackSource {
+        private GeoPoint next;
+        private boolean done;
+
+        /**
+         * @return next point, or null at end of track
+         */
+        protected abstract GeoPoint readNext();
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !done) {
+                next = readNext();
+                if (next == null) {
+                    done = true;
+                    close();
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public GeoPoint next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            GeoPoint result = next;
+            next = null;
+            return result;
+        }
+    }
+
+    private static final class CsvTrackSource extends LookaheadTrackSource {
+        private final BufferedReader reader;
+        private long lineNumber;
+
+        CsvTrackSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        protected GeoPoint readNext() {
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    String trimmed = line.trim();
+                    if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                        continue;
+                    }
+                    String[] parts = trimmed.split("[,;\\t]");
+                    if (parts.length < 2) {
+                        continue;
+                    }
+                    try {
+                        return new GeoPoint(Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim()));
+                    } catch (NumberFormatException e) {
+                        logger.debug("Skipping non-numeric CSV line {}: {}", lineNumber, trimmed);
+                    }
+                }
+                return null;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read CSV track at line " + lineNumber, e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close CSV track", e);
+            }
+        }
+    }
+
+    private static final class GpxTrackSource extends LookaheadTrackSource {
+        private final InputStream input;
+        private final XMLStreamReader reader;
+
+        GpxTrackSource(InputStream input) {
+            this.input = input;
+            try {
+                XMLInputFactory factory = XMLInputFactory.newFactory();
+                factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+                factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+                this.reader = factory.createXMLStreamReader(input);
+            } catch (XMLStreamException e) {
+                close();
+                throw new IllegalArgumentException("Invalid GPX track", e);
+            }
+        }
+
+        @Override
+        protected GeoPoint readNext() {
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                        String name = reader.getLocalName();
+                        if ("trkpt".equals(name) || "rtept".equals(name)) {
+                            return new GeoPoint(
+                                Double.parseDouble(reader.getAttributeValue(null, "lat")),
+                                Double.parseDouble(reader.getAttributeValue(null, "lon")));
+                        }
+                    }
+                }
+                return null;
+            } catch (XMLStreamException e) {
+                throw new IllegalStateException("Failed to parse GPX track", e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (reader != null) {
+                    reader.close();
+                }
+                input.close();
+            } catch (XMLStreamException | IOException e) {
+                logger.debug("Failed to close GPX track", e);
+            }
+        }
+    }
+
+    private static final class PolylineTrackSource extends LookaheadTrackSource {
+        private final String encoded;
+        private int index;
+        private int lat;
+        private int lon;
+
+        PolylineTrackSource(String encoded) {
+            this.encoded = encoded;
+        }
+
+        @Override
+        protected GeoPoint readNext() {
+            if (index >= encoded.length()) {
+                return null;
+            }
+            lat += decodeValue();
+            lon += decodeValue();
+            return new GeoPoint(lat / 1e5, lon / 1e5);
+        }
+
+        private int decodeValue() {
+            int result = 0;
+            int shift = 0;
+            int chunk;
+            do {
+                if (index >= encoded.length()) {
+                    throw new IllegalArgumentException("Truncated polyline at index " + index);
+                }
+                chunk = encoded.charAt(index++) - 63;
+                result |= (chunk & 0x1f) << shift;
+                shift += 5;
+            } while (chunk >= 0x20);
+            return (result & 1) != 0 ? ~(result >> 1) : (result >> 1);
+        }
+
+        @Override
+        public void close() {
+            // nothing to release
+        }
+    }
+}
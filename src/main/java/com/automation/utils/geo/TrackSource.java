@@ -0,0 +1,13 @@
+package com.automation.utils.geo;
+
+import java.util.Iterator;
+
+/**
+ * Lazily produced sequence of track points.
+ * Implementations backed by files keep the file open until {@link #close()}.
+ */
+public interface TrackSource extends Iterator<GeoPoint>, AutoCloseable {
+
+    @Override
+    void close();
+}
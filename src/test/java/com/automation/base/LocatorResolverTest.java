@@ -0,0 +1,55 @@
+package com.automation.base;
+
+import io.appium.java_client.AppiumBy;
+import org.openqa.selenium.By;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Unit tests for the winner cache of {@link LocatorResolver}.
+ */
+public class LocatorResolverTest {
+    private static final List<By> CANDIDATES = List.of(
+        AppiumBy.id("de.egi.geofence.geozone:id/geofence_latitude"),
+        AppiumBy.id("de.egi.geofence.geozone:id/editTextLat"));
+
+    @Test
+    public void winnerIsPersistedPerAppVersion() throws Exception {
+        Path dir = Files.createTempDirectory("locator-cache");
+        Path file = dir.resolve("cache.properties");
+        try {
+            LocatorResolver first = new LocatorResolver(file, "3.2.7");
+            String key = first.key("MainScreen", CANDIDATES);
+            Assert.assertEquals(first.preferredIndex(key, CANDIDATES.size()), 0);
+            first.recordWinner(key, 1);
+
+            LocatorResolver reloaded = new LocatorResolver(file, "3.2.7");
+            Assert.assertEquals(reloaded.preferredIndex(reloaded.key("MainScreen", CANDIDATES), CANDIDATES.size()), 1);
+
+            LocatorResolver otherBuild = new LocatorResolver(file, "3.2.8");
+            Assert.assertEquals(otherBuild.preferredIndex(otherBuild.key("MainScreen", CANDIDATES), CANDIDATES.size()), 0);
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    @Test
+    public void outOfRangeWinnerFallsBackToPrimary() throws Exception {
+        Path dir = Files.createTempDirectory("locator-cache");
+        Path file = dir.resolve("cache.properties");
+        try {
+            LocatorResolver resolver = new LocatorResolver(file, "3.2.7");
+            String key = resolver.key("MainScreen", CANDIDATES);
+            resolver.recordWinner(key, 5);
+            Assert.assertEquals(resolver.preferredIndex(key, CANDIDATES.size()), 0);
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+}
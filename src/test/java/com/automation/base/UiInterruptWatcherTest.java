@@ -0,0 +1,67 @@
+package com.automation.base;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Unit tests for {@link UiInterruptWatcher} with a scripted page source instead of a device.
+ */
+public class UiInterruptWatcherTest {
+    private static final String CLEAR = "<hierarchy><android.widget.FrameLayout class=\"android.widget.FrameLayout\""
+        + " resource-id=\"de.egi.geofence.geozone:id/map\" displayed=\"true\"/></hierarchy>";
+    private static final String GRANT_DIALOG = "<hierarchy><android.widget.LinearLayout class=\"android.widget.LinearLayout\""
+        + " resource-id=\"com.android.permissioncontroller:id/grant_dialog\" displayed=\"true\">"
+        + "<android.widget.Button class=\"android.widget.Button\""
+        + " resource-id=\"com.android.permissioncontroller:id/permission_allow_foreground_only_button\""
+        + " text=\"While using the app\" displayed=\"true\"/></android.widget.LinearLayout></hierarchy>";
+    private static final String RATIONALE = "<hierarchy><android.widget.LinearLayout class=\"android.widget.LinearLayout\""
+        + " resource-id=\"de.egi.geofence.geozone:id/parentPanel\" displayed=\"true\">"
+        + "<android.widget.Button class=\"android.widget.Button\" resource-id=\"android:id/button1\" text=\"OK\""
+        + " displayed=\"true\"/></android.widget.LinearLayout></hierarchy>";
+
+    @Test
+    public void dismissesDialogAndSignalsClear() throws Exception {
+        AtomicBoolean dialogOpen = new AtomicBoolean(true);
+        List<String> clicks = new CopyOnWriteArrayList<>();
+
+        try (UiInterruptWatcher watcher = new UiInterruptWatcher(
+                () -> dialogOpen.get() ? GRANT_DIALOG : CLEAR,
+                id -> {
+                    clicks.add(id);
+                    dialogOpen.set(false);
+                }, 20, 200)) {
+            long start = System.nanoTime();
+            Assert.assertTrue(watcher.awaitClear(Duration.ofSeconds(5)));
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            Assert.assertEquals(clicks, List.of("com.android.permissioncontroller:id/permission_allow_foreground_only_button"));
+            Assert.assertTrue(elapsedMillis >= 200 && elapsedMillis < 2000, "elapsed " + elapsedMillis);
+        }
+    }
+
+    @Test
+    public void waitsOutRationaleWithoutClickingIt() throws Exception {
+        AtomicBoolean dialogOpen = new AtomicBoolean(true);
+        List<String> clicks = new CopyOnWriteArrayList<>();
+
+        try (UiInterruptWatcher watcher = new UiInterruptWatcher(
+                () -> dialogOpen.get() ? RATIONALE : CLEAR, clicks::add, 20, 200)) {
+            Thread.sleep(300);
+            dialogOpen.set(false);
+            Assert.assertTrue(watcher.awaitClear(Duration.ofSeconds(5)));
+            Assert.assertTrue(clicks.isEmpty(), "clicked " + clicks);
+        }
+    }
+
+    @Test
+    public void reportsBlockedWhenDialogDoesNotClose() throws Exception {
+        try (UiInterruptWatcher watcher = new UiInterruptWatcher(() -> RATIONALE, id -> { }, 20, 200)) {
+            Assert.assertFalse(watcher.awaitClear(Duration.ofMillis(500)));
+        }
+    }
+}
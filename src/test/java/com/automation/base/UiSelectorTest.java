@@ -0,0 +1,42 @@
+package com.automation.base;
+
+import io.appium.java_client.AppiumBy;
+import org.openqa.selenium.By;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for {@link UiSelector}.
+ */
+public class UiSelectorTest {
+
+    @Test
+    public void compilesChainedCriteria() {
+        UiSelector selector = UiSelector.className("android.widget.LinearLayout")
+            .resourceId("de.egi.geofence.geozone:id/content").instance(0);
+
+        Assert.assertEquals(selector.toString(), "new UiSelector().className(\"android.widget.LinearLayout\")"
+            + ".resourceId(\"de.egi.geofence.geozone:id/content\").instance(0)");
+        Assert.assertEquals(selector.toBy(), AppiumBy.androidUIAutomator(selector.toString()));
+    }
+
+    @Test
+    public void compilesDescendantAndEscapesQuotes() {
+        UiSelector selector = UiSelector.className("android.widget.ListView")
+            .descendant(UiSelector.any().text("Say \"hi\""));
+
+        Assert.assertEquals(selector.toString(), "new UiSelector().className(\"android.widget.ListView\")"
+            + ".childSelector(new UiSelector().text(\"Say \\\"hi\\\"\"))");
+    }
+
+    @Test
+    public void lintFindsOnlyXPathFields() {
+        Object page = new Object() {
+            private final By byId = AppiumBy.id("android:id/button1");
+            private final By toast = AppiumBy.xpath("//android.widget.Toast");
+        };
+
+        Assert.assertEquals(LocatorLint.xpathFields(page).size(), 1);
+        Assert.assertEquals(LocatorLint.xpathFields(page).get(0).getName(), "toast");
+    }
+}
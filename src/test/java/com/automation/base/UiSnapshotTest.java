@@ -0,0 +1,51 @@
+package com.automation.base;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for {@link UiSnapshot}.
+ */
+public class UiSnapshotTest {
+    private static final String SOURCE = "<?xml version='1.0' encoding='UTF-8' standalone='yes' ?>"
+        + "<hierarchy index=\"0\" class=\"hierarchy\" rotation=\"0\" width=\"1080\" height=\"2400\">"
+        + "<android.widget.FrameLayout index=\"0\" class=\"android.widget.FrameLayout\" displayed=\"true\">"
+        + "<android.widget.ListView index=\"0\" class=\"android.widget.ListView\""
+        + " resource-id=\"de.egi.geofence.geozone:id/list\" displayed=\"true\">"
+        + "<android.widget.RelativeLayout index=\"0\" class=\"android.widget.RelativeLayout\" displayed=\"true\">"
+        + "<android.widget.TextView index=\"0\" class=\"android.widget.TextView\" text=\"TestGeofence_1\""
+        + " resource-id=\"de.egi.geofence.geozone:id/zone_name\" displayed=\"true\"/>"
+        + "</android.widget.RelativeLayout>"
+        + "<android.widget.RelativeLayout index=\"1\" class=\"android.widget.RelativeLayout\" displayed=\"true\"/>"
+        + "</android.widget.ListView>"
+        + "<android.widget.TextView index=\"1\" class=\"android.widget.TextView\" text=\"Hidden\""
+        + " resource-id=\"com.example:id/snackbar_text\" displayed=\"false\"/>"
+        + "<android.widget.TextView index=\"2\" class=\"android.widget.TextView\" text=\"Linear distance to fence about 120 m\""
+        + " resource-id=\"de.egi.geofence.geozone:id/drawer_item_zone_dist\" displayed=\"true\"/>"
+        + "</android.widget.FrameLayout>"
+        + "<android.widget.Toast class=\"android.widget.Toast\" text=\"Zone saved\" package=\"com.android.settings\"/>"
+        + "</hierarchy>";
+
+    @Test
+    public void answersQueriesFromOneDocument() {
+        UiSnapshot snapshot = UiSnapshot.parse(SOURCE);
+
+        Assert.assertEquals(snapshot.countDescendants("android.widget.ListView", "android.widget.RelativeLayout"), 2);
+        Assert.assertEquals(snapshot.text(snapshot.first("android.widget.Toast", null)), "Zone saved");
+        Assert.assertEquals(snapshot.first("android.widget.TextView", "snackbar"), -1, "hidden nodes are skipped");
+        Assert.assertEquals(snapshot.text(snapshot.first(null, "drawer_item_zone_dist")),
+            "Linear distance to fence about 120 m");
+        Assert.assertEquals(snapshot.byResourceId("de.egi.geofence.geozone:id/list").length, 1);
+        Assert.assertEquals(snapshot.byClass("android.widget.TextView").length, 3);
+        Assert.assertTrue(snapshot.containsText("testgeofence"));
+        Assert.assertFalse(snapshot.containsText("entered"));
+    }
+
+    @Test
+    public void emptySourceGivesEmptySnapshot() {
+        UiSnapshot snapshot = UiSnapshot.parse("");
+
+        Assert.assertEquals(snapshot.size(), 0);
+        Assert.assertEquals(snapshot.first(null, null), -1);
+    }
+}
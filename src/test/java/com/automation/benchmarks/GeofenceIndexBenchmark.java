@@ -0,0 +1,79 @@
+package com.automation.benchmarks;
+
+import com.automation.utils.geo.GeofenceIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark for {@link GeofenceIndex} queries on a city-sized fixture.
+ *
+ * Not part of the TestNG suite. Run after {@code mvn test-compile} with:
+ * <pre>
+ * mvn dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp "target/test-classes:target/classes:$(cat target/cp.txt)" com.automation.benchmarks.GeofenceIndexBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeofenceIndexBenchmark {
+    private static final int QUERY_COUNT = 4096;
+
+    @Param({"1000", "10000"})
+    private int fences;
+
+    private GeofenceIndex index;
+    private final double[] queryLats = new double[QUERY_COUNT];
+    private final double[] queryLons = new double[QUERY_COUNT];
+    private final int[] out = new int[64];
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(1);
+        GeofenceIndex.Builder builder = new GeofenceIndex.Builder();
+        for (int i = 0; i < fences; i++) {
+            builder.add(37.6 + random.nextDouble() * 0.4, -122.6 + random.nextDouble() * 0.4,
+                50 + random.nextDouble() * 150);
+        }
+        index = builder.build();
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            queryLats[i] = 37.6 + random.nextDouble() * 0.4;
+            queryLons[i] = -122.6 + random.nextDouble() * 0.4;
+        }
+    }
+
+    @Benchmark
+    public int containing() {
+        int i = cursor++ & (QUERY_COUNT - 1);
+        return index.containing(queryLats[i], queryLons[i], out);
+    }
+
+    @Benchmark
+    public int nearest() {
+        int i = cursor++ & (QUERY_COUNT - 1);
+        return index.nearest(queryLats[i], queryLons[i]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(GeofenceIndexBenchmark.class.getSimpleName()).build()).run();
+    }
+}
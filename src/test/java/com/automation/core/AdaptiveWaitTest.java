@@ -0,0 +1,98 @@
+package com.automation.core;
+
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link AdaptiveWait} against a proxy driver that only records timeouts calls.
+ */
+public class AdaptiveWaitTest {
+    private final List<Duration> implicitWaitCalls = new ArrayList<>();
+
+    @BeforeMethod
+    public void resetCalls() {
+        implicitWaitCalls.clear();
+    }
+
+    @Test
+    public void suspendsImplicitWaitWhilePolling() {
+        WebDriver driver = fakeDriver();
+        AdaptiveWait.setImplicitWait(driver, Duration.ofSeconds(10));
+        AdaptiveWait.setImplicitWait(driver, Duration.ofSeconds(10));
+        Assert.assertEquals(implicitWaitCalls, List.of(Duration.ofSeconds(10)), "unchanged value is not resent");
+
+        AtomicInteger polls = new AtomicInteger();
+        String result = new AdaptiveWait(driver, Duration.ofSeconds(5)).until(d -> {
+            Assert.assertEquals(implicitWaitCalls.get(implicitWaitCalls.size() - 1), Duration.ZERO);
+            return polls.incrementAndGet() == 3 ? "ready" : null;
+        });
+
+        Assert.assertEquals(result, "ready");
+        Assert.assertEquals(implicitWaitCalls, List.of(Duration.ofSeconds(10), Duration.ZERO, Duration.ofSeconds(10)));
+        AdaptiveWait.forget(driver);
+    }
+
+    @Test
+    public void pollsQuicklyAndTimesOutWithinBudget() {
+        WebDriver driver = fakeDriver();
+        AdaptiveWait.setImplicitWait(driver, Duration.ZERO);
+
+        AtomicInteger polls = new AtomicInteger();
+        long start = System.nanoTime();
+        try {
+            new AdaptiveWait(driver, Duration.ofMillis(1000)).until(d -> {
+                polls.incrementAndGet();
+                return false;
+            });
+            Assert.fail("Expected a timeout");
+        } catch (TimeoutException e) {
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            Assert.assertTrue(elapsedMillis >= 1000 && elapsedMillis < 1500, "elapsed " + elapsedMillis);
+        }
+        // 50, 75, 113, 170, 255, 383, 500... ms: more polls than the 2 a fixed 500 ms interval allows
+        Assert.assertTrue(polls.get() >= 6, "polls " + polls.get());
+        Assert.assertTrue(AdaptiveWait.latencyReport().contains("timeouts=1"), AdaptiveWait.latencyReport());
+        AdaptiveWait.forget(driver);
+    }
+
+    private WebDriver fakeDriver() {
+        WebDriver.Timeouts timeouts = proxy(WebDriver.Timeouts.class, (method, args) -> {
+            if (method.equals("implicitlyWait")) {
+                implicitWaitCalls.add((Duration) args[0]);
+            }
+            return null;
+        });
+        WebDriver.Options options = proxy(WebDriver.Options.class,
+            (method, args) -> method.equals("timeouts") ? timeouts : null);
+        return proxy(WebDriver.class, (method, args) -> method.equals("manage") ? options : null);
+    }
+
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(self);
+                case "equals":
+                    return self == args[0];
+                case "toString":
+                    return "fake " + type.getSimpleName();
+                default:
+                    return handler.handle(method.getName(), args);
+            }
+        });
+    }
+}
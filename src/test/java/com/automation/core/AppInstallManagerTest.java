@@ -0,0 +1,178 @@
+package com.automation.core;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link AppInstallManager} against a fake adb that keeps per-device state.
+ */
+public class AppInstallManagerTest {
+    private static final String PACKAGE = "de.egi.geofence.geozone";
+    private static final String MARKER = "/data/local/tmp/" + PACKAGE + ".apk.sha256";
+
+    private Path apk;
+
+    @BeforeMethod
+    public void writeApk() throws IOException {
+        apk = Files.createTempFile("app", ".apk");
+        Files.write(apk, "not really an apk".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteApk() throws IOException {
+        Files.deleteIfExists(apk);
+    }
+
+    /**
+     * Answers the commands AppInstallManager sends, like a device would.
+     */
+    private static class FakeAdb implements AppInstallManager.Adb {
+        final Map<String, String> markers = new ConcurrentHashMap<>();
+        final Map<String, String> updateTimes = new ConcurrentHashMap<>();
+        final List<String> installs = new CopyOnWriteArrayList<>();
+        final List<Boolean> overlapped = new CopyOnWriteArrayList<>();
+        volatile CountDownLatch installsRunning = new CountDownLatch(0);
+
+        @Override
+        public void install(String udid, Path apk, Duration timeout) {
+            installsRunning.countDown();
+            try {
+                // True only if the other installs reach this point while this one is still running
+                overlapped.add(installsRunning.await(2, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            installs.add(udid);
+            updateTimes.put(udid, "2026-10-16 12:00:0" + installs.size());
+        }
+
+        @Override
+        public String shell(String udid, String command) {
+            if (command.startsWith("echo '")) {
+                markers.put(udid, command.substring(6, command.lastIndexOf('\'')));
+                return "";
+            }
+            StringBuilder output = new StringBuilder();
+            if (command.startsWith("cat " + MARKER) && markers.containsKey(udid)) {
+                output.append(markers.get(udid)).append('\n');
+            }
+            if (updateTimes.containsKey(udid)) {
+                output.append("    lastUpdateTime=").append(updateTimes.get(udid)).append('\n');
+            }
+            return output.toString();
+        }
+    }
+
+    private static AppInstallManager manager(FakeAdb adb) {
+        return new AppInstallManager(adb, 4, Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void installsOncePerDeviceAndWritesMarker() throws Exception {
+        FakeAdb adb = new FakeAdb();
+        AppInstallManager manager = manager(adb);
+
+        Assert.assertTrue(manager.install("emulator-5554", apk, PACKAGE).get(5, TimeUnit.SECONDS));
+        Assert.assertTrue(manager.install("emulator-5554", apk, PACKAGE).get(5, TimeUnit.SECONDS));
+
+        Assert.assertEquals(adb.installs, List.of("emulator-5554"));
+        Assert.assertEquals(adb.markers.get("emulator-5554"),
+            AppInstallManager.sha256(apk) + " " + adb.updateTimes.get("emulator-5554"));
+    }
+
+    @Test
+    public void skipsDeviceThatRunsTheSameBuild() throws Exception {
+        FakeAdb adb = new FakeAdb();
+        manager(adb).install("emulator-5554", apk, PACKAGE).get(5, TimeUnit.SECONDS);
+
+        // Next run: new manager, device state kept
+        Assert.assertTrue(manager(adb).install("emulator-5554", apk, PACKAGE).get(5, TimeUnit.SECONDS));
+
+        Assert.assertEquals(adb.installs.size(), 1);
+    }
+
+    @Test
+    public void reinstallsWhenApkOrInstalledAppChanged() throws Exception {
+        FakeAdb adb = new FakeAdb();
+        manager(adb).install("emulator-5554", apk, PACKAGE).get(5, TimeUnit.SECONDS);
+        manager(adb).install("emulator-5556", apk, PACKAGE).get(5, TimeUnit.SECONDS);
+
+        Files.write(apk, "next build".getBytes(StandardCharsets.UTF_8));
+        adb.updateTimes.put("emulator-5556", "2026-10-16 13:00:00");
+        manager(adb).install("emulator-5554", apk, PACKAGE).get(5, TimeUnit.SECONDS);
+        manager(adb).install("emulator-5556", apk, PACKAGE).get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(adb.installs.size(), 4);
+    }
+
+    @Test
+    public void installsDevicesInParallel() throws Exception {
+        FakeAdb adb = new FakeAdb();
+        adb.installsRunning = new CountDownLatch(2);
+        AppInstallManager manager = manager(adb);
+
+        CompletableFuture<Boolean> first = manager.install("emulator-5554", apk, PACKAGE);
+        CompletableFuture<Boolean> second = manager.install("emulator-5556", apk, PACKAGE);
+
+        Assert.assertTrue(first.get(5, TimeUnit.SECONDS));
+        Assert.assertTrue(second.get(5, TimeUnit.SECONDS));
+        Assert.assertEquals(adb.overlapped, List.of(true, true));
+    }
+
+    @Test
+    public void failedInstallReportsFalse() throws Exception {
+        FakeAdb adb = new FakeAdb() {
+            @Override
+            public void install(String udid, Path apk, Duration timeout) {
+                throw new RuntimeException("APK installation failed on " + udid + ": Failure [INSTALL_FAILED_OLDER_SDK]");
+            }
+        };
+        AppInstallManager manager = manager(adb);
+
+        Assert.assertFalse(manager.install("emulator-5554", apk, PACKAGE).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void retriesAfterFailedInstall() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        FakeAdb adb = new FakeAdb() {
+            @Override
+            public void install(String udid, Path apk, Duration timeout) {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new RuntimeException("APK installation timed out on " + udid);
+                }
+                super.install(udid, apk, timeout);
+            }
+        };
+        AppInstallManager manager = manager(adb);
+
+        Assert.assertFalse(manager.install("emulator-5554", apk, PACKAGE).get(5, TimeUnit.SECONDS));
+        Assert.assertTrue(manager.install("emulator-5554", apk, PACKAGE).get(5, TimeUnit.SECONDS));
+
+        Assert.assertEquals(attempts.get(), 2);
+        Assert.assertEquals(adb.installs, List.of("emulator-5554"));
+    }
+
+    @Test
+    public void readsUpdateTime() {
+        Assert.assertEquals(AppInstallManager.updateTime("abc 1\n    lastUpdateTime=2026-10-16 12:00:00\n"),
+            "2026-10-16 12:00:00");
+        Assert.assertNull(AppInstallManager.updateTime(""));
+    }
+}
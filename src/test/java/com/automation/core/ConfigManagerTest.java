@@ -0,0 +1,75 @@
+package com.automation.core;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for profile overlays of {@link ConfigManager}, using temporary property files.
+ */
+public class ConfigManagerTest {
+    private Path directory;
+    private Path base;
+
+    @BeforeMethod
+    public void writeFiles() throws IOException {
+        directory = Files.createTempDirectory("config");
+        base = directory.resolve("application.properties");
+        Files.writeString(base, "config.profiles=ci\nmatrix.test.udid=emulator-5554\nmatrix.test.version=13.0\n"
+            + "matrix.test.timeout=30\n");
+        Files.writeString(directory.resolve("application-ci.properties"), "matrix.test.timeout=60\n");
+        Files.writeString(directory.resolve("application-api30.properties"),
+            "matrix.test.udid=emulator-5556\nmatrix.test.version=11.0\nmatrix.test.timeout=90\n");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void appliesConfiguredProfilesOverBaseFile() {
+        ConfigManager config = new ConfigManager(base, null);
+
+        Assert.assertEquals(config.getProfiles(), List.of("ci"));
+        Assert.assertEquals(config.getProperty("matrix.test.udid"), "emulator-5554");
+        Assert.assertEquals(config.getIntProperty("matrix.test.timeout", 0), 60);
+    }
+
+    @Test
+    public void extraProfileIsAppliedLast() {
+        ConfigManager config = new ConfigManager(base, "api30");
+
+        Assert.assertEquals(config.getProfiles(), List.of("ci", "api30"));
+        Assert.assertEquals(config.getProperty("matrix.test.udid"), "emulator-5556");
+        Assert.assertEquals(config.getProperty("matrix.test.version"), "11.0");
+        Assert.assertEquals(config.getIntProperty("matrix.test.timeout", 0), 90);
+    }
+
+    @Test
+    public void reloadPicksUpChangedOverlay() throws IOException {
+        ConfigManager config = new ConfigManager(base, "api30");
+        Files.writeString(directory.resolve("application-api30.properties"), "matrix.test.udid=emulator-5558\n");
+
+        Assert.assertTrue(config.reload());
+        Assert.assertEquals(config.getProperty("matrix.test.udid"), "emulator-5558");
+        Assert.assertEquals(config.getIntProperty("matrix.test.timeout", 0), 60);
+    }
+
+    @Test(expectedExceptions = RuntimeException.class)
+    public void missingProfileFileFails() {
+        new ConfigManager(base, "no-such-profile");
+    }
+}
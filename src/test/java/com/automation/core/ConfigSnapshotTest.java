@@ -0,0 +1,91 @@
+package com.automation.core;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link ConfigSnapshot} with fake environment and system property layers.
+ */
+public class ConfigSnapshotTest {
+
+    private static ConfigSnapshot snapshot(Map<String, String> file, Map<String, String> env, Map<String, String> system) {
+        return new ConfigSnapshot(file, env::get, system::get);
+    }
+
+    @Test
+    public void environmentOverridesSystemOverridesFile() {
+        Map<String, String> file = Map.of("device.udid", "file", "device.name", "file", "appium.port", "4723");
+        Map<String, String> env = Map.of("DEVICE_UDID", "env");
+        Map<String, String> system = Map.of("device.udid", "system", "device.name", "system");
+
+        ConfigSnapshot config = snapshot(file, env, system);
+
+        Assert.assertEquals(config.get("device.udid"), "env");
+        Assert.assertEquals(config.get("device.name"), "system");
+        Assert.assertEquals(config.get("appium.port"), "4723");
+        Assert.assertNull(config.get("missing.key"));
+    }
+
+    @Test
+    public void keysOutsideTheFileAreResolvedOnceFromEnvironment() {
+        AtomicInteger lookups = new AtomicInteger();
+        ConfigSnapshot config = new ConfigSnapshot(Map.of(), name -> {
+            lookups.incrementAndGet();
+            return "LOCATOR_LINT_ENABLED".equals(name) ? "true" : null;
+        }, name -> null);
+
+        Assert.assertEquals(config.get("locator.lint.enabled"), "true");
+        Assert.assertEquals(config.get("locator.lint.enabled"), "true");
+        Assert.assertNull(config.get("locator.lint.samples"));
+        Assert.assertNull(config.get("locator.lint.samples"));
+        Assert.assertEquals(lookups.get(), 2);
+    }
+
+    @Test
+    public void interpolatesReferences() {
+        Map<String, String> file = new HashMap<>();
+        file.put("ci.jenkins.build.url", "${BUILD_URL}");
+        file.put("ci.allure.report.url", "${ci.jenkins.build.url}allure/");
+        file.put("ci.jenkins.workspace", "${WORKSPACE:-/tmp/workspace}");
+        file.put("ci.branch", "${BRANCH_NAME:-main}");
+        file.put("ci.node", "${NODE_NAME}");
+        file.put("user.folder", "${sys:user.home}/screens");
+        Map<String, String> env = Map.of("BUILD_URL", "https://ci/job/7/", "BRANCH_NAME", "");
+        Map<String, String> system = Map.of("user.home", "/home/qa");
+
+        ConfigSnapshot config = snapshot(file, env, system);
+
+        Assert.assertEquals(config.get("ci.jenkins.build.url"), "https://ci/job/7/");
+        Assert.assertEquals(config.get("ci.allure.report.url"), "https://ci/job/7/allure/");
+        Assert.assertEquals(config.get("ci.jenkins.workspace"), "/tmp/workspace");
+        Assert.assertEquals(config.get("ci.branch"), "main");
+        Assert.assertEquals(config.get("ci.node"), "${NODE_NAME}");
+        Assert.assertEquals(config.get("user.folder"), "/home/qa/screens");
+    }
+
+    @Test
+    public void circularReferencesAreLeftAsWritten() {
+        ConfigSnapshot config = snapshot(Map.of("a", "${b}", "b", "${a}"), Map.of(), Map.of());
+
+        Assert.assertEquals(config.get("a"), "${a}");
+    }
+
+    @Test
+    public void parsesTypedValuesAndRejectsInvalidOnes() {
+        Map<String, String> file = Map.of("wait.timeout", " 30 ", "wait.poll.factor", "1.5",
+            "appium.port", "47x23", "reset", "TRUE");
+
+        ConfigSnapshot config = snapshot(file, Map.of(), Map.of());
+
+        Assert.assertEquals(config.getInt("wait.timeout"), Integer.valueOf(30));
+        Assert.assertEquals(config.getDouble("wait.poll.factor"), 1.5);
+        Assert.assertNull(config.getInt("appium.port"));
+        Assert.assertNull(config.getInt("missing"));
+        Assert.assertEquals(config.getBoolean("reset"), Boolean.TRUE);
+        Assert.assertNull(config.getBoolean("missing"));
+    }
+}
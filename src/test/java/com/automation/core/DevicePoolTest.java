@@ -0,0 +1,84 @@
+package com.automation.core;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link DevicePool} leasing.
+ */
+public class DevicePoolTest {
+
+    private static DevicePool pool(long leaseTimeoutSeconds, String... udids) throws Exception {
+        List<DeviceSlot> slots = new ArrayList<>();
+        for (int i = 0; i < udids.length; i++) {
+            slots.add(new DeviceSlot(udids[i], new URL("http://localhost:4723"), 8200 + i, "profile" + i));
+        }
+        return new DevicePool(slots, leaseTimeoutSeconds, 2);
+    }
+
+    @Test
+    public void leasesRequestedDevice() throws Exception {
+        DevicePool pool = pool(1, "emulator-5554", "emulator-5556");
+
+        DeviceSlot slot = pool.lease("emulator-5556");
+
+        Assert.assertEquals(slot.getUdid(), "emulator-5556");
+        Assert.assertEquals(slot.getProfile(), "profile1");
+        Assert.assertEquals(pool.lease().getUdid(), "emulator-5554");
+    }
+
+    @Test
+    public void waitsUntilRequestedDeviceIsReleased() throws Exception {
+        DevicePool pool = pool(5, "emulator-5554");
+        DeviceSlot slot = pool.lease("emulator-5554");
+
+        CompletableFuture<DeviceSlot> waiting = CompletableFuture.supplyAsync(() -> pool.lease("emulator-5554"));
+        Thread.sleep(100);
+        Assert.assertFalse(waiting.isDone());
+
+        pool.release(slot, true);
+        Assert.assertSame(waiting.get(2, TimeUnit.SECONDS), slot);
+    }
+
+    @Test
+    public void tryLeaseDoesNotWait() throws Exception {
+        DevicePool pool = pool(5, "emulator-5554");
+
+        DeviceSlot slot = pool.tryLease();
+
+        Assert.assertEquals(slot.getUdid(), "emulator-5554");
+        Assert.assertNull(pool.tryLease());
+        pool.release(slot, true);
+        Assert.assertSame(pool.tryLease(), slot);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class, expectedExceptionsMessageRegExp = ".*within 1s")
+    public void leaseTimesOut() throws Exception {
+        DevicePool pool = pool(1, "emulator-5554");
+        pool.lease("emulator-5554");
+
+        pool.lease("emulator-5554");
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class, expectedExceptionsMessageRegExp = ".*not in the pool.*")
+    public void unknownDeviceIsRejected() throws Exception {
+        pool(1, "emulator-5554").lease("emulator-5558");
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class, expectedExceptionsMessageRegExp = ".*quarantined")
+    public void quarantinedDeviceCannotBeLeased() throws Exception {
+        DevicePool pool = pool(5, "emulator-5554", "emulator-5556");
+        DeviceSlot slot = pool.lease("emulator-5554");
+        pool.release(slot, false);
+        slot = pool.lease("emulator-5554");
+        pool.release(slot, false);
+
+        pool.lease("emulator-5554");
+    }
+}
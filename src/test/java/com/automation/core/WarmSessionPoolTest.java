@@ -0,0 +1,170 @@
+package com.automation.core;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link WarmSessionPool} with sessions that are plain strings.
+ */
+public class WarmSessionPoolTest {
+
+    /**
+     * Starts "session-N@udid", optionally held until {@code started} is released.
+     */
+    private static class FakeSessions implements WarmSessionPool.Sessions<String> {
+        final AtomicInteger starts = new AtomicInteger();
+        final List<String> quit = new CopyOnWriteArrayList<>();
+        volatile CountDownLatch started = new CountDownLatch(0);
+        volatile boolean failing;
+
+        @Override
+        public String start(DeviceSlot slot) {
+            int number = starts.incrementAndGet();
+            try {
+                started.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failing) {
+                throw new RuntimeException("Appium refused the session");
+            }
+            return "session-" + number + "@" + slot.getUdid();
+        }
+
+        @Override
+        public void quit(String session) {
+            quit.add(session);
+        }
+    }
+
+    private static DeviceSlot slot(String udid) throws Exception {
+        return new DeviceSlot(udid, new URL("http://localhost:4723"), 8200);
+    }
+
+    @Test
+    public void handsOverSessionStartedOnTheDevice() throws Exception {
+        FakeSessions sessions = new FakeSessions();
+        WarmSessionPool<String> pool = new WarmSessionPool<>(sessions, 2, Duration.ofMinutes(1));
+        DeviceSlot device = slot("emulator-5554");
+
+        Assert.assertTrue(pool.warm(device));
+
+        Assert.assertEquals(pool.take(device), "session-1@emulator-5554");
+        Assert.assertNull(pool.take(device), "a session is handed over once");
+        Assert.assertNull(pool.take(slot("emulator-5556")));
+        Assert.assertEquals(sessions.starts.get(), 1);
+    }
+
+    @Test
+    public void takeWaitsForSessionStillStarting() throws Exception {
+        FakeSessions sessions = new FakeSessions();
+        sessions.started = new CountDownLatch(1);
+        WarmSessionPool<String> pool = new WarmSessionPool<>(sessions, 1, Duration.ofMinutes(1));
+        DeviceSlot device = slot("emulator-5554");
+        pool.warm(device);
+
+        CompletableFuture<String> taken = CompletableFuture.supplyAsync(() -> pool.take(device));
+        Thread.sleep(100);
+        Assert.assertFalse(taken.isDone());
+
+        sessions.started.countDown();
+        Assert.assertEquals(taken.get(2, TimeUnit.SECONDS), "session-1@emulator-5554");
+    }
+
+    @Test
+    public void warmsAtMostPoolSizeSessions() throws Exception {
+        FakeSessions sessions = new FakeSessions();
+        WarmSessionPool<String> pool = new WarmSessionPool<>(sessions, 2, Duration.ofMinutes(1));
+        DeviceSlot first = slot("emulator-5554");
+
+        Assert.assertTrue(pool.warm(first));
+        Assert.assertFalse(pool.warm(first), "one session per device");
+        Assert.assertTrue(pool.warm(slot("emulator-5556")));
+        Assert.assertFalse(pool.warm(slot("emulator-5558")));
+
+        pool.take(first);
+        Assert.assertTrue(pool.warm(slot("emulator-5558")), "taking a session frees its place");
+    }
+
+    @Test
+    public void disabledPoolWarmsNothing() throws Exception {
+        WarmSessionPool<String> pool = new WarmSessionPool<>(new FakeSessions(), 0, Duration.ofMinutes(1));
+
+        Assert.assertFalse(pool.isEnabled());
+        Assert.assertFalse(pool.warm(slot("emulator-5554")));
+    }
+
+    @Test
+    public void failedWarmUpFallsBackToFreshSession() throws Exception {
+        FakeSessions sessions = new FakeSessions();
+        sessions.failing = true;
+        WarmSessionPool<String> pool = new WarmSessionPool<>(sessions, 1, Duration.ofMinutes(1));
+        DeviceSlot device = slot("emulator-5554");
+        pool.warm(device);
+
+        Assert.assertNull(pool.take(device));
+    }
+
+    @Test
+    public void sessionIdleTooLongIsQuit() throws Exception {
+        FakeSessions sessions = new FakeSessions();
+        WarmSessionPool<String> pool = new WarmSessionPool<>(sessions, 1, Duration.ZERO);
+        DeviceSlot device = slot("emulator-5554");
+        pool.warm(device);
+        Thread.sleep(50);
+
+        Assert.assertNull(pool.take(device));
+        Assert.assertEquals(sessions.quit, List.of("session-1@emulator-5554"));
+    }
+
+    @Test
+    public void closeWaitsForStartingSessionsAndQuitsThem() throws Exception {
+        FakeSessions sessions = new FakeSessions();
+        WarmSessionPool<String> pool = new WarmSessionPool<>(sessions, 2, Duration.ofMinutes(1));
+        DeviceSlot ready = slot("emulator-5554");
+        pool.warm(ready);
+        Assert.assertEquals(pool.take(ready), "session-1@emulator-5554");
+        pool.warm(ready);
+        Thread.sleep(100);
+        CountDownLatch started = new CountDownLatch(1);
+        sessions.started = started;
+        pool.warm(slot("emulator-5556"));
+
+        CompletableFuture.runAsync(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            started.countDown();
+        });
+        pool.close(Duration.ofSeconds(5));
+
+        Assert.assertFalse(pool.warm(slot("emulator-5558")));
+        Assert.assertEquals(sessions.quit, List.of("session-2@emulator-5554", "session-3@emulator-5556"));
+    }
+
+    @Test
+    public void closeGivesUpOnSlowStartsAfterTimeout() throws Exception {
+        FakeSessions sessions = new FakeSessions();
+        sessions.started = new CountDownLatch(1);
+        WarmSessionPool<String> pool = new WarmSessionPool<>(sessions, 1, Duration.ofMinutes(1));
+        pool.warm(slot("emulator-5554"));
+
+        long start = System.nanoTime();
+        pool.close(Duration.ofMillis(100));
+
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+        Assert.assertTrue(sessions.quit.isEmpty());
+        sessions.started.countDown();
+    }
+}
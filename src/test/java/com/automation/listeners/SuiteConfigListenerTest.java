@@ -0,0 +1,56 @@
+package com.automation.listeners;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for the device matrix expansion of {@link SuiteConfigListener}.
+ */
+public class SuiteConfigListenerTest {
+
+    private static XmlSuite suite() {
+        XmlSuite suite = new XmlSuite();
+        suite.setName("suite");
+        XmlTest e2e = new XmlTest(suite);
+        e2e.setName("E2E");
+        e2e.setXmlClasses(List.of(new XmlClass("com.automation.tests.ExitGeofenceTest", false)));
+        XmlTest smoke = new XmlTest(suite);
+        smoke.setName("Smoke");
+        smoke.setXmlClasses(List.of(new XmlClass("com.automation.tests.GeofenceLocationSetupTest", false)));
+        return suite;
+    }
+
+    @Test
+    public void expandsDeviceTestsPerProfile() {
+        XmlSuite suite = suite();
+
+        SuiteConfigListener.expandMatrix(suite, List.of("api30", "api33"));
+
+        List<XmlTest> tests = suite.getTests();
+        Assert.assertEquals(tests.stream().map(XmlTest::getName).collect(Collectors.toList()),
+            List.of("E2E [api30]", "E2E [api33]", "Smoke [api30]", "Smoke [api33]"));
+        Assert.assertEquals(tests.get(0).getParameter(SuiteConfigListener.PROFILE_PARAMETER), "api30");
+        Assert.assertEquals(tests.get(1).getParameter(SuiteConfigListener.PROFILE_PARAMETER), "api33");
+        Assert.assertEquals(tests.get(3).getParameter(SuiteConfigListener.PROFILE_PARAMETER), "api33");
+    }
+
+    @Test
+    public void copiesClassesPerEntry() {
+        XmlSuite suite = suite();
+
+        SuiteConfigListener.expandMatrix(suite, List.of("api30", "api33"));
+
+        XmlClass first = suite.getTests().get(0).getXmlClasses().get(0);
+        XmlClass second = suite.getTests().get(1).getXmlClasses().get(0);
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(first.getName(), "com.automation.tests.ExitGeofenceTest");
+        Assert.assertEquals(second.getName(), "com.automation.tests.ExitGeofenceTest");
+        Assert.assertTrue(suite.getTests().stream().allMatch(test -> test.getSuite() == suite));
+    }
+}
@@ -0,0 +1,89 @@
+package com.automation.services;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link DefectQueue} with a stub filer instead of Jira.
+ */
+public class DefectQueueTest {
+
+    private static DefectReport report(String method) {
+        return new DefectReport("com.example.SomeTest", method, "test-failure",
+            new AssertionError("boom"), null, LocalDateTime.now());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void submitReturnsBeforeFilingAndDrainWaitsForIt() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> filed = new CopyOnWriteArrayList<>();
+        DefectQueue queue = new DefectQueue(batch -> {
+            await(release);
+            batch.forEach(report -> filed.add(report.getTestMethod()));
+        }, 10, 50, 0);
+
+        Assert.assertTrue(queue.submit(report("first")));
+        Assert.assertTrue(queue.submit(report("second")));
+        Assert.assertEquals(queue.pending(), 2);
+        Assert.assertTrue(filed.isEmpty());
+
+        release.countDown();
+        Assert.assertEquals(queue.drain(Duration.ofSeconds(5)), 0);
+        Assert.assertEquals(filed, List.of("first", "second"));
+    }
+
+    @Test
+    public void burstIsFiledInBatches() throws Exception {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        DefectQueue queue = new DefectQueue(batch -> batchSizes.add(batch.size()), 100, 4, 200);
+
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(queue.submit(report("run" + i)));
+        }
+        Assert.assertEquals(queue.drain(Duration.ofSeconds(5)), 0);
+        Assert.assertEquals(batchSizes, List.of(4, 4, 2));
+    }
+
+    @Test
+    public void dropsReportsWhenQueueIsFull() throws Exception {
+        DefectQueue queue = new DefectQueue(batch -> { }, 2, 50, 200);
+
+        Assert.assertTrue(queue.submit(report("first")));
+        Assert.assertTrue(queue.submit(report("second")));
+        Assert.assertFalse(queue.submit(report("dropped")));
+        Assert.assertEquals(queue.pending(), 2);
+        Assert.assertEquals(queue.drain(Duration.ofSeconds(5)), 0);
+    }
+
+    @Test
+    public void drainGivesUpAtDeadline() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        DefectQueue queue = new DefectQueue(batch -> {
+            await(release);
+            throw new IllegalStateException("Jira unavailable");
+        }, 10, 50, 0);
+
+        queue.submit(report("slow"));
+        long start = System.nanoTime();
+        Assert.assertEquals(queue.drain(Duration.ofMillis(200)), 1);
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+
+        release.countDown();
+        Assert.assertEquals(queue.drain(Duration.ofSeconds(5)), 0);
+    }
+}
@@ -0,0 +1,80 @@
+package com.automation.services;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Unit tests for {@link FailureFingerprint} and the bulk response mapping in {@link AtlassianService}.
+ */
+public class FailureFingerprintTest {
+
+    private static Throwable failure(Throwable throwable, StackTraceElement... frames) {
+        throwable.setStackTrace(frames);
+        return throwable;
+    }
+
+    private static StackTraceElement frame(String className, String method, int line) {
+        return new StackTraceElement(className, method, className + ".java", line);
+    }
+
+    private static DefectReport report(String method, Throwable throwable) {
+        return new DefectReport("com.automation.tests.ExitGeofenceTest", method, "test-failure",
+            throwable, null, LocalDateTime.now());
+    }
+
+    @Test
+    public void ignoresMessagesLineNumbersAndGeneratedNames() {
+        Throwable first = failure(new RuntimeException("Element not found at 52.5200,13.4050"),
+            frame("com.automation.base.BasePage$$Lambda$123/0x0000000800c0b440", "apply", 1),
+            frame("com.automation.base.BasePage", "waitForElementToReady", 88),
+            frame("com.automation.pages.MainScreen$1", "run", 10));
+        Throwable second = failure(new RuntimeException("Element not found at 48.1371,11.5754"),
+            frame("com.automation.base.BasePage$$Lambda$987/0x0000000800d1c000", "apply", 1),
+            frame("com.automation.base.BasePage", "waitForElementToReady", 91),
+            frame("com.automation.pages.MainScreen$2", "run", 12));
+
+        Assert.assertEquals(FailureFingerprint.of(report("exitZone", first)),
+            FailureFingerprint.of(report("exitZone", second)));
+    }
+
+    @Test
+    public void skipsJdkAndTestNgFrames() {
+        Throwable direct = failure(new AssertionError("a"),
+            frame("com.automation.tests.ExitGeofenceTest", "exitZone", 40));
+        Throwable reflective = failure(new AssertionError("b"),
+            frame("com.automation.tests.ExitGeofenceTest", "exitZone", 41),
+            frame("jdk.internal.reflect.NativeMethodAccessorImpl", "invoke0", -2),
+            frame("org.testng.internal.invokers.MethodInvocationHelper", "invokeMethod", 139));
+
+        Assert.assertEquals(FailureFingerprint.of(report("exitZone", direct)),
+            FailureFingerprint.of(report("exitZone", reflective)));
+    }
+
+    @Test
+    public void distinguishesMethodExceptionTypeAndCause() {
+        StackTraceElement site = frame("com.automation.tests.ExitGeofenceTest", "exitZone", 40);
+        String base = FailureFingerprint.of(report("exitZone", failure(new AssertionError(), site)));
+
+        Assert.assertNotEquals(FailureFingerprint.of(report("enterZone", failure(new AssertionError(), site))), base);
+        Assert.assertNotEquals(FailureFingerprint.of(report("exitZone", failure(new IllegalStateException(), site))), base);
+        Assert.assertNotEquals(FailureFingerprint.of(report("exitZone",
+            failure(new AssertionError("wrapped", new java.util.concurrent.TimeoutException()), site))), base);
+    }
+
+    @Test
+    public void labelCarriesFingerprint() {
+        String fingerprint = FailureFingerprint.of(report("exitZone", null));
+        Assert.assertEquals(fingerprint.length(), 16);
+        Assert.assertEquals(FailureFingerprint.label(fingerprint), "failure-fp-" + fingerprint);
+    }
+
+    @Test
+    public void bulkResponseSkipsFailedElements() {
+        Assert.assertEquals(AtlassianService.createdElements(4, List.of()), new int[]{0, 1, 2, 3});
+        Assert.assertEquals(AtlassianService.createdElements(4, List.of(1, 3)), new int[]{0, 2});
+        Assert.assertEquals(AtlassianService.createdElements(2, List.of(0, 1)), new int[0]);
+    }
+}
@@ -0,0 +1,182 @@
+package com.automation.services;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link JiraHttpClient} against a local stub Jira server.
+ */
+public class JiraHttpClientTest {
+    private HttpServer server;
+    private String baseUrl;
+    private final List<String> remotePorts = new CopyOnWriteArrayList<>();
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+
+    @BeforeMethod
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        remotePorts.clear();
+        authorizations.clear();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    private JiraHttpClient client(int maxRetries) {
+        return new JiraHttpClient(baseUrl, "qa@example.com", "token", Duration.ofSeconds(2), Duration.ofSeconds(5),
+            Duration.ofSeconds(10), maxRetries, 10, 100);
+    }
+
+    private void record(HttpExchange exchange) {
+        remotePorts.add(String.valueOf(exchange.getRemoteAddress().getPort()));
+        authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    public void retriesRateLimitedRequestsAndReusesTheConnection() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        List<String> bodies = new CopyOnWriteArrayList<>();
+        server.createContext("/rest/api/3/issue", exchange -> {
+            record(exchange);
+            bodies.add(new String(readBody(exchange), StandardCharsets.UTF_8));
+            if (calls.incrementAndGet() == 1) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                respond(exchange, 429, "{}");
+            } else {
+                respond(exchange, 201, "{\"key\":\"DEV-7\"}");
+            }
+        });
+
+        JiraHttpClient.Response response = client(3).postJson("/rest/api/3/issue", Map.of("fields", Map.of("summary", "x")));
+
+        Assert.assertEquals(response.statusCode(), 201);
+        Assert.assertEquals(response.json().path("key").asText(), "DEV-7");
+        Assert.assertEquals(calls.get(), 2);
+        Assert.assertEquals(bodies.get(0), "{\"fields\":{\"summary\":\"x\"}}");
+        Assert.assertEquals(bodies.get(1), bodies.get(0));
+        Assert.assertEquals(authorizations.get(0),
+            "Basic " + Base64.getEncoder().encodeToString("qa@example.com:token".getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(remotePorts.get(1), remotePorts.get(0), "connection kept alive");
+    }
+
+    @Test
+    public void returnsLastResponseWhenRetriesAreExhausted() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        server.createContext("/rest/api/3/search/jql", exchange -> {
+            calls.incrementAndGet();
+            readBody(exchange);
+            respond(exchange, 503, "{\"errorMessages\":[\"busy\"]}");
+        });
+
+        JiraHttpClient.Response response = client(2).postJson("/rest/api/3/search/jql", Map.of("jql", "x"));
+
+        Assert.assertEquals(response.statusCode(), 503);
+        Assert.assertEquals(calls.get(), 3);
+    }
+
+    @Test
+    public void doesNotRetryClientErrors() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        server.createContext("/rest/api/3/issue/bulk", exchange -> {
+            calls.incrementAndGet();
+            readBody(exchange);
+            respond(exchange, 400, "{\"errors\":[{\"failedElementNumber\":0}]}");
+        });
+
+        JiraHttpClient.Response response = client(3).postJson("/rest/api/3/issue/bulk", Map.of("issueUpdates", List.of()));
+
+        Assert.assertEquals(response.statusCode(), 400);
+        Assert.assertEquals(response.json().path("errors").get(0).path("failedElementNumber").asInt(), 0);
+        Assert.assertEquals(calls.get(), 1);
+    }
+
+    @Test
+    public void streamsFileAsChunkedMultipart() throws Exception {
+        Path file = Files.createTempFile("shot", ".png");
+        byte[] content = {(byte) 0x89, 'P', 'N', 'G', 0, 1, 2, 3};
+        Files.write(file, content);
+        List<String> contentTypes = new CopyOnWriteArrayList<>();
+        List<byte[]> bodies = new CopyOnWriteArrayList<>();
+        server.createContext("/rest/api/3/issue/DEV-7/attachments", exchange -> {
+            contentTypes.add(exchange.getRequestHeaders().getFirst("Content-Type"));
+            contentTypes.add(String.valueOf(exchange.getRequestHeaders().getFirst("Transfer-Encoding")));
+            contentTypes.add(exchange.getRequestHeaders().getFirst("X-Atlassian-Token"));
+            bodies.add(readBody(exchange));
+            respond(exchange, 200, "[]");
+        });
+
+        try {
+            JiraHttpClient.Response response = client(0).postMultipart("/rest/api/3/issue/DEV-7/attachments",
+                MultipartFile.of("file", file, false));
+
+            Assert.assertEquals(response.statusCode(), 200);
+            Assert.assertTrue(contentTypes.get(0).startsWith("multipart/form-data; boundary="));
+            Assert.assertEquals(contentTypes.get(1), "chunked");
+            Assert.assertEquals(contentTypes.get(2), "no-check");
+            String boundary = contentTypes.get(0).substring(contentTypes.get(0).indexOf('=') + 1);
+            String body = new String(bodies.get(0), StandardCharsets.ISO_8859_1);
+            Assert.assertTrue(body.startsWith("--" + boundary + "\r\n"));
+            Assert.assertTrue(body.contains("name=\"file\"; filename=\"" + file.getFileName() + "\""));
+            Assert.assertTrue(body.contains(new String(content, StandardCharsets.ISO_8859_1)));
+            Assert.assertTrue(body.endsWith("\r\n--" + boundary + "--\r\n"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void retryDelayHonorsRetryAfterWithinCap() {
+        JiraHttpClient client = new JiraHttpClient(baseUrl, "a", "b", Duration.ofSeconds(1), Duration.ofSeconds(1),
+            Duration.ofSeconds(1), 3, 100, 5000);
+        String inThreeSeconds = ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(3).format(DateTimeFormatter.RFC_1123_DATE_TIME);
+
+        Assert.assertEquals(client.retryDelay(Optional.of("2"), 0), 2000);
+        Assert.assertEquals(client.retryDelay(Optional.of("120"), 0), 5000);
+        long fromDate = client.retryDelay(Optional.of(inThreeSeconds), 0);
+        Assert.assertTrue(fromDate > 1000 && fromDate <= 3000, "delay " + fromDate);
+        Assert.assertEquals(client.retryDelay(Optional.of("soon"), 2), 400);
+        Assert.assertEquals(client.retryDelay(Optional.empty(), 0), 100);
+        Assert.assertEquals(client.retryDelay(Optional.empty(), 10), 5000);
+    }
+}
@@ -0,0 +1,109 @@
+package com.automation.services;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Unit tests for {@link MultipartFile}.
+ */
+public class MultipartFileTest {
+    private Path directory;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("multipart");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            return stream.readAllBytes();
+        }
+    }
+
+    /**
+     * @return the file content between the part header and the closing boundary
+     */
+    private static byte[] partContent(byte[] body, String boundary) {
+        String text = new String(body, StandardCharsets.ISO_8859_1);
+        int start = text.indexOf("\r\n\r\n") + 4;
+        int end = text.lastIndexOf("\r\n--" + boundary + "--");
+        return Arrays.copyOfRange(body, start, end);
+    }
+
+    @Test
+    public void gzipStreamRoundTripsLargeInput() throws IOException {
+        byte[] log = new byte[700_000];
+        Random random = new Random(7);
+        for (int i = 0; i < log.length; i++) {
+            log[i] = (byte) ('a' + random.nextInt(4));
+        }
+
+        byte[] compressed = readAll(new MultipartFile.GzipStream(new ByteArrayInputStream(log)));
+
+        Assert.assertTrue(compressed.length < log.length / 2, "compressed to " + compressed.length);
+        Assert.assertEquals(readAll(new GZIPInputStream(new ByteArrayInputStream(compressed))), log);
+    }
+
+    @Test
+    public void bodyCarriesFileUnchangedWithoutGzip() throws IOException {
+        Path file = Files.write(directory.resolve("logcat.txt"), "line 1\nline 2\n".getBytes(StandardCharsets.UTF_8));
+        MultipartFile part = MultipartFile.of("file", file, false);
+        String boundary = part.contentType().substring(part.contentType().indexOf('=') + 1);
+
+        byte[] body = readAll(part.open());
+
+        String head = new String(body, StandardCharsets.ISO_8859_1);
+        Assert.assertTrue(head.contains("filename=\"logcat.txt\""));
+        Assert.assertEquals(partContent(body, boundary), Files.readAllBytes(file));
+    }
+
+    @Test
+    public void bodyCarriesGzippedFileWithGzSuffix() throws IOException {
+        Path file = Files.write(directory.resolve("logcat.txt"), "I/ActivityManager: start\n".repeat(2000)
+            .getBytes(StandardCharsets.UTF_8));
+        MultipartFile part = MultipartFile.of("file", file, true);
+        String boundary = part.contentType().substring(part.contentType().indexOf('=') + 1);
+
+        byte[] body = readAll(part.open());
+
+        String head = new String(body, StandardCharsets.ISO_8859_1);
+        Assert.assertTrue(head.contains("filename=\"logcat.txt.gz\""));
+        Assert.assertTrue(head.contains("Content-Type: application/gzip"));
+        byte[] content = partContent(body, boundary);
+        Assert.assertEquals(readAll(new GZIPInputStream(new ByteArrayInputStream(content))), Files.readAllBytes(file));
+    }
+
+    @Test
+    public void compressesOnlyLargeUncompressedFormats() throws IOException {
+        Path log = Files.write(directory.resolve("logcat.txt"), new byte[2048]);
+        Path video = Files.write(directory.resolve("recording.mp4"), new byte[2048]);
+
+        Assert.assertTrue(MultipartFile.shouldCompress(log, 1024));
+        Assert.assertFalse(MultipartFile.shouldCompress(log, 4096));
+        Assert.assertFalse(MultipartFile.shouldCompress(log, -1));
+        Assert.assertFalse(MultipartFile.shouldCompress(video, 1024));
+    }
+}
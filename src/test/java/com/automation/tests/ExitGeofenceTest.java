@@ -4,10 +4,14 @@ import com.automation.base.BaseTest;
 import com.automation.core.ConfigManager;
 import com.automation.pages.MainScreen;
 import com.automation.utils.LocationSimulator;
+import com.automation.utils.geo.GeofenceOracle;
+import com.automation.utils.geo.GeofenceTransition;
 import io.qameta.allure.*;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.List;
+
 /**
  * TC2 - Exit Geofence Detection Test
  *
@@ -27,6 +31,7 @@ import org.testng.annotations.Test;
 @Epic("Geofence Functionality")
 @Feature("Geofence Exit Detection")
 public class ExitGeofenceTest extends BaseTest {
+    private static final int ZONE_RADIUS_METERS = 50;
     private final ConfigManager config = ConfigManager.getInstance();
 
     @Test(description = "TC2: Verify exit geofence detection triggers notification in EgiGeoZone")
@@ -40,7 +45,7 @@ public class ExitGeofenceTest extends BaseTest {
         MainScreen mainScreen = new MainScreen();
 
         // Given: Geofence zone is created with 50m radius at current device location
-        Allure.step("Create geofence zone with 50m radius at current device location", () -> {
+        Allure.step("Create geofence zone with " + ZONE_RADIUS_METERS + "m radius at current device location", () -> {
             mainScreen.waitForAppToLoad();
 
             // Setup server profile
@@ -52,14 +57,13 @@ public class ExitGeofenceTest extends BaseTest {
             double currentLon = config.getDoubleProperty("location.simulation.longitude", -122.4194);
             LocationSimulator.setLocation(currentLat, currentLon);
             
-            // Create geofence zone with 50m radius
-            int radius = 50; 
-            mainScreen.createGeofenceZone(currentLat, currentLon, radius, "Exit");
+            // Create geofence zone
+            mainScreen.createGeofenceZone(currentLat, currentLon, ZONE_RADIUS_METERS, "Exit");
             
             // Save zone
             mainScreen.saveGeofenceZone();
             
-            logger.info("Geofence zone created with 50m radius at current location");
+            logger.info("Geofence zone created with {}m radius at current location", ZONE_RADIUS_METERS);
         });
 
         // When: Device moves outside the geofence area
@@ -67,11 +71,28 @@ public class ExitGeofenceTest extends BaseTest {
         double geofenceLon = config.getDoubleProperty("location.simulation.longitude", -122.4195);
         double exitDistance = config.getDoubleProperty("geofence.exit.distance", 150);
 
+        // The app must not report the exit before the device leaves; the exiting fix is the next one recorded
+        int exitFix = LocationSimulator.getLocationHistory().size();
         Allure.step(String.format("Move device %s meters outside the geofence area", 
             exitDistance), () -> {
-            LocationSimulator.simulateExitGeofence(geofenceLat, geofenceLon, exitDistance);
+            String zoneName = mainScreen.getCreatedZones().get(0).getId();
+            Assert.assertFalse(mainScreen.isExitEventShown(zoneName),
+                "App reported an exit from " + zoneName + " while the device was still inside it");
+            double actualDistance = LocationSimulator.simulateExitGeofence(geofenceLat, geofenceLon, exitDistance);
+            double zoneRadius = mainScreen.getCreatedZones().get(0).getRadiusMeters();
+            Assert.assertTrue(actualDistance > zoneRadius,
+                "Simulated location should be outside the " + zoneRadius + "m zone, was " + actualDistance + "m");
             // Wait for geofence exit detection - use explicit wait in MainScreen
-            logger.info("Device moved {} meters outside geofence zone", exitDistance);
+            logger.info("Device moved {} meters outside geofence zone", actualDistance);
+        });
+
+        // Then: Compute the expected transitions for the simulated track
+        double hysteresis = config.getDoubleProperty("geofence.oracle.hysteresis.meters", 10);
+        List<GeofenceTransition> expected = Allure.step("Compute expected transitions for the simulated track", () -> {
+            List<GeofenceTransition> transitions = new GeofenceOracle(mainScreen.getCreatedZones(), hysteresis)
+                .evaluate(LocationSimulator.getLocationHistory());
+            logger.info("Expected transitions: {}", transitions);
+            return transitions;
         });
 
         // Then: Refresh the page
@@ -80,12 +101,19 @@ public class ExitGeofenceTest extends BaseTest {
             logger.info("Page refreshed");
         });
 
-        // Then: Validate system detects exit event from the zone
+        // Then: Validate the app reports the exit the oracle expects
         Allure.step("Validate system detects exit event from the zone", () -> {
-            boolean exitDetected = mainScreen.isExitEventDetected();
-            Assert.assertTrue(exitDetected, 
-                "System should detect an exit event from the zone");
-            logger.info("Exit event detection validated");
+            GeofenceTransition exit = expected.stream()
+                .filter(t -> t.getType() == GeofenceTransition.Type.EXIT)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Oracle expects no EXIT for this track: " + expected));
+            Assert.assertTrue(mainScreen.isExitEventDetected(exit.getFenceId()),
+                "System should detect an exit event from zone " + exit.getFenceId());
+            // Not reported before the move, reported after it: the app saw the exit at the exiting fix
+            Assert.assertEquals(exit.getSampleIndex(), (long) exitFix,
+                "App reported the exit from " + exit.getFenceId() + " at fix " + exitFix
+                    + ", oracle expects it at fix " + exit.getSampleIndex());
+            logger.info("Exit event from zone {} validated at fix {}", exit.getFenceId(), exitFix);
         });
 
         logger.info("TC2 completed successfully - Exit event detected and notification verified");
@@ -0,0 +1,288 @@
+package com.automation.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for {@link AdbClient} against a fake adb server speaking the smart socket,
+ * shell v2 and sync protocols for one device.
+ */
+public class AdbClientTest {
+    private static final String SERIAL = "emulator-5554";
+
+    private FakeAdbServer server;
+    private AdbClient client;
+    private Path directory;
+
+    @BeforeMethod
+    public void start() throws IOException {
+        server = new FakeAdbServer();
+        client = new AdbClient("127.0.0.1", server.port(), Duration.ofSeconds(5), "adb");
+        directory = Files.createTempDirectory("adb");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stop() throws IOException {
+        server.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * Answers one connection at a time, like the adb server does per socket.
+     */
+    private static class FakeAdbServer implements AutoCloseable {
+        final ServerSocket socket = new ServerSocket(0);
+        final Map<String, byte[]> files = new ConcurrentHashMap<>();
+        final List<String> services = new CopyOnWriteArrayList<>();
+        final AtomicInteger connections = new AtomicInteger();
+        final AtomicInteger dataChunks = new AtomicInteger();
+        volatile String features = "shell_v2,cmd,stat_v2";
+        volatile String pmOutput = "Success";
+
+        FakeAdbServer() throws IOException {
+            Thread thread = new Thread(() -> {
+                while (!socket.isClosed()) {
+                    try (Socket connection = socket.accept()) {
+                        connections.incrementAndGet();
+                        handle(connection);
+                    } catch (IOException e) {
+                        // closed
+                    }
+                }
+            }, "fake-adb");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        int port() {
+            return socket.getLocalPort();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+
+        private void handle(Socket connection) throws IOException {
+            DataInputStream in = new DataInputStream(connection.getInputStream());
+            OutputStream out = connection.getOutputStream();
+            String request = readRequest(in);
+            if ("host:version".equals(request)) {
+                okay(out, "0029");
+            } else if ("host:devices".equals(request)) {
+                okay(out, SERIAL + "\tdevice\nemulator-5556\toffline\n");
+            } else if (request.equals("host-serial:" + SERIAL + ":features")) {
+                okay(out, features);
+            } else if (request.equals("host:transport:" + SERIAL)) {
+                out.write("OKAY".getBytes(StandardCharsets.US_ASCII));
+                service(readRequest(in), in, out);
+            } else {
+                fail(out, "device '" + request.substring(request.lastIndexOf(':') + 1) + "' not found");
+            }
+            out.flush();
+        }
+
+        private void service(String service, DataInputStream in, OutputStream out) throws IOException {
+            services.add(service);
+            out.write("OKAY".getBytes(StandardCharsets.US_ASCII));
+            if (service.startsWith("shell,v2,raw:")) {
+                Assert.assertEquals(in.readUnsignedByte(), 4, "client closes stdin first");
+                Assert.assertEquals(in.readInt(), 0);
+                String command = service.substring("shell,v2,raw:".length());
+                if (command.startsWith("pm install")) {
+                    boolean success = pmOutput.startsWith("Success");
+                    packet(out, 1, pmOutput + "\n");
+                    exit(out, success ? 0 : 1);
+                } else if (command.startsWith("false")) {
+                    packet(out, 2, "failed on purpose\n");
+                    exit(out, 3);
+                } else {
+                    packet(out, 1, "out:" + command + "\n");
+                    packet(out, 2, "err\n");
+                    exit(out, 0);
+                }
+            } else if (service.startsWith("shell:")) {
+                out.write(("legacy:" + service.substring(6) + "\n").getBytes(StandardCharsets.UTF_8));
+            } else if (service.startsWith("exec:")) {
+                out.write(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0, (byte) 0xff});
+            } else if ("sync:".equals(service)) {
+                sync(in, out);
+            }
+        }
+
+        private void sync(DataInputStream in, OutputStream out) throws IOException {
+            while (true) {
+                String id = readAscii(in, 4);
+                int length = Integer.reverseBytes(in.readInt());
+                if ("QUIT".equals(id)) {
+                    return;
+                }
+                Assert.assertEquals(id, "SEND");
+                String target = readAscii(in, length);
+                String path = target.substring(0, target.lastIndexOf(','));
+                Assert.assertEquals(target.substring(target.lastIndexOf(',') + 1), String.valueOf(0100644));
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                while (true) {
+                    String chunk = readAscii(in, 4);
+                    int value = Integer.reverseBytes(in.readInt());
+                    if ("DONE".equals(chunk)) {
+                        break;
+                    }
+                    Assert.assertEquals(chunk, "DATA");
+                    Assert.assertTrue(value <= 64 * 1024, "chunk size " + value);
+                    byte[] data = new byte[value];
+                    in.readFully(data);
+                    content.write(data);
+                    dataChunks.incrementAndGet();
+                }
+                files.put(path, content.toByteArray());
+                out.write(ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN)
+                    .put("OKAY".getBytes(StandardCharsets.US_ASCII)).putInt(0).array());
+                out.flush();
+            }
+        }
+
+        private static String readRequest(DataInputStream in) throws IOException {
+            int length = Integer.parseInt(readAscii(in, 4), 16);
+            return readAscii(in, length);
+        }
+
+        private static String readAscii(DataInputStream in, int length) throws IOException {
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private static void okay(OutputStream out, String payload) throws IOException {
+            out.write(("OKAY" + String.format("%04x", payload.length()) + payload).getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static void fail(OutputStream out, String message) throws IOException {
+            out.write(("FAIL" + String.format("%04x", message.length()) + message).getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static void packet(OutputStream out, int id, String payload) throws IOException {
+            byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+            out.write(ByteBuffer.allocate(5).order(ByteOrder.LITTLE_ENDIAN).put((byte) id).putInt(bytes.length).array());
+            out.write(bytes);
+        }
+
+        private static void exit(OutputStream out, int code) throws IOException {
+            out.write(ByteBuffer.allocate(6).order(ByteOrder.LITTLE_ENDIAN).put((byte) 3).putInt(1).put((byte) code).array());
+        }
+    }
+
+    @Test
+    public void readsServerVersionAndOnlineDevices() {
+        Assert.assertEquals(client.version(), 41);
+        Assert.assertEquals(client.devices(), List.of(SERIAL));
+    }
+
+    @Test
+    public void shellV2SeparatesStreamsAndReportsExitCode() {
+        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+
+        int exitCode = client.shell(SERIAL, "getprop ro.build.version.sdk", stdout, stderr, Duration.ofSeconds(5));
+
+        Assert.assertEquals(exitCode, 0);
+        Assert.assertEquals(stdout.toString(StandardCharsets.UTF_8), "out:getprop ro.build.version.sdk\n");
+        Assert.assertEquals(stderr.toString(StandardCharsets.UTF_8), "err\n");
+    }
+
+    @Test
+    public void failingShellCommandThrows() {
+        try {
+            client.shell(SERIAL, "false");
+            Assert.fail("expected failure");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(e.getMessage().contains("code 3"), e.getMessage());
+            Assert.assertTrue(e.getMessage().contains("failed on purpose"), e.getMessage());
+        }
+    }
+
+    @Test
+    public void fallsBackToRawShellWithoutShellV2() {
+        server.features = "cmd";
+
+        Assert.assertEquals(client.shell(SERIAL, "echo hi"), "legacy:echo hi\n");
+        Assert.assertEquals(server.services, List.of("shell:echo hi"));
+    }
+
+    @Test
+    public void execReturnsBinaryOutputUnchanged() {
+        Assert.assertEquals(client.screencap(SERIAL),
+            new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0, (byte) 0xff});
+    }
+
+    @Test
+    public void pushesFilesInChunksOverOneConnection() throws IOException {
+        byte[] large = new byte[200 * 1024];
+        new Random(7).nextBytes(large);
+        Path first = Files.write(directory.resolve("large.bin"), large);
+        Path second = Files.write(directory.resolve("small.txt"), "zones".getBytes(StandardCharsets.UTF_8));
+        Map<Path, String> files = new LinkedHashMap<>();
+        files.put(first, "/data/local/tmp/large.bin");
+        files.put(second, "/data/local/tmp/small.txt");
+
+        client.push(SERIAL, files);
+
+        Assert.assertEquals(server.files.get("/data/local/tmp/large.bin"), large);
+        Assert.assertEquals(server.files.get("/data/local/tmp/small.txt"), "zones".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(server.dataChunks.get(), 5);
+        Assert.assertEquals(server.connections.get(), 1);
+    }
+
+    @Test
+    public void installsThroughPushAndPackageManager() throws IOException {
+        Path apk = Files.write(directory.resolve("EgiGeoZone 3.2.7.apk"), new byte[]{1, 2, 3});
+
+        client.install(SERIAL, apk, Duration.ofSeconds(5), "-r", "-g");
+
+        Assert.assertEquals(server.files.get("/data/local/tmp/EgiGeoZone_3.2.7.apk"), new byte[]{1, 2, 3});
+        Assert.assertEquals(server.services, List.of("sync:",
+            "shell,v2,raw:pm install -r -g /data/local/tmp/EgiGeoZone_3.2.7.apk",
+            "shell,v2,raw:rm -f /data/local/tmp/EgiGeoZone_3.2.7.apk"));
+    }
+
+    @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = ".*INSTALL_FAILED_OLDER_SDK.*")
+    public void failedInstallThrows() throws IOException {
+        server.pmOutput = "Failure [INSTALL_FAILED_OLDER_SDK]";
+        Path apk = Files.write(directory.resolve("app.apk"), new byte[]{1});
+
+        client.install(SERIAL, apk, Duration.ofSeconds(5), "-r");
+    }
+
+    @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = ".*device 'emulator-5558' not found.*")
+    public void unknownDeviceReportsServerMessage() {
+        client.exec("emulator-5558", "screencap -p");
+    }
+}
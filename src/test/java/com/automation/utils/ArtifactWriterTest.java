@@ -0,0 +1,119 @@
+package com.automation.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for {@link ArtifactWriter}.
+ */
+public class ArtifactWriterTest {
+    private Path directory;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("artifacts");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    @Test
+    public void writesPngAsCapturedByDefault() throws Exception {
+        ArtifactWriter writer = new ArtifactWriter(4, "png", 0, 0.85f);
+        byte[] png = png(40, 80);
+        List<byte[]> consumed = new CopyOnWriteArrayList<>();
+        Path destination = directory.resolve("shot" + writer.extension());
+
+        writer.submit(destination, png, consumed::add).get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(writer.extension(), ".png");
+        Assert.assertEquals(Files.readAllBytes(destination), png);
+        Assert.assertSame(consumed.get(0), png);
+    }
+
+    @Test
+    public void reencodesAsDownscaledJpeg() throws Exception {
+        ArtifactWriter writer = new ArtifactWriter(4, "jpg", 360, 0.7f);
+        Path destination = directory.resolve("shot" + writer.extension());
+
+        writer.submit(destination, png(1080, 2400), null).get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(writer.extension(), ".jpg");
+        Assert.assertEquals(writer.mimeType(), "image/jpeg");
+        BufferedImage written = ImageIO.read(new ByteArrayInputStream(Files.readAllBytes(destination)));
+        Assert.assertEquals(written.getWidth(), 360);
+        Assert.assertEquals(written.getHeight(), 800);
+    }
+
+    @Test
+    public void unsupportedFormatFallsBackToJpeg() {
+        Assert.assertEquals(new ArtifactWriter(4, "no-such-format", 0, 0.85f).extension(), ".jpg");
+    }
+
+    @Test
+    public void fullQueueWritesOnCallerAndFlushWaitsForTheRest() throws Exception {
+        ArtifactWriter writer = new ArtifactWriter(1, "png", 0, 0.85f);
+        byte[] png = png(8, 8);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> writerThreads = new CopyOnWriteArrayList<>();
+        Path blocked = directory.resolve("blocked.png");
+        Path queued = directory.resolve("queued.png");
+        Path overflow = directory.resolve("overflow.png");
+
+        writer.submit(blocked, png, bytes -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        writer.submit(queued, png, bytes -> writerThreads.add(Thread.currentThread().getName()));
+        writer.submit(overflow, png, bytes -> writerThreads.add(Thread.currentThread().getName()));
+
+        Assert.assertEquals(writerThreads, List.of(Thread.currentThread().getName()));
+        Assert.assertTrue(Files.exists(overflow));
+        Assert.assertFalse(writer.await(queued, Duration.ofMillis(100)));
+        Assert.assertEquals(writer.flush(Duration.ofMillis(100)), 2);
+
+        release.countDown();
+        Assert.assertEquals(writer.flush(Duration.ofSeconds(5)), 0);
+        Assert.assertTrue(Files.exists(queued));
+        Assert.assertTrue(writer.await(queued, Duration.ofMillis(1)));
+    }
+}
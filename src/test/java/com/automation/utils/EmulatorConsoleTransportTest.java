@@ -0,0 +1,210 @@
+package com.automation.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link EmulatorConsoleTransport} against a stand-in emulator console.
+ */
+public class EmulatorConsoleTransportTest {
+    private static final String TOKEN = "s3cr3t";
+
+    private FakeConsole console;
+
+    @BeforeMethod
+    public void start() throws IOException {
+        console = new FakeConsole();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void stop() throws IOException {
+        console.close();
+    }
+
+    private EmulatorConsoleTransport transport(String token) {
+        return new EmulatorConsoleTransport("127.0.0.1", console.port(), token, Duration.ofSeconds(2));
+    }
+
+    /**
+     * Speaks the emulator console protocol: banner, auth, then OK or KO per command.
+     * Replies are held back until {@code replies} is released, to show that fixes are pipelined.
+     */
+    private static class FakeConsole implements AutoCloseable {
+        final ServerSocket socket = new ServerSocket(0);
+        final List<String> commands = new CopyOnWriteArrayList<>();
+        final AtomicInteger connections = new AtomicInteger();
+        volatile CountDownLatch replies = new CountDownLatch(0);
+        volatile int dropAfter = Integer.MAX_VALUE;
+
+        FakeConsole() throws IOException {
+            Thread thread = new Thread(() -> {
+                while (!socket.isClosed()) {
+                    try (Socket connection = socket.accept()) {
+                        connections.incrementAndGet();
+                        serve(connection);
+                    } catch (IOException | InterruptedException e) {
+                        // closed
+                    }
+                }
+            }, "fake-console");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        int port() {
+            return socket.getLocalPort();
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+
+        private void serve(Socket connection) throws IOException, InterruptedException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.US_ASCII));
+            OutputStream out = connection.getOutputStream();
+            write(out, "Android Console: Authentication required\r\n"
+                + "Android Console: type 'auth <auth_token>' to authenticate\r\nOK\r\n");
+            if (!("auth " + TOKEN).equals(in.readLine())) {
+                write(out, "KO: authentication token does not match ~/.emulator_console_auth_token\r\n");
+                return;
+            }
+            write(out, "Android Console: type 'help' for a list of commands\r\nOK\r\n");
+            String line;
+            int served = 0;
+            while ((line = in.readLine()) != null) {
+                commands.add(line);
+                if (++served > dropAfter) {
+                    return;
+                }
+                replies.await(5, TimeUnit.SECONDS);
+                String[] args = line.split(" ");
+                boolean valid = args.length == 4 && "geo".equals(args[0]) && "fix".equals(args[1])
+                    && Math.abs(Double.parseDouble(args[3])) <= 90;
+                write(out, valid ? "OK\r\n" : "KO: bad GPS coordinates\r\n");
+            }
+        }
+
+        private static void write(OutputStream out, String text) throws IOException {
+            out.write(text.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+        }
+    }
+
+    @Test
+    public void authenticatesAndSendsLongitudeFirst() throws Exception {
+        try (EmulatorConsoleTransport transport = transport(TOKEN)) {
+            transport.push(37.775, -122.4195);
+            transport.awaitAcknowledged(Duration.ofSeconds(2));
+        }
+
+        Assert.assertEquals(console.commands, List.of("geo fix -122.4195000 37.7750000"));
+    }
+
+    @Test
+    public void pipelinesFixesOverOneConnection() throws Exception {
+        console.replies = new CountDownLatch(1);
+        try (EmulatorConsoleTransport transport = transport(TOKEN)) {
+            long start = System.nanoTime();
+            for (int i = 0; i < 50; i++) {
+                transport.push(37.775 + i * 0.0001, -122.4195);
+            }
+            // All fixes are written before the console has answered the first
+            Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+
+            console.replies.countDown();
+            transport.awaitAcknowledged(Duration.ofSeconds(2));
+        }
+
+        Assert.assertEquals(console.commands.size(), 50);
+        Assert.assertEquals(console.connections.get(), 1);
+    }
+
+    @Test
+    public void unacknowledgedFixesTimeOut() throws Exception {
+        console.replies = new CountDownLatch(1);
+        try (EmulatorConsoleTransport transport = transport(TOKEN)) {
+            transport.push(37.775, -122.4195);
+
+            try {
+                transport.awaitAcknowledged(Duration.ofMillis(200));
+                Assert.fail("expected timeout");
+            } catch (IOException e) {
+                Assert.assertTrue(e.getMessage().contains("0 of 1"), e.getMessage());
+            }
+            console.replies.countDown();
+        }
+    }
+
+    @Test
+    public void rejectedFixIsReported() throws Exception {
+        try (EmulatorConsoleTransport transport = transport(TOKEN)) {
+            transport.push(120, 10);
+
+            try {
+                transport.awaitAcknowledged(Duration.ofSeconds(2));
+                Assert.fail("expected rejection");
+            } catch (IOException e) {
+                Assert.assertTrue(e.getMessage().contains("KO: bad GPS coordinates"), e.getMessage());
+            }
+            // Reported once; later fixes go through
+            transport.push(37.775, -122.4195);
+            transport.awaitAcknowledged(Duration.ofSeconds(2));
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class, expectedExceptionsMessageRegExp = ".*refused: KO: authentication.*")
+    public void wrongTokenFails() throws Exception {
+        try (EmulatorConsoleTransport transport = transport("wrong")) {
+            transport.push(37.775, -122.4195);
+        }
+    }
+
+    @Test
+    public void reconnectsAfterConsoleClosedConnection() throws Exception {
+        console.dropAfter = 1;
+        try (EmulatorConsoleTransport transport = transport(TOKEN)) {
+            transport.push(37.775, -122.4195);
+            transport.awaitAcknowledged(Duration.ofSeconds(2));
+            transport.push(37.776, -122.4195);
+            try {
+                transport.awaitAcknowledged(Duration.ofSeconds(2));
+                Assert.fail("the dropped fix is not acknowledged");
+            } catch (IOException e) {
+                Assert.assertTrue(e.getMessage().contains("closed"), e.getMessage());
+            }
+
+            console.dropAfter = Integer.MAX_VALUE;
+            transport.push(37.777, -122.4195);
+            transport.awaitAcknowledged(Duration.ofSeconds(2));
+        }
+
+        Assert.assertEquals(console.connections.get(), 2);
+    }
+
+    @Test
+    public void consolePortComesFromEmulatorSerial() {
+        Assert.assertEquals(EmulatorConsoleTransport.consolePort("emulator-5556"), 5556);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void physicalDeviceHasNoConsole() {
+        EmulatorConsoleTransport.consolePort("R58M123ABC");
+    }
+}
@@ -0,0 +1,67 @@
+package com.automation.utils;
+
+import com.automation.utils.geo.Geodesy;
+import com.automation.utils.geo.Geofence;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * Unit tests for the device-independent parts of {@link GeofenceProvisioner}.
+ */
+public class GeofenceProvisionerTest {
+
+    @Test
+    public void scriptInsertsAllZonesInOneTransaction() {
+        String script = GeofenceProvisioner.buildScript(List.of(
+            new Geofence("Home", 37.7749, -122.4194, 50),
+            new Geofence("Bob's", 37.78, -122.42, 75.4)));
+
+        Assert.assertTrue(script.startsWith("BEGIN TRANSACTION;\n"), script);
+        Assert.assertTrue(script.endsWith("COMMIT;\n"), script);
+        Assert.assertTrue(script.contains("VALUES ('Home', '37.7749', '-122.4194', '50');"), script);
+        Assert.assertTrue(script.contains("VALUES ('Bob''s', '37.78', '-122.42', '75');"), script);
+        Assert.assertFalse(script.contains("DELETE FROM"), "existing zones are kept by default: " + script);
+    }
+
+    @Test
+    public void templateColumnsAreCheckedAgainstTheSchema() {
+        Assert.assertEquals(GeofenceProvisioner.templateColumns(
+                "INSERT INTO {table} (name, latitude, longitude, radius) VALUES ({name}, {latitude}, {longitude}, {radius});"),
+            List.of("name", "latitude", "longitude", "radius"));
+        Assert.assertEquals(GeofenceProvisioner.templateColumns("insert into zones(name,radius) values ({name}, {radius})"),
+            List.of("name", "radius"));
+        Assert.assertEquals(GeofenceProvisioner.templateColumns("INSERT INTO {table} VALUES ({name})"), List.of());
+    }
+
+    @Test
+    public void gridZonesAreEvenlySpaced() {
+        List<Geofence> zones = GeofenceProvisioner.gridZones(9, 37.7749, -122.4194, 50, 200);
+
+        Assert.assertEquals(zones.size(), 9);
+        Geofence middle = zones.get(4);
+        Assert.assertEquals(Geodesy.distanceMeters(middle.getLatitude(), middle.getLongitude(), 37.7749, -122.4194), 0, 0.01);
+        Geofence east = zones.get(5);
+        Assert.assertEquals(Geodesy.distanceMeters(middle.getLatitude(), middle.getLongitude(),
+            east.getLatitude(), east.getLongitude()), 200, 0.5);
+    }
+
+    @Test
+    public void exitStatusIsReadFromTheEchoedMarker() {
+        String output = "Error: near line 3: no such table: zone\n__exit=1\n";
+
+        Assert.assertEquals(GeofenceProvisioner.exitStatus(output), 1);
+        Assert.assertEquals(GeofenceProvisioner.stripStatus(output), "Error: near line 3: no such table: zone\n");
+    }
+
+    @Test
+    public void outputMentioningErrorDoesNotFailASuccessfulCommand() {
+        Assert.assertEquals(GeofenceProvisioner.exitStatus("error\n__exit=0\n"), 0);
+    }
+
+    @Test(expectedExceptions = RuntimeException.class)
+    public void missingExitStatusIsRejected() {
+        GeofenceProvisioner.exitStatus("100\n");
+    }
+}
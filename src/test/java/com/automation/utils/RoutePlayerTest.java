@@ -0,0 +1,80 @@
+package com.automation.utils;
+
+import com.automation.utils.geo.GeoPoint;
+import com.automation.utils.geo.Geodesy;
+import com.automation.utils.geo.TrackReader;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Unit tests for {@link RoutePlayer} with a recording {@link LocationSink}.
+ * 100 m/s at 50 Hz puts fixes 2 m and 20 ms apart, so a 20 m track plays 11 fixes in ~200 ms.
+ */
+public class RoutePlayerTest {
+    private static final GeoPoint START = new GeoPoint(0, 0);
+    private static final GeoPoint END = Geodesy.destination(0, 0, 90, 20);
+
+    private static class RecordingSink implements LocationSink {
+        final List<GeoPoint> fixes = new CopyOnWriteArrayList<>();
+        final long firstPushDelayMs;
+
+        RecordingSink(long firstPushDelayMs) {
+            this.firstPushDelayMs = firstPushDelayMs;
+        }
+
+        @Override
+        public void push(double latitude, double longitude) throws Exception {
+            if (fixes.isEmpty() && firstPushDelayMs > 0) {
+                Thread.sleep(firstPushDelayMs);
+            }
+            fixes.add(new GeoPoint(latitude, longitude));
+        }
+    }
+
+    @Test
+    public void streamsEvenlySpacedFixesOnSchedule() throws InterruptedException {
+        RecordingSink sink = new RecordingSink(0);
+
+        RoutePlayer.PlaybackResult result;
+        try (RoutePlayer player = new RoutePlayer(sink, 100, 50)) {
+            result = player.playAndWait(TrackReader.points(List.of(START, END)));
+        }
+
+        Assert.assertEquals(result.getFixesSent(), 11);
+        Assert.assertEquals(result.getFixesDropped(), 0);
+        Assert.assertEquals(sink.fixes.size(), 11);
+        for (int i = 1; i < sink.fixes.size(); i++) {
+            Assert.assertEquals(Geodesy.distanceMeters(sink.fixes.get(i - 1), sink.fixes.get(i)), 2, 0.01, "fix " + i);
+        }
+        // Fix k is due at k * 20 ms, so the last one cannot go out before 200 ms
+        Assert.assertTrue(result.getDurationMillis() >= 200, result.toString());
+    }
+
+    @Test
+    public void dropsOverdueFixesButAlwaysSendsTheLast() throws InterruptedException {
+        RecordingSink sink = new RecordingSink(100);
+
+        RoutePlayer.PlaybackResult result;
+        try (RoutePlayer player = new RoutePlayer(sink, 100, 50)) {
+            result = player.playAndWait(TrackReader.points(List.of(START, END)));
+        }
+
+        // The first push overruns ~5 periods, so the fixes due meanwhile are skipped
+        Assert.assertTrue(result.getFixesDropped() >= 3, result.toString());
+        Assert.assertEquals(result.getFixesSent() + result.getFixesDropped(), 11, result.toString());
+        Assert.assertEquals(sink.fixes.size(), result.getFixesSent());
+        Assert.assertEquals(Geodesy.distanceMeters(sink.fixes.get(sink.fixes.size() - 1), END), 0, 0.01);
+    }
+
+    @Test(expectedExceptions = RuntimeException.class)
+    public void sinkFailureFailsPlayback() throws InterruptedException {
+        try (RoutePlayer player = new RoutePlayer((latitude, longitude) -> {
+            throw new IllegalStateException("device gone");
+        }, 100, 50)) {
+            player.playAndWait(TrackReader.points(List.of(START, END)));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.automation.utils;
+
+import org.testng.Assert;
+import org.testng.ITestResult;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for {@link ScreenshotUtil} with a byte supplier instead of a device.
+ * The default config writes screenshots as captured (png, no downscaling).
+ */
+public class ScreenshotUtilTest {
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0, 0, 13};
+
+    /**
+     * ITestResult stand-in that only supports attributes; getMethod() returns null.
+     */
+    private static ITestResult result() {
+        Map<String, Object> attributes = new HashMap<>();
+        return (ITestResult) Proxy.newProxyInstance(ITestResult.class.getClassLoader(), new Class<?>[]{ITestResult.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getAttribute":
+                        return attributes.get((String) args[0]);
+                    case "setAttribute":
+                        attributes.put((String) args[0], args[1]);
+                        return null;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return null;
+                }
+            });
+    }
+
+    @Test
+    public void writesCapturedBytesUnchanged() throws Exception {
+        String path = ScreenshotUtil.captureScreenshot("writesCapturedBytes", () -> PNG);
+        try {
+            Assert.assertNotNull(path);
+            Assert.assertTrue(ArtifactWriter.getInstance().await(Paths.get(path), Duration.ofSeconds(5)));
+            Assert.assertEquals(Files.readAllBytes(Paths.get(path)), PNG);
+        } finally {
+            Files.deleteIfExists(Paths.get(path));
+        }
+    }
+
+    @Test
+    public void failureScreenshotIsCapturedOncePerResult() throws Exception {
+        AtomicInteger captures = new AtomicInteger();
+        ITestResult result = result();
+
+        String first = ScreenshotUtil.captureFailureScreenshot(result, () -> {
+            captures.incrementAndGet();
+            return PNG;
+        });
+        String second = ScreenshotUtil.captureFailureScreenshot(result, () -> {
+            captures.incrementAndGet();
+            return PNG;
+        });
+        try {
+            ArtifactWriter.getInstance().await(Paths.get(first), Duration.ofSeconds(5));
+            Assert.assertEquals(captures.get(), 1);
+            Assert.assertEquals(second, first);
+            Assert.assertTrue(Paths.get(first).getFileName().toString().startsWith("unknown_"));
+        } finally {
+            Files.deleteIfExists(Paths.get(first));
+        }
+    }
+
+    @Test
+    public void failedCaptureIsNotRetried() {
+        AtomicInteger captures = new AtomicInteger();
+        ITestResult result = result();
+
+        Assert.assertNull(ScreenshotUtil.captureFailureScreenshot(result, () -> {
+            captures.incrementAndGet();
+            return null;
+        }));
+        Assert.assertNull(ScreenshotUtil.captureFailureScreenshot(result, () -> {
+            captures.incrementAndGet();
+            return PNG;
+        }));
+        Assert.assertEquals(captures.get(), 1);
+        Assert.assertEquals(result.getAttribute(ScreenshotUtil.SCREENSHOT_ATTRIBUTE), "");
+    }
+
+    @Test
+    public void captureErrorsReturnNull() {
+        Assert.assertNull(ScreenshotUtil.captureScreenshot("broken", () -> {
+            throw new IllegalStateException("session gone");
+        }));
+    }
+}
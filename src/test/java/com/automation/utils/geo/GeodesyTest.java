@@ -0,0 +1,66 @@
+package com.automation.utils.geo;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests for {@link Geodesy} and {@link OffsetGenerator}.
+ * Reference values: Flinders Peak to Buninyong (Vincenty, 1975).
+ */
+public class GeodesyTest {
+    private static final double FLINDERS_LAT = -(37 + 57 / 60.0 + 3.72030 / 3600);
+    private static final double FLINDERS_LON = 144 + 25 / 60.0 + 29.52440 / 3600;
+    private static final double BUNINYONG_LAT = -(37 + 39 / 60.0 + 10.15610 / 3600);
+    private static final double BUNINYONG_LON = 143 + 55 / 60.0 + 35.38390 / 3600;
+    private static final double REFERENCE_DISTANCE = 54972.271;
+    private static final double REFERENCE_BEARING = 306 + 52 / 60.0 + 5.37 / 3600;
+
+    @Test
+    public void vincentyInverseMatchesReferenceDistance() {
+        double distance = Geodesy.vincentyDistanceMeters(FLINDERS_LAT, FLINDERS_LON, BUNINYONG_LAT, BUNINYONG_LON);
+        Assert.assertEquals(distance, REFERENCE_DISTANCE, 0.001);
+    }
+
+    @Test
+    public void vincentyDirectMatchesReferencePoint() {
+        GeoPoint point = Geodesy.vincentyDestination(FLINDERS_LAT, FLINDERS_LON, REFERENCE_BEARING, REFERENCE_DISTANCE);
+        Assert.assertEquals(point.getLatitude(), BUNINYONG_LAT, 1e-7);
+        Assert.assertEquals(point.getLongitude(), BUNINYONG_LON, 1e-7);
+    }
+
+    @Test
+    public void exitOffsetHasRequestedLengthAtHighLatitude() {
+        GeoPoint point = Geodesy.vincentyDestination(78.2, 15.6, 45, 150);
+        double distance = Geodesy.vincentyDistanceMeters(78.2, 15.6, point.getLatitude(), point.getLongitude());
+        Assert.assertEquals(distance, 150, 0.001);
+    }
+
+    @Test
+    public void haversineAgreesWithVincentyWithinSphericalError() {
+        double haversine = Geodesy.distanceMeters(FLINDERS_LAT, FLINDERS_LON, BUNINYONG_LAT, BUNINYONG_LON);
+        Assert.assertEquals(haversine, REFERENCE_DISTANCE, REFERENCE_DISTANCE * 0.005);
+    }
+
+    @Test
+    public void offsetGeneratorMatchesSphericalDestination() {
+        OffsetGenerator generator = new OffsetGenerator(37.7749, -122.4194, 8);
+        double[] lats = new double[16];
+        double[] lons = new double[16];
+        int end = generator.generate(150, lats, lons, 0);
+        end = generator.generate(300, lats, lons, end);
+        Assert.assertEquals(end, 16);
+
+        for (int i = 0; i < 8; i++) {
+            GeoPoint expected = Geodesy.destination(37.7749, -122.4194, 45.0 * i, 300);
+            Assert.assertEquals(lats[8 + i], expected.getLatitude(), 1e-9);
+            Assert.assertEquals(lons[8 + i], expected.getLongitude(), 1e-9);
+            Assert.assertEquals(Geodesy.distanceMeters(37.7749, -122.4194, lats[i], lons[i]), 150, 1e-6);
+        }
+    }
+
+    @Test
+    public void longitudeWrapsAcrossAntimeridian() {
+        GeoPoint point = Geodesy.destination(0, 179.9999, 90, 1000);
+        Assert.assertTrue(point.getLongitude() < -179.99, "Longitude should wrap, was " + point.getLongitude());
+    }
+}
@@ -0,0 +1,74 @@
+package com.automation.utils.geo;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.Random;
+
+/**
+ * Unit tests for {@link GeofenceIndex}, checked against brute-force scans.
+ */
+public class GeofenceIndexTest {
+    private static final int FENCES = 10_000;
+    private GeofenceIndex index;
+    private double[] lats;
+    private double[] lons;
+    private double[] radii;
+
+    @BeforeClass
+    public void buildIndex() {
+        Random random = new Random(7);
+        GeofenceIndex.Builder builder = new GeofenceIndex.Builder();
+        lats = new double[FENCES];
+        lons = new double[FENCES];
+        radii = new double[FENCES];
+        for (int i = 0; i < FENCES; i++) {
+            lats[i] = 37.6 + random.nextDouble() * 0.4;
+            lons[i] = -122.6 + random.nextDouble() * 0.4;
+            radii[i] = 25 + random.nextDouble() * 475;
+            builder.add(lats[i], lons[i], radii[i]);
+        }
+        index = builder.build();
+    }
+
+    @Test
+    public void containingMatchesBruteForce() {
+        Random random = new Random(11);
+        int[] out = new int[256];
+        for (int q = 0; q < 500; q++) {
+            double lat = 37.6 + random.nextDouble() * 0.4;
+            double lon = -122.6 + random.nextDouble() * 0.4;
+            int expected = 0;
+            for (int i = 0; i < FENCES; i++) {
+                if (Geodesy.distanceMeters(lat, lon, lats[i], lons[i]) <= radii[i]) {
+                    expected++;
+                }
+            }
+            Assert.assertEquals(index.containing(lat, lon, out), expected, "Query " + lat + "," + lon);
+        }
+    }
+
+    @Test
+    public void nearestMatchesBruteForce() {
+        Random random = new Random(13);
+        for (int q = 0; q < 500; q++) {
+            // Include points well outside the fixture to exercise the ring search bound
+            double lat = 37.4 + random.nextDouble() * 0.8;
+            double lon = -122.8 + random.nextDouble() * 0.8;
+            double expected = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < FENCES; i++) {
+                expected = Math.min(expected, Geodesy.distanceMeters(lat, lon, lats[i], lons[i]) - radii[i]);
+            }
+            int nearest = index.nearest(lat, lon);
+            Assert.assertEquals(index.distanceToBoundary(nearest, lat, lon), expected, 1e-9);
+        }
+    }
+
+    @Test
+    public void emptyIndexHasNoNearestFence() {
+        GeofenceIndex empty = new GeofenceIndex.Builder().build();
+        Assert.assertEquals(empty.nearest(0, 0), -1);
+        Assert.assertEquals(empty.containing(0, 0, new int[1]), 0);
+    }
+}
@@ -0,0 +1,81 @@
+package com.automation.utils.geo;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for {@link GeofenceOracle}.
+ */
+public class GeofenceOracleTest {
+    private static final double CENTER_LAT = 37.7749;
+    private static final double CENTER_LON = -122.4194;
+
+    @Test
+    public void exitTrackProducesEnterThenExit() {
+        GeofenceOracle oracle = new GeofenceOracle(List.of(new Geofence("zone", CENTER_LAT, CENTER_LON, 50)), 10);
+        List<GeofenceTransition> transitions = oracle.evaluate(List.of(
+            new GeoPoint(CENTER_LAT, CENTER_LON),
+            Geodesy.vincentyDestination(CENTER_LAT, CENTER_LON, 45, 150)));
+
+        Assert.assertEquals(transitions.size(), 2, transitions.toString());
+        Assert.assertEquals(transitions.get(0).getType(), GeofenceTransition.Type.ENTER);
+        Assert.assertEquals(transitions.get(1).getType(), GeofenceTransition.Type.EXIT);
+        Assert.assertEquals(transitions.get(1).getSampleIndex(), 1);
+    }
+
+    @Test
+    public void fixesInsideHysteresisBandDoNotFlap() {
+        GeofenceOracle oracle = new GeofenceOracle(List.of(new Geofence("zone", CENTER_LAT, CENTER_LON, 50)), 10, false);
+        List<GeoPoint> track = new ArrayList<>();
+        track.add(new GeoPoint(CENTER_LAT, CENTER_LON));
+        for (int i = 0; i < 10; i++) {
+            track.add(Geodesy.vincentyDestination(CENTER_LAT, CENTER_LON, 90, i % 2 == 0 ? 45 : 55));
+        }
+        track.add(Geodesy.vincentyDestination(CENTER_LAT, CENTER_LON, 90, 61));
+
+        List<GeofenceTransition> transitions = oracle.evaluate(track);
+
+        Assert.assertEquals(transitions.size(), 1, transitions.toString());
+        Assert.assertEquals(transitions.get(0).getType(), GeofenceTransition.Type.EXIT);
+        Assert.assertEquals(transitions.get(0).getSampleIndex(), 11);
+    }
+
+    @Test
+    public void matchesBruteForceOnRandomFixture() {
+        Random random = new Random(42);
+        List<Geofence> fences = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            fences.add(new Geofence("z" + i, 37.7 + random.nextDouble() * 0.1,
+                -122.5 + random.nextDouble() * 0.1, 20 + random.nextDouble() * 300));
+        }
+        List<GeoPoint> track = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            track.add(new GeoPoint(37.7 + 0.1 * i / 5000, -122.5 + 0.1 * Math.sin(i / 500.0)));
+        }
+        double hysteresis = 5;
+
+        List<GeofenceTransition> transitions = new GeofenceOracle(fences, hysteresis).evaluate(track);
+
+        int expected = 0;
+        boolean[] inside = new boolean[fences.size()];
+        for (GeoPoint point : track) {
+            for (int k = 0; k < fences.size(); k++) {
+                Geofence fence = fences.get(k);
+                double distance = Geodesy.distanceMeters(point.getLatitude(), point.getLongitude(),
+                    fence.getLatitude(), fence.getLongitude());
+                if (!inside[k] && distance <= fence.getRadiusMeters() - hysteresis) {
+                    inside[k] = true;
+                    expected++;
+                } else if (inside[k] && distance > fence.getRadiusMeters() + hysteresis) {
+                    inside[k] = false;
+                    expected++;
+                }
+            }
+        }
+        Assert.assertEquals(transitions.size(), expected);
+    }
+}
@@ -0,0 +1,74 @@
+package com.automation.utils.geo;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for {@link RouteInterpolator}.
+ * Tracks run east along the equator, so path length equals straight-line distance.
+ */
+public class RouteInterpolatorTest {
+    private static final GeoPoint ORIGIN = new GeoPoint(0, 0);
+
+    private static GeoPoint east(double meters) {
+        return Geodesy.destination(0, 0, 90, meters);
+    }
+
+    private static List<GeoPoint> resample(List<GeoPoint> track, double stepMeters) {
+        List<GeoPoint> points = new ArrayList<>();
+        try (RouteInterpolator interpolator = new RouteInterpolator(TrackReader.points(track), stepMeters)) {
+            while (interpolator.hasNext()) {
+                points.add(interpolator.next());
+            }
+        }
+        return points;
+    }
+
+    @Test
+    public void emitsPointsAtStepSpacingPlusFirstAndLastVertex() {
+        GeoPoint end = east(95);
+
+        List<GeoPoint> points = resample(List.of(ORIGIN, end), 10);
+
+        Assert.assertEquals(points.size(), 11);
+        Assert.assertSame(points.get(0), ORIGIN);
+        Assert.assertSame(points.get(10), end);
+        for (int i = 1; i < 10; i++) {
+            Assert.assertEquals(Geodesy.distanceMeters(points.get(i - 1), points.get(i)), 10, 0.01, "point " + i);
+        }
+        Assert.assertEquals(Geodesy.distanceMeters(points.get(9), end), 5, 0.01);
+    }
+
+    @Test
+    public void carriesRemainderAcrossVertices() {
+        List<GeoPoint> points = resample(List.of(ORIGIN, east(25), east(49)), 10);
+
+        Assert.assertEquals(points.size(), 6);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(Geodesy.distanceMeters(ORIGIN, points.get(i)), i * 10, 0.01, "point " + i);
+        }
+        Assert.assertEquals(Geodesy.distanceMeters(ORIGIN, points.get(5)), 49, 0.01);
+    }
+
+    @Test
+    public void lastVertexOnStepBoundaryIsEmittedOnce() {
+        List<GeoPoint> points = resample(List.of(ORIGIN, east(30)), 10);
+
+        Assert.assertEquals(points.size(), 4);
+        Assert.assertEquals(Geodesy.distanceMeters(ORIGIN, points.get(3)), 30, 0.01);
+    }
+
+    @Test
+    public void singlePointTrackEmitsThatPoint() {
+        Assert.assertEquals(resample(List.of(ORIGIN), 10).size(), 1);
+        Assert.assertTrue(resample(List.of(), 10).isEmpty());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsNonPositiveStep() {
+        new RouteInterpolator(TrackReader.points(List.of(ORIGIN)), 0);
+    }
+}
@@ -0,0 +1,118 @@
+package com.automation.utils.geo;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Unit tests for the {@link TrackReader} sources.
+ */
+public class TrackReaderTest {
+    private Path directory;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("tracks");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private static List<GeoPoint> readAll(TrackSource source) {
+        List<GeoPoint> points = new ArrayList<>();
+        try (source) {
+            while (source.hasNext()) {
+                points.add(source.next());
+            }
+        }
+        return points;
+    }
+
+    private static void assertPoint(GeoPoint point, double latitude, double longitude) {
+        Assert.assertEquals(point.getLatitude(), latitude, 1e-9, point.toString());
+        Assert.assertEquals(point.getLongitude(), longitude, 1e-9, point.toString());
+    }
+
+    @Test
+    public void decodesReferencePolyline() {
+        // Example from Google's encoded polyline algorithm documentation
+        List<GeoPoint> points = readAll(TrackReader.polyline("_p~iF~ps|U_ulLnnqC_mqNvxq`@"));
+
+        Assert.assertEquals(points.size(), 3);
+        assertPoint(points.get(0), 38.5, -120.2);
+        assertPoint(points.get(1), 40.7, -120.95);
+        assertPoint(points.get(2), 43.252, -126.453);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void rejectsTruncatedPolyline() {
+        readAll(TrackReader.polyline("_p~iF~ps|U_ulL"));
+    }
+
+    @Test
+    public void readsCsvSkippingHeaderCommentsAndBlankLines() throws IOException {
+        Path csv = directory.resolve("route.csv");
+        Files.writeString(csv, "latitude,longitude,time\n"
+            + "# start\n"
+            + "37.7749,-122.4194,0\n"
+            + "\n"
+            + "37.7750;-122.4195\n"
+            + "  37.7751\t-122.4196  \n");
+
+        List<GeoPoint> points = readAll(TrackReader.open(csv));
+
+        Assert.assertEquals(points.size(), 3);
+        assertPoint(points.get(0), 37.7749, -122.4194);
+        assertPoint(points.get(1), 37.7750, -122.4195);
+        assertPoint(points.get(2), 37.7751, -122.4196);
+    }
+
+    @Test
+    public void readsGpxTrackAndRoutePoints() throws IOException {
+        Path gpx = directory.resolve("route.gpx");
+        Files.writeString(gpx, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<gpx version=\"1.1\" creator=\"test\" xmlns=\"http://www.topografix.com/GPX/1/1\">\n"
+            + "  <wpt lat=\"1.0\" lon=\"1.0\"><name>ignored</name></wpt>\n"
+            + "  <trk><trkseg>\n"
+            + "    <trkpt lat=\"37.7749\" lon=\"-122.4194\"><ele>10</ele></trkpt>\n"
+            + "    <trkpt lat=\"37.7750\" lon=\"-122.4195\"/>\n"
+            + "  </trkseg></trk>\n"
+            + "  <rte><rtept lat=\"37.7751\" lon=\"-122.4196\"/></rte>\n"
+            + "</gpx>\n");
+
+        List<GeoPoint> points = readAll(TrackReader.open(gpx));
+
+        Assert.assertEquals(points.size(), 3);
+        assertPoint(points.get(0), 37.7749, -122.4194);
+        assertPoint(points.get(1), 37.7750, -122.4195);
+        assertPoint(points.get(2), 37.7751, -122.4196);
+    }
+
+    @Test
+    public void skipsNonNumericCsvLines() throws IOException {
+        Path csv = directory.resolve("route.csv");
+        Files.writeString(csv, "1,2\n3,4\nnot,a number\n");
+
+        try (TrackSource source = TrackReader.csv(csv)) {
+            assertPoint(source.next(), 1, 2);
+            Assert.assertTrue(source.hasNext());
+            assertPoint(source.next(), 3, 4);
+            Assert.assertFalse(source.hasNext());
+        }
+    }
+}